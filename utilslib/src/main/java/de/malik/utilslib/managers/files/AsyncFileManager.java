@@ -0,0 +1,285 @@
+package de.malik.utilslib.managers.files;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RequiresApi(api = Build.VERSION_CODES.N)
+public class AsyncFileManager implements Closeable {
+
+    /**
+     * the executor all file operations run on
+     */
+    private final ExecutorService executor;
+
+    /**
+     * true if the executor was created by this instance and has to be shut down on close
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * the reads which are currently running, mapped by the absolute path of the read file
+     */
+    private final ConcurrentHashMap<String, InFlightRead> inFlightReads = new ConcurrentHashMap<>();
+
+    /**
+     * the reader used for all read operations
+     */
+    private final ULReader reader = new ULReader();
+
+    /**
+     * the printer used for all print operations
+     */
+    private final ULPrinter printer = new ULPrinter();
+
+    /**
+     * creates a new AsyncFileManager with its own bounded I/O executor. If the queue of the executor is full,
+     * new operations fail with a RejectedExecutionException instead of creating more threads
+     * @param ioThreads the number of threads which run file operations
+     * @param queueCapacity the maximum number of operations which wait for a thread
+     * @throws IllegalArgumentException if the number of threads or the queue capacity is smaller than one
+     */
+    protected AsyncFileManager(int ioThreads, int queueCapacity) {
+        this(createExecutor(ioThreads, queueCapacity), true);
+    }
+
+    /**
+     * creates a new AsyncFileManager which runs all file operations on the given executor
+     * @param executor the executor all file operations run on
+     * @param ownsExecutor true if the executor has to be shut down when this instance is closed
+     */
+    protected AsyncFileManager(@NonNull ExecutorService executor, boolean ownsExecutor) {
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * creates a folder asynchronously, just like FileManager.createFolder()
+     * @param folderPath the path where the folder will be created
+     * @param folderName the name of the new folder
+     * @return a future which completes with the created folder
+     */
+    public CompletableFuture<File> createFolder(@NonNull String folderPath, @NonNull String folderName) {
+        return submit(() -> FileManager.createFolder(folderPath, folderName));
+    }
+
+    /**
+     * creates a file asynchronously, just like FileManager.createFile()
+     * @param folder the folder where the file will be created
+     * @param fileName the name of the new file
+     * @return a future which completes with the created file
+     */
+    public CompletableFuture<File> createFile(@NonNull File folder, @NonNull String fileName) {
+        return submit(() -> FileManager.createFile(folder, fileName));
+    }
+
+    /**
+     * reads the lines of the given file asynchronously, just like ULReader.readLines(). If the same file is already
+     * being read, no new read is started, instead the returned future completes with the result of the running read.
+     * Every caller gets its own copy of the lines and the list of the shared read is never handed out, so callers
+     * can change their lists while others are still copying. The read is only cancelled if all callers waiting
+     * for it cancel their futures
+     * @param file the file which will be read
+     * @return a future which completes with all the lines of the file
+     */
+    public CompletableFuture<ArrayList<String>> readLines(@NonNull File file) {
+        String key = file.getAbsolutePath();
+        while (true) {
+            InFlightRead read = inFlightReads.get(key);
+            if (read == null) {
+                InFlightRead newRead = new InFlightRead();
+                read = inFlightReads.putIfAbsent(key, newRead);
+                if (read == null) {
+                    read = newRead;
+                    start(key, file, read);
+                }
+            }
+            CompletableFuture<ArrayList<String>> subscription = read.subscribe();
+            if (subscription != null) {
+                return subscription;
+            }
+            inFlightReads.remove(key, read);
+        }
+    }
+
+    /**
+     * prints the given records into the given file asynchronously, just like ULPrinter.print()
+     * @param file the file where the records will be printed in
+     * @param append if true, the file will keep all it's content, otherwise the content will be overridden
+     * @param records the records which will be printed into the file
+     * @return a future which completes as soon as the records are printed
+     */
+    public CompletableFuture<Void> print(@NonNull File file, boolean append, @NonNull String... records) {
+        return print(file, append, Arrays.asList(records));
+    }
+
+    /**
+     * prints the given records into the given file asynchronously, just like ULPrinter.print()
+     * @param file the file where the records will be printed in
+     * @param append if true, the file will keep all it's content, otherwise the content will be overridden
+     * @param records the records which will be printed into the file
+     * @return a future which completes as soon as the records are printed
+     */
+    public CompletableFuture<Void> print(@NonNull File file, boolean append, @NonNull Collection<? extends String> records) {
+        return submit(() -> {
+            printer.print(file, append, records);
+            return null;
+        });
+    }
+
+    /**
+     * shuts down the executor if it was created by this instance. Operations which were already submitted will
+     * still be completed
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * runs the given operation on the executor. Cancelling the returned future cancels the operation
+     * @param operation the operation which will be run
+     * @param <T> the type of the result
+     * @return a future which completes with the result of the operation
+     */
+    private <T> CompletableFuture<T> submit(@NonNull Callable<T> operation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            Future<?> task = executor.submit(() -> {
+                if (result.isDone()) return;
+                try {
+                    result.complete(operation.call());
+                } catch (Throwable ex) {
+                    result.completeExceptionally(ex);
+                }
+            });
+            result.whenComplete((value, ex) -> {
+                if (result.isCancelled()) task.cancel(true);
+            });
+        } catch (RejectedExecutionException ex) {
+            result.completeExceptionally(ex);
+        }
+        return result;
+    }
+
+    /**
+     * starts the given read and removes it from the running reads as soon as it is done
+     * @param key the absolute path of the file
+     * @param file the file which will be read
+     * @param read the read which will be started
+     */
+    private void start(@NonNull String key, @NonNull File file, @NonNull InFlightRead read) {
+        read.source = submit(() -> reader.readLines(file));
+        read.source.whenComplete((lines, ex) -> inFlightReads.remove(key, read));
+        read.started.countDown();
+    }
+
+    /**
+     * creates a thread pool with a fixed number of daemon threads and a bounded queue
+     * @param ioThreads the number of threads
+     * @param queueCapacity the maximum number of operations which wait for a thread
+     * @return the created thread pool
+     */
+    private static ExecutorService createExecutor(int ioThreads, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "AsyncFileManager-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(ioThreads, ioThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * a read which can be shared by several callers
+     */
+    private static final class InFlightRead {
+
+        /**
+         * signals that the source was set
+         */
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        /**
+         * the number of callers which wait for the read, 0 as soon as all of them cancelled
+         */
+        private final AtomicInteger subscribers = new AtomicInteger();
+
+        /**
+         * the number of callers which subscribed so far, used to tell a new read from one all callers cancelled
+         */
+        private final AtomicInteger subscriptions = new AtomicInteger();
+
+        /**
+         * the future of the running read
+         */
+        private volatile CompletableFuture<ArrayList<String>> source;
+
+        /**
+         * subscribes a new caller to this read
+         * @return a future for the caller or null if the read was already cancelled by all its callers
+         */
+        private CompletableFuture<ArrayList<String>> subscribe() {
+            int count;
+            do {
+                count = subscribers.get();
+                if (count == 0 && subscriptions.get() > 0) {
+                    return null;
+                }
+            } while (!subscribers.compareAndSet(count, count + 1));
+            subscriptions.incrementAndGet();
+            awaitSource();
+            CompletableFuture<ArrayList<String>> subscription = new CompletableFuture<>();
+            source.whenComplete((lines, ex) -> {
+                if (ex != null) subscription.completeExceptionally(ex);
+                else subscription.complete(new ArrayList<>(lines));
+            });
+            subscription.whenComplete((lines, ex) -> {
+                if (subscription.isCancelled() && subscribers.decrementAndGet() == 0) {
+                    source.cancel(true);
+                }
+            });
+            return subscription;
+        }
+
+        /**
+         * waits until the thread which created this read has started it
+         */
+        private void awaitSource() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    started.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package de.malik.utilslib.managers.files;
+
+import android.system.ErrnoException;
+import android.system.Os;
+import android.system.OsConstants;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class AtomicRewriteBatch implements Closeable {
+
+    /**
+     * the tag used to output text with Log class
+     */
+    public static final String TAG = AtomicRewriteBatch.class.getName();
+
+    /**
+     * the extension of the temporary siblings the new content is written into
+     */
+    public static final String TEMP_EXTENSION = ".tmp";
+
+    /**
+     * the durability of the batch
+     */
+    private final Durability durability;
+
+    /**
+     * the written temporary files mapped by the target files they will replace. Every temporary file has a unique
+     * name, so batches which rewrite the same target at the same time do not share a temporary file
+     */
+    private final Map<File, File> pending = new LinkedHashMap<>();
+
+    /**
+     * true if the batch was committed or aborted
+     */
+    private boolean finished;
+
+    /**
+     * creates a new empty batch
+     * @param durability the durability all writes of the batch get when the batch is committed
+     */
+    protected AtomicRewriteBatch(@NonNull Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * writes the given records into a new temporary sibling of the given file. The file itself is not changed
+     * until the batch is committed. Writing the same file again replaces the records written before, if the
+     * writing fails the records written before stay in the batch
+     * @param file the file whose content will be replaced
+     * @param records the records which will be the new content of the file
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalStateException if the batch was already committed or aborted
+     */
+    public synchronized void print(@NonNull File file, @NonNull Collection<? extends String> records) throws IOException {
+        if (finished)
+            throw new IllegalStateException("The batch was already committed or aborted");
+        File target = file.getAbsoluteFile();
+        File temp = File.createTempFile("." + target.getName() + ".", TEMP_EXTENSION, target.getParentFile());
+        try {
+            PrintWriter printer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(temp), Charset.defaultCharset())));
+            try {
+                for (String record : records) {
+                    printer.println(record);
+                }
+                printer.flush();
+                if (printer.checkError()) {
+                    throw new IOException("Writing into \"" + temp.getName() + "\" failed");
+                }
+            } finally {
+                printer.close();
+            }
+        } catch (IOException | RuntimeException ex) {
+            deleteTemp(temp);
+            throw ex;
+        }
+        File replaced = pending.put(target, temp);
+        if (replaced != null) {
+            deleteTemp(replaced);
+        }
+    }
+
+    /**
+     * renames all temporary files over their target files. Unless the durability is NONE, every temporary file
+     * is synced right before its rename. If the durability is FULL_SYNC, every folder which contains a target
+     * is synced once afterwards
+     * @throws IOException if an I/O error occurred. Files renamed before the error keep their new content
+     * @throws IllegalStateException if the batch was already committed or aborted
+     */
+    public synchronized void commit() throws IOException {
+        if (finished)
+            throw new IllegalStateException("The batch was already committed or aborted");
+        finished = true;
+        Set<File> folders = new LinkedHashSet<>();
+        try {
+            for (Map.Entry<File, File> entry : new ArrayList<>(pending.entrySet())) {
+                File target = entry.getKey();
+                if (durability != Durability.NONE) {
+                    syncFile(entry.getValue(), durability == Durability.FULL_SYNC);
+                }
+                if (!entry.getValue().renameTo(target)) {
+                    throw new IOException("\"" + entry.getValue().getName() + "\" could not be renamed to \"" + target.getName() + "\"");
+                }
+                pending.remove(target);
+                folders.add(target.getParentFile());
+            }
+            if (durability == Durability.FULL_SYNC) {
+                for (File folder : folders) {
+                    syncFolder(folder);
+                }
+            }
+        } finally {
+            for (File temp : pending.values()) {
+                deleteTemp(temp);
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * returns the number of files which will be replaced when the batch is committed
+     * @return the number of written files
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * aborts the batch if it was not committed. All temporary files are deleted and the target files stay unchanged
+     */
+    @Override
+    public synchronized void close() {
+        if (finished) return;
+        finished = true;
+        for (File temp : pending.values()) {
+            deleteTemp(temp);
+        }
+        pending.clear();
+    }
+
+    /**
+     * syncs the content of the given file to the storage device
+     * @param file the file which will be synced
+     * @param metaData if true, the metadata of the file is synced as well
+     * @throws IOException if an I/O error occurred
+     */
+    private static void syncFile(@NonNull File file, boolean metaData) throws IOException {
+        RandomAccessFile access = new RandomAccessFile(file, "rw");
+        try {
+            access.getChannel().force(metaData);
+        } finally {
+            access.close();
+        }
+    }
+
+    /**
+     * syncs the given folder, so a rename in it survives a crash
+     * @param folder the folder which will be synced
+     * @throws IOException if an I/O error occurred
+     */
+    private static void syncFolder(@NonNull File folder) throws IOException {
+        try {
+            FileDescriptor fd = Os.open(folder.getAbsolutePath(), OsConstants.O_RDONLY, 0);
+            try {
+                Os.fsync(fd);
+            } finally {
+                Os.close(fd);
+            }
+        } catch (ErrnoException ex) {
+            throw ex.rethrowAsIOException();
+        }
+    }
+
+    /**
+     * deletes the given temporary file
+     * @param temp the file which will be deleted
+     */
+    private static void deleteTemp(@NonNull File temp) {
+        if (temp.exists() && !temp.delete()) {
+            Log.w(TAG, "Temporary file \"" + temp.getName() + "\" could not be deleted");
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+public class BinaryRecordReader implements Closeable {
+
+    /**
+     * the channel of the read file
+     */
+    private final FileChannel channel;
+
+    /**
+     * the buffer the block headers and checksums are read into
+     */
+    private final ByteBuffer header = ByteBuffer.allocate(BinaryRecordWriter.BLOCK_HEADER_SIZE);
+
+    /**
+     * the checksum used to verify the blocks
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * the payload of the current block
+     */
+    private ByteBuffer block = ByteBuffer.allocate(BinaryRecordWriter.DEFAULT_BLOCK_SIZE);
+
+    /**
+     * the view on the current block which is returned by nextRecord()
+     */
+    private ByteBuffer view = block.asReadOnlyBuffer();
+
+    /**
+     * the number of records of the current block which were not read yet
+     */
+    private int remainingRecords;
+
+    /**
+     * opens the given binary record file
+     * @param file the file which will be read
+     * @throws IOException if an I/O error occurred or the file is not a binary record file
+     */
+    protected BinaryRecordReader(@NonNull File file) throws IOException {
+        checkFileHeader(file);
+        FileInputStream in = new FileInputStream(file);
+        channel = in.getChannel();
+        channel.position(BinaryRecordWriter.FILE_HEADER_SIZE);
+    }
+
+    /**
+     * checks if the given file starts with the header of a binary record file
+     * @param file the file which will be checked
+     * @throws IOException if an I/O error occurred or the file is not a binary record file
+     */
+    protected static void checkFileHeader(@NonNull File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != BinaryRecordWriter.MAGIC) {
+                throw new IOException("File \"" + file.getName() + "\" is not a binary record file");
+            }
+            byte version = in.readByte();
+            if (version != BinaryRecordWriter.VERSION) {
+                throw new IOException("File \"" + file.getName() + "\" has the unsupported version " + version);
+            }
+        } catch (EOFException ex) {
+            throw new IOException("File \"" + file.getName() + "\" is not a binary record file", ex);
+        }
+    }
+
+    /**
+     * reads the next record. The returned buffer is only valid until the next call of this reader,
+     * its remaining bytes are the record
+     * @return a read-only view on the next record or null if there are no more records
+     * @throws IOException if an I/O error occurred or a block is corrupted
+     */
+    public ByteBuffer nextRecord() throws IOException {
+        while (remainingRecords == 0) {
+            if (!readBlock()) {
+                return null;
+            }
+        }
+        int length = getVarInt();
+        int start = block.position();
+        if (length < 0 || length > block.remaining()) {
+            throw new IOException("Corrupted record of length " + length + " at offset " + start + " of block");
+        }
+        block.position(start + length);
+        remainingRecords--;
+        view.limit(start + length);
+        view.position(start);
+        return view;
+    }
+
+    /**
+     * reads the next record and decodes it as UTF-8 string
+     * @return the next record or null if there are no more records
+     * @throws IOException if an I/O error occurred or a block is corrupted
+     */
+    public String nextString() throws IOException {
+        ByteBuffer record = nextRecord();
+        if (record == null) {
+            return null;
+        }
+        return new String(block.array(), block.arrayOffset() + record.position(), record.remaining(), BinaryRecordWriter.CHARSET);
+    }
+
+    /**
+     * closes the file
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * reads the next block and verifies its checksum if it has one
+     * @return true if a block was read, false if the end of the file was reached
+     * @throws IOException if an I/O error occurred or the block is corrupted
+     */
+    private boolean readBlock() throws IOException {
+        header.clear();
+        if (!readFully(header, true)) {
+            return false;
+        }
+        header.flip();
+        byte flags = header.get();
+        int recordCount = header.getInt();
+        int payloadLength = header.getInt();
+        if (recordCount < 0 || payloadLength < 0 || payloadLength > BinaryRecordWriter.MAX_BLOCK_SIZE || recordCount > payloadLength) {
+            throw new IOException("Corrupted block header at offset " + (channel.position() - header.limit()));
+        }
+        if (block.capacity() < payloadLength) {
+            block = ByteBuffer.allocate(payloadLength);
+            view = block.asReadOnlyBuffer();
+        }
+        block.clear();
+        block.limit(payloadLength);
+        readFully(block, false);
+        block.flip();
+        if ((flags & BinaryRecordWriter.FLAG_CHECKSUM) != 0) {
+            header.clear();
+            header.limit(4);
+            readFully(header, false);
+            header.flip();
+            checksum.reset();
+            checksum.update(block.array(), block.arrayOffset(), payloadLength);
+            if (header.getInt() != (int) checksum.getValue()) {
+                throw new IOException("Checksum mismatch in block ending at offset " + channel.position());
+            }
+        }
+        view.clear();
+        view.limit(payloadLength);
+        remainingRecords = recordCount;
+        return true;
+    }
+
+    /**
+     * reads a value which was written with 7 bits per byte from the current block
+     * @return the read value
+     * @throws IOException if the value is not complete
+     */
+    private int getVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!block.hasRemaining()) {
+                throw new IOException("Corrupted record length in block");
+            }
+            byte b = block.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted record length in block");
+    }
+
+    /**
+     * fills the remaining space of the given buffer with bytes of the file
+     * @param buffer the buffer which will be filled
+     * @param endAllowed if true, the end of the file may be reached before the first byte is read
+     * @return false if the end of the file was reached before the first byte was read, true otherwise
+     * @throws IOException if an I/O error occurred or the file ends within the buffer
+     */
+    private boolean readFully(@NonNull ByteBuffer buffer, boolean endAllowed) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (endAllowed && buffer.position() == start) {
+                    return false;
+                }
+                throw new EOFException("Unexpected end of binary record file");
+            }
+        }
+        return true;
+    }
+}
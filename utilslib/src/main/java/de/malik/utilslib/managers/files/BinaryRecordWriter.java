@@ -0,0 +1,263 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.zip.CRC32;
+
+public class BinaryRecordWriter implements Closeable {
+
+    /**
+     * the magic number at the beginning of every binary record file
+     */
+    public static final int MAGIC = 0x554C4252;
+
+    /**
+     * the version of the binary record format
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * the number of bytes of the file header (magic number and version)
+     */
+    public static final int FILE_HEADER_SIZE = 5;
+
+    /**
+     * the number of bytes of a block header (flags, record count and payload length)
+     */
+    public static final int BLOCK_HEADER_SIZE = 9;
+
+    /**
+     * the flag of a block which is followed by a CRC32 checksum of its payload
+     */
+    public static final byte FLAG_CHECKSUM = 1;
+
+    /**
+     * the default size of the payload of a block in bytes
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * the maximum size of the payload of a block in bytes, including the lengths of its records. Readers reject
+     * blocks whose header announces a larger payload before they allocate it
+     */
+    public static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * the charset of string records
+     */
+    public static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * the channel of the written file
+     */
+    private final FileChannel channel;
+
+    /**
+     * the buffer which contains the block header and collects the records of the current block
+     */
+    private ByteBuffer block;
+
+    /**
+     * the buffer string records are encoded into before they are put into the block
+     */
+    private ByteBuffer encoded = ByteBuffer.allocate(256);
+
+    /**
+     * the encoder used to encode string records
+     */
+    private final CharsetEncoder encoder = CHARSET.newEncoder();
+
+    /**
+     * the checksum of the current block or null if the blocks have no checksum
+     */
+    private final CRC32 checksum;
+
+    /**
+     * the buffer the checksum is written from
+     */
+    private final ByteBuffer checksumBuffer = ByteBuffer.allocate(4);
+
+    /**
+     * the size the payload of a block should not exceed
+     */
+    private final int blockSize;
+
+    /**
+     * the number of records in the current block
+     */
+    private int recordCount;
+
+    /**
+     * opens the given file for writing binary records
+     * @param file the file the records will be written into
+     * @param append if true, the records will be appended to the records the file already contains,
+     *               otherwise the content of the file will be overridden
+     * @param useChecksum if true, every block will be followed by a CRC32 checksum of its payload
+     * @param blockSize the size the payload of a block should not exceed, a single larger record gets its own block
+     * @throws IOException if an I/O error occurred or the file is not a binary record file
+     * @throws IllegalArgumentException if the block size is smaller than one or greater than MAX_BLOCK_SIZE
+     */
+    protected BinaryRecordWriter(@NonNull File file, boolean append, boolean useChecksum, int blockSize) throws IOException {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE)
+            throw new IllegalArgumentException("Block size has to be between 1 and " + MAX_BLOCK_SIZE + ": " + blockSize);
+        this.blockSize = blockSize;
+        checksum = useChecksum ? new CRC32() : null;
+        block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + blockSize);
+        block.position(BLOCK_HEADER_SIZE);
+        boolean writeHeader = !append || file.length() == 0;
+        if (!writeHeader) {
+            BinaryRecordReader.checkFileHeader(file);
+        }
+        channel = new FileOutputStream(file, append).getChannel();
+        if (writeHeader) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(MAGIC).put(VERSION).flip();
+            writeFully(header);
+        }
+    }
+
+    /**
+     * writes the remaining bytes of the given buffer as one record. The position of the buffer will not be changed
+     * @param record the buffer which contains the record
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if the record does not fit into a block of MAX_BLOCK_SIZE
+     */
+    public void write(@NonNull ByteBuffer record) throws IOException {
+        int length = record.remaining();
+        reserve(length);
+        putVarInt(length);
+        block.put(record.duplicate());
+        recordCount++;
+    }
+
+    /**
+     * writes the given bytes as one record
+     * @param bytes the array which contains the record
+     * @param offset the offset of the record in the array
+     * @param length the length of the record
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if the record does not fit into a block of MAX_BLOCK_SIZE
+     */
+    public void write(@NonNull byte[] bytes, int offset, int length) throws IOException {
+        reserve(length);
+        putVarInt(length);
+        block.put(bytes, offset, length);
+        recordCount++;
+    }
+
+    /**
+     * writes the given characters as one UTF-8 encoded record
+     * @param record the characters which will be written
+     * @throws IOException if an I/O error occurred
+     * @throws CharacterCodingException if the record contains malformed characters
+     * @throws IllegalArgumentException if the encoded record does not fit into a block of MAX_BLOCK_SIZE
+     */
+    public void write(@NonNull CharSequence record) throws IOException {
+        int maxLength = (int) Math.ceil(record.length() * (double) encoder.maxBytesPerChar());
+        if (encoded.capacity() < maxLength) {
+            encoded = ByteBuffer.allocate(maxLength);
+        }
+        encoded.clear();
+        encoder.reset();
+        CoderResult result = encoder.encode(CharBuffer.wrap(record), encoded, true);
+        if (result.isUnderflow()) {
+            result = encoder.flush(encoded);
+        }
+        if (!result.isUnderflow()) {
+            result.throwException();
+        }
+        encoded.flip();
+        write(encoded);
+    }
+
+    /**
+     * writes the current block into the file, even if it is not full yet
+     * @throws IOException if an I/O error occurred
+     */
+    public void flush() throws IOException {
+        if (recordCount == 0) return;
+        int payloadLength = block.position() - BLOCK_HEADER_SIZE;
+        block.put(0, checksum != null ? FLAG_CHECKSUM : 0);
+        block.putInt(1, recordCount);
+        block.putInt(5, payloadLength);
+        block.flip();
+        writeFully(block);
+        if (checksum != null) {
+            checksum.reset();
+            checksum.update(block.array(), block.arrayOffset() + BLOCK_HEADER_SIZE, payloadLength);
+            checksumBuffer.clear();
+            checksumBuffer.putInt((int) checksum.getValue()).flip();
+            writeFully(checksumBuffer);
+        }
+        block.clear();
+        block.position(BLOCK_HEADER_SIZE);
+        recordCount = 0;
+    }
+
+    /**
+     * writes the current block and closes the file
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * makes sure the current block has space for a record of the given length. If the block is full,
+     * it will be written first
+     * @param length the length of the record
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if the record does not fit into a block of MAX_BLOCK_SIZE
+     */
+    private void reserve(int length) throws IOException {
+        if (length > MAX_BLOCK_SIZE - 5)
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit into a block of " + MAX_BLOCK_SIZE + " bytes");
+        int required = length + 5;
+        if (block.position() + required > BLOCK_HEADER_SIZE + blockSize) {
+            flush();
+        }
+        if (block.remaining() < required) {
+            block = ByteBuffer.allocate(BLOCK_HEADER_SIZE + required);
+            block.position(BLOCK_HEADER_SIZE);
+        }
+    }
+
+    /**
+     * puts the given value into the current block using 7 bits per byte
+     * @param value the value which will be put
+     */
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            block.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        block.put((byte) value);
+    }
+
+    /**
+     * writes all the remaining bytes of the given buffer into the file
+     * @param buffer the buffer which will be written
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeFully(@NonNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
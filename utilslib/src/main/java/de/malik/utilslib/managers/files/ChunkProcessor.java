@@ -0,0 +1,24 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+public interface ChunkProcessor<R> {
+
+    /**
+     * processes the lines of one chunk of the file. This method is called concurrently for different chunks
+     * @param lines the lines of the chunk, without their line terminators
+     * @return the result of the chunk
+     */
+    R processChunk(@NonNull ArrayList<String> lines);
+
+    /**
+     * combines the results of two chunks. If the order is preserved, left always belongs to the chunks
+     * in front of the chunks of right
+     * @param left the result of the first chunks
+     * @param right the result of the following chunks
+     * @return the combined result
+     */
+    R reduce(R left, R right);
+}
@@ -0,0 +1,292 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+
+public class ChunkedFileProcessor {
+
+    /**
+     * the default size of a chunk in bytes
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    /**
+     * the number of bytes which are read at once while searching the end of a line
+     */
+    private static final int SCAN_BUFFER_SIZE = 8192;
+
+    /**
+     * the charset used to decode the lines. This is the same charset ULPrinter and ULReader use
+     */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * the pool which is used if the caller does not pass one
+     */
+    private static ForkJoinPool sharedPool;
+
+    /**
+     * the channel of the processed file, which is read by all chunks concurrently with positional reads
+     */
+    private final FileChannel channel;
+
+    /**
+     * the start offsets of all chunks. The last entry is the size of the file
+     */
+    private final long[] chunkStarts;
+
+    /**
+     * opens the given file and splits it into chunks which end right behind a line terminator
+     * @param file the file which will be processed
+     * @param chunkSize the size a chunk should have at least, in bytes
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if the chunk size is smaller than one
+     */
+    protected ChunkedFileProcessor(@NonNull File file, long chunkSize) throws IOException {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size can not be smaller than one");
+        channel = new FileInputStream(file).getChannel();
+        try {
+            chunkStarts = findChunkStarts(chunkSize);
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * returns the pool which is shared by all calls which do not pass their own pool
+     * @return the shared fork join pool
+     */
+    protected static synchronized ForkJoinPool getSharedPool() {
+        if (sharedPool == null) {
+            sharedPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return sharedPool;
+    }
+
+    /**
+     * processes all chunks on the given pool and reduces their results in the order of the chunks
+     * @param processor the processor which processes and reduces the chunks
+     * @param pool the pool the chunks will be processed on
+     * @param <R> the type of the result
+     * @return the reduced result of all chunks
+     * @throws IOException if an I/O error occurred
+     */
+    protected <R> R process(@NonNull ChunkProcessor<R> processor, @NonNull ForkJoinPool pool) throws IOException {
+        try {
+            if (chunkCount() == 0) {
+                return processor.processChunk(new ArrayList<>());
+            }
+            return pool.invoke(new ChunkTask<>(processor, 0, chunkCount()));
+        } catch (ChunkReadException ex) {
+            throw ex.getCause();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * processes all chunks on the given executor and reduces their results
+     * @param processor the processor which processes and reduces the chunks
+     * @param executor the executor the chunks will be processed on
+     * @param preserveOrder if true, the results are reduced in the order of the chunks,
+     *                      otherwise in the order the chunks are finished
+     * @param <R> the type of the result
+     * @return the reduced result of all chunks
+     * @throws IOException if an I/O error occurred
+     * @throws InterruptedException if the thread was interrupted while waiting for the chunks
+     */
+    protected <R> R process(@NonNull ChunkProcessor<R> processor, @NonNull ExecutorService executor, boolean preserveOrder)
+            throws IOException, InterruptedException {
+        int count = chunkCount();
+        ArrayList<Future<R>> futures = new ArrayList<>(count);
+        try {
+            if (count == 0) {
+                return processor.processChunk(new ArrayList<>());
+            }
+            CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < count; i++) {
+                final int chunk = i;
+                futures.add(completionService.submit(() -> processor.processChunk(readChunk(chunk))));
+            }
+            R result = null;
+            for (int i = 0; i < count; i++) {
+                Future<R> future = preserveOrder ? futures.get(i) : completionService.take();
+                R chunkResult = future.get();
+                result = i == 0 ? chunkResult : processor.reduce(result, chunkResult);
+            }
+            return result;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IOException(cause);
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(true);
+            }
+            channel.close();
+        }
+    }
+
+    /**
+     * returns the number of chunks the file was split into
+     * @return the number of chunks
+     */
+    private int chunkCount() {
+        return chunkStarts.length - 1;
+    }
+
+    /**
+     * searches the chunk boundaries. Every chunk except the last one ends right behind a '\n',
+     * so no line is split between two chunks
+     * @param chunkSize the size a chunk should have at least, in bytes
+     * @return the start offsets of all chunks followed by the size of the file
+     * @throws IOException if an I/O error occurred
+     */
+    private long[] findChunkStarts(long chunkSize) throws IOException {
+        long size = channel.size();
+        long[] starts = new long[(int) Math.min(Integer.MAX_VALUE - 1, size / chunkSize + 2)];
+        int count = 0;
+        ByteBuffer scanBuffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long start = 0;
+        while (start < size) {
+            starts[count++] = start;
+            start = findLineEnd(start + chunkSize, size, scanBuffer);
+        }
+        long[] result = Arrays.copyOf(starts, count + 1);
+        result[count] = size;
+        return result;
+    }
+
+    /**
+     * searches the first '\n' at or behind the given position
+     * @param position the position where the search starts
+     * @param size the size of the file
+     * @param scanBuffer the buffer used to read the file
+     * @return the offset right behind the found '\n' or the size of the file if there is none
+     * @throws IOException if an I/O error occurred
+     */
+    private long findLineEnd(long position, long size, @NonNull ByteBuffer scanBuffer) throws IOException {
+        while (position < size) {
+            scanBuffer.clear();
+            int read = channel.read(scanBuffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (scanBuffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * reads and decodes the lines of the given chunk
+     * @param chunk the index of the chunk
+     * @return the lines of the chunk, without their line terminators
+     * @throws IOException if an I/O error occurred
+     */
+    private ArrayList<String> readChunk(int chunk) throws IOException {
+        long start = chunkStarts[chunk];
+        byte[] bytes = new byte[(int) (chunkStarts[chunk + 1] - start)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at offset " + (start + buffer.position()));
+            }
+        }
+        ArrayList<String> lines = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), CHARSET));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    /**
+     * a task which processes a range of chunks by splitting it in halves until only one chunk is left
+     * @param <R> the type of the result
+     */
+    private class ChunkTask<R> extends RecursiveTask<R> {
+
+        /**
+         * the processor which processes and reduces the chunks
+         */
+        private final ChunkProcessor<R> processor;
+
+        /**
+         * the first chunk of the range (inclusive) and the end of the range (exclusive)
+         */
+        private final int from, to;
+
+        /**
+         * creates a new task for the given range of chunks
+         * @param processor the processor which processes and reduces the chunks
+         * @param from the first chunk of the range
+         * @param to the chunk behind the last chunk of the range
+         */
+        private ChunkTask(@NonNull ChunkProcessor<R> processor, int from, int to) {
+            this.processor = processor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from == 1) {
+                try {
+                    return processor.processChunk(readChunk(from));
+                } catch (IOException ex) {
+                    throw new ChunkReadException(ex);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            ChunkTask<R> right = new ChunkTask<>(processor, middle, to);
+            right.fork();
+            R left = new ChunkTask<>(processor, from, middle).compute();
+            return processor.reduce(left, right.join());
+        }
+    }
+
+    /**
+     * carries an I/O error out of a fork join task
+     */
+    private static class ChunkReadException extends RuntimeException {
+
+        /**
+         * creates a new exception with the given I/O error as cause
+         * @param cause the I/O error which occurred
+         */
+        private ChunkReadException(@NonNull IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+public class CompressedBlockInputStream extends InputStream {
+
+    /**
+     * the stream the compressed blocks are read from
+     */
+    private final DataInputStream in;
+
+    /**
+     * the decompressor of the blocks
+     */
+    private final Inflater inflater = new Inflater(true);
+
+    /**
+     * the checksum used to verify the uncompressed content of a block
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * the uncompressed content of the current block
+     */
+    private byte[] block = new byte[CompressedBlockOutputStream.DEFAULT_BLOCK_SIZE];
+
+    /**
+     * the compressed content of the current block
+     */
+    private byte[] compressed = new byte[CompressedBlockOutputStream.DEFAULT_BLOCK_SIZE];
+
+    /**
+     * the number of bytes in the current block and the position of the next byte which will be read
+     */
+    private int blockLength, position;
+
+    /**
+     * opens the given file and starts reading at the given block offset
+     * @param file the file which will be read
+     * @param blockOffset the offset of the first block which will be read, must be 0 or an offset returned
+     *                    by findBlockOffsets()
+     * @throws IOException if an I/O error occurred
+     */
+    public CompressedBlockInputStream(@NonNull File file, long blockOffset) throws IOException {
+        FileInputStream fileIn = new FileInputStream(file);
+        try {
+            fileIn.getChannel().position(blockOffset);
+        } catch (IOException ex) {
+            fileIn.close();
+            throw ex;
+        }
+        in = new DataInputStream(new BufferedInputStream(fileIn));
+    }
+
+    /**
+     * reads only the block headers of the given file and returns the offset of every block. A reader can start
+     * at any of these offsets without reading the blocks in front of it
+     * @param file the file which will be scanned
+     * @return the offsets of all blocks of the file
+     * @throws IOException if an I/O error occurred or the file contains a corrupted block header
+     */
+    public static long[] findBlockOffsets(@NonNull File file) throws IOException {
+        long[] offsets = new long[16];
+        int count = 0;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            long offset = 0;
+            while (offset < length) {
+                raf.seek(offset);
+                if (raf.readInt() != CompressedBlockOutputStream.BLOCK_MAGIC) {
+                    throw new IOException("Corrupted block header at offset " + offset);
+                }
+                int uncompressedLength = raf.readInt();
+                int compressedLength = raf.readInt();
+                if (!isValidBlockHeader(uncompressedLength, compressedLength)) {
+                    throw new IOException("Corrupted block header at offset " + offset);
+                }
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                }
+                offsets[count++] = offset;
+                offset += CompressedBlockOutputStream.BLOCK_HEADER_SIZE + compressedLength;
+            }
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (position == blockLength) {
+            if (!readBlock()) return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(@NonNull byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        while (position == blockLength) {
+            if (!readBlock()) return -1;
+        }
+        int count = Math.min(length, blockLength - position);
+        System.arraycopy(block, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return blockLength - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    /**
+     * reads and decompresses the next block
+     * @return true if a block was read, false if the end of the file was reached
+     * @throws IOException if an I/O error occurred or the block is corrupted
+     */
+    private boolean readBlock() throws IOException {
+        int magic;
+        try {
+            magic = in.readInt();
+        } catch (EOFException ex) {
+            return false;
+        }
+        if (magic != CompressedBlockOutputStream.BLOCK_MAGIC) {
+            throw new IOException("Corrupted block header");
+        }
+        int uncompressedLength = in.readInt();
+        int compressedLength = in.readInt();
+        int storedChecksum = in.readInt();
+        if (!isValidBlockHeader(uncompressedLength, compressedLength)) {
+            throw new IOException("Corrupted block header");
+        }
+        if (compressed.length < compressedLength) compressed = new byte[compressedLength];
+        if (block.length < uncompressedLength) block = new byte[uncompressedLength];
+        in.readFully(compressed, 0, compressedLength);
+        inflater.reset();
+        inflater.setInput(compressed, 0, compressedLength);
+        try {
+            int inflated = 0;
+            while (inflated < uncompressedLength && !inflater.finished()) {
+                int count = inflater.inflate(block, inflated, uncompressedLength - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                inflated += count;
+            }
+            if (inflated != uncompressedLength) {
+                throw new IOException("Corrupted block, expected " + uncompressedLength + " bytes but got " + inflated);
+            }
+        } catch (DataFormatException ex) {
+            throw new IOException("Corrupted block", ex);
+        }
+        checksum.reset();
+        checksum.update(block, 0, uncompressedLength);
+        if ((int) checksum.getValue() != storedChecksum) {
+            throw new IOException("Checksum mismatch in compressed block");
+        }
+        blockLength = uncompressedLength;
+        position = 0;
+        return true;
+    }
+
+    /**
+     * checks the lengths of a block header before they are used to allocate or skip the block. The header is not
+     * covered by the checksum, so a corrupted length would otherwise cause a huge allocation
+     * @param uncompressedLength the uncompressed length of the block
+     * @param compressedLength the compressed length of the block
+     * @return true if both lengths are within the limits the writer enforces
+     */
+    private static boolean isValidBlockHeader(int uncompressedLength, int compressedLength) {
+        return uncompressedLength >= 0 && uncompressedLength <= CompressedBlockOutputStream.MAX_BLOCK_SIZE
+                && compressedLength >= 0 && compressedLength <= CompressedBlockOutputStream.MAX_COMPRESSED_BLOCK_SIZE;
+    }
+}
@@ -0,0 +1,213 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+public class CompressedBlockOutputStream extends OutputStream {
+
+    /**
+     * the magic number at the beginning of every block
+     */
+    public static final int BLOCK_MAGIC = 0x554C4342;
+
+    /**
+     * the number of bytes of a block header (magic number, uncompressed length, compressed length and checksum)
+     */
+    public static final int BLOCK_HEADER_SIZE = 16;
+
+    /**
+     * the default number of uncompressed bytes after which a block will be finished at the next record boundary
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * the maximum number of uncompressed bytes of a block. Readers reject blocks whose header announces more
+     * before they allocate them
+     */
+    public static final int MAX_BLOCK_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * the maximum number of compressed bytes of a block, which leaves room for the overhead of incompressible content
+     */
+    public static final int MAX_COMPRESSED_BLOCK_SIZE = MAX_BLOCK_SIZE + MAX_BLOCK_SIZE / 8 + 64;
+
+    /**
+     * the stream the compressed blocks are written into
+     */
+    private final DataOutputStream out;
+
+    /**
+     * the compressor of the blocks
+     */
+    private final Deflater deflater;
+
+    /**
+     * the checksum of the uncompressed content of a block
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * the number of uncompressed bytes after which a block will be finished at the next record boundary
+     */
+    private final int blockSize;
+
+    /**
+     * the uncompressed content of the current block
+     */
+    private byte[] block;
+
+    /**
+     * the number of bytes in the current block
+     */
+    private int blockLength;
+
+    /**
+     * the number of bytes in the current block which belong to completed records
+     */
+    private int recordEnd;
+
+    /**
+     * the buffer the compressed block is written into
+     */
+    private byte[] compressed;
+
+    /**
+     * true if the stream was closed
+     */
+    private boolean closed;
+
+    /**
+     * creates a new stream which writes compressed blocks into the given stream
+     * @param out the stream the compressed blocks are written into
+     * @param level the compression level from Deflater.NO_COMPRESSION to Deflater.BEST_COMPRESSION,
+     *              or Deflater.DEFAULT_COMPRESSION
+     * @param blockSize the number of uncompressed bytes after which a block will be finished at the next record boundary
+     * @throws IllegalArgumentException if the block size is smaller than one or greater than MAX_BLOCK_SIZE
+     */
+    public CompressedBlockOutputStream(@NonNull OutputStream out, int level, int blockSize) {
+        if (blockSize < 1 || blockSize > MAX_BLOCK_SIZE)
+            throw new IllegalArgumentException("Block size has to be between 1 and " + MAX_BLOCK_SIZE + ": " + blockSize);
+        this.out = new DataOutputStream(out);
+        this.deflater = new Deflater(level, true);
+        this.blockSize = blockSize;
+        block = new byte[blockSize];
+        compressed = new byte[blockSize + blockSize / 8 + 64];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureCapacity(1);
+        block[blockLength++] = (byte) b;
+    }
+
+    @Override
+    public void write(@NonNull byte[] bytes, int offset, int length) throws IOException {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, block, blockLength, length);
+        blockLength += length;
+    }
+
+    /**
+     * tells the stream that a complete record was written. If the current block reached the block size, it will be
+     * finished here, so every block starts at the beginning of a record
+     * @throws IOException if an I/O error occurred
+     */
+    public void endRecord() throws IOException {
+        recordEnd = blockLength;
+        if (blockLength >= blockSize) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * finishes the current block. The bytes written since the last record boundary become part of it
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    /**
+     * finishes the current block and closes the underlying stream
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            writeBlock();
+            out.flush();
+        } finally {
+            deflater.end();
+            out.close();
+        }
+    }
+
+    /**
+     * compresses the current block and writes it with its header
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeBlock() throws IOException {
+        writeBlock(blockLength);
+    }
+
+    /**
+     * compresses the given number of bytes at the beginning of the current block and writes them with their header.
+     * The bytes behind them are moved to the beginning of the block
+     * @param length the number of bytes which will be written as one block
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeBlock(int length) throws IOException {
+        if (length == 0) return;
+        deflater.reset();
+        deflater.setInput(block, 0, length);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            if (compressedLength == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        if (compressedLength > MAX_COMPRESSED_BLOCK_SIZE) {
+            throw new IOException("Compressed block of " + compressedLength + " bytes exceeds the maximum block size");
+        }
+        checksum.reset();
+        checksum.update(block, 0, length);
+        out.writeInt(BLOCK_MAGIC);
+        out.writeInt(length);
+        out.writeInt(compressedLength);
+        out.writeInt((int) checksum.getValue());
+        out.write(compressed, 0, compressedLength);
+        System.arraycopy(block, length, block, 0, blockLength - length);
+        blockLength -= length;
+        recordEnd = 0;
+    }
+
+    /**
+     * makes sure the current block can take the given number of bytes. A record which is larger than
+     * the block size makes its block grow. If the block would grow beyond MAX_BLOCK_SIZE, the completed records
+     * in front of the current record are written first
+     * @param length the number of bytes which will be written
+     * @throws IOException if an I/O error occurred or the current record is larger than MAX_BLOCK_SIZE
+     */
+    private void ensureCapacity(int length) throws IOException {
+        if ((long) blockLength + length > MAX_BLOCK_SIZE) {
+            writeBlock(recordEnd);
+            if ((long) blockLength + length > MAX_BLOCK_SIZE)
+                throw new IOException("Record of more than " + MAX_BLOCK_SIZE + " bytes does not fit into one block");
+        }
+        if (blockLength + length > block.length) {
+            block = Arrays.copyOf(block, Math.max(block.length * 2, blockLength + length));
+        }
+    }
+}
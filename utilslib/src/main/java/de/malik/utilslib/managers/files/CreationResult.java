@@ -0,0 +1,103 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+
+public class CreationResult {
+
+    /**
+     * the outcome of the creation of one file or folder
+     */
+    public enum Status {
+
+        /**
+         * the file or folder was created
+         */
+        CREATED,
+
+        /**
+         * the file or folder already existed
+         */
+        ALREADY_EXISTED,
+
+        /**
+         * the file or folder could not be created
+         */
+        FAILED
+    }
+
+    /**
+     * the name of the file or folder
+     */
+    private final String name;
+
+    /**
+     * the file or folder, null if the name was invalid
+     */
+    private final File file;
+
+    /**
+     * the outcome of the creation
+     */
+    private final Status status;
+
+    /**
+     * the reason why the creation failed or null if it did not fail
+     */
+    private final Exception error;
+
+    /**
+     * creates a new result
+     * @param name the name of the file or folder
+     * @param file the file or folder, null if the name was invalid
+     * @param status the outcome of the creation
+     * @param error the reason why the creation failed or null if it did not fail
+     */
+    protected CreationResult(@NonNull String name, File file, @NonNull Status status, Exception error) {
+        this.name = name;
+        this.file = file;
+        this.status = status;
+        this.error = error;
+    }
+
+    /**
+     * returns the name of the file or folder
+     * @return the name of the file or folder
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * returns the file or folder
+     * @return the file or folder, null if the name was invalid
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * returns the outcome of the creation
+     * @return the outcome of the creation
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * returns the reason why the creation failed
+     * @return the reason why the creation failed or null if it did not fail
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * checks if the file or folder exists after the creation
+     * @return true if the file or folder was created or already existed, false otherwise
+     */
+    public boolean exists() {
+        return status != Status.FAILED;
+    }
+}
@@ -0,0 +1,23 @@
+package de.malik.utilslib.managers.files;
+
+public enum Durability {
+
+    /**
+     * the data is left to the operating system. Readers never see a half written file, but a crash shortly after
+     * the rename can leave the target empty or partially written on common filesystems, because its content
+     * may not be on the storage device yet
+     */
+    NONE,
+
+    /**
+     * the content of the file is synced to the storage device right before it replaces the target (fdatasync),
+     * so after a crash the target has either its old or its complete new content
+     */
+    DATA_SYNC,
+
+    /**
+     * the content and the metadata of the file are synced before it replaces the target, and the folder is synced
+     * after the rename, so the new file survives a crash once the commit returned (fsync file and folder)
+     */
+    FULL_SYNC
+}
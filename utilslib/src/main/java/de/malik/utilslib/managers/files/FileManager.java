@@ -1,14 +1,18 @@
 package de.malik.utilslib.managers.files;
 
 import android.nfc.FormatException;
+import android.os.Build;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 public class FileManager {
 
@@ -30,18 +34,24 @@ public class FileManager {
     public static final String RESERVED_CHARS_AS_STRING = FileManagerHelper.convertCharsToString(RESERVED_CHARS);
 
     /**
-     * a HashMap which contains all the files which were created with this library
+     * a thread-safe registry which contains all the files which were created with this library, mapped by their absolute path
      */
-    public static final Map<String, File> CREATED_FILES = new HashMap<>();
+    public static final FileRegistry CREATED_FILES = new FileRegistry();
 
     /**
-     * a HasMap which contains all the folder which were created with this library
+     * a thread-safe registry which contains all the folders which were created with this library, mapped by their absolute path
      */
-    public static final Map<String, File> CREATED_FOLDERS = new HashMap<>();
+    public static final FileRegistry CREATED_FOLDERS = new FileRegistry();
+
+    /**
+     * the I/O metrics of FileManager, ULReader and ULPrinter. They are disabled by default and have to be enabled
+     * with <code>METRICS.enable()</code>
+     */
+    public static final FileMetrics METRICS = new FileMetrics();
 
     /**
      * if and only if a folder with that name does not exist at the given path, a new folder will be created.
-     * The created folder will be added to the <code>CREATED_FOLDERS</code> map.
+     * The created folder will be added to the <code>CREATED_FOLDERS</code> registry.
      * @param folderPath the path where the folder will be created
      * @param folderName the name of the new folder
      * @return the newly created folder
@@ -55,21 +65,20 @@ public class FileManager {
             throw new FormatException("The folder name cannot contain any of these chars:" + RESERVED_CHARS_AS_STRING);
         }
         File folder = new File(folderPath, folderName);
-        boolean wasCreated = false;
-
-        if (!folder.exists()) {
-            wasCreated = folder.mkdir();
-        }
+        boolean metered = METRICS.isEnabled();
+        long startNanos = metered ? System.nanoTime() : 0;
+        boolean wasCreated = folder.mkdir();
+        if (metered) METRICS.recordCreation(folder, true, wasCreated, startNanos);
         if (!wasCreated) {
             Log.w(TAG, "Folder \"" + folderName + "\" was not created. Does it already exist?");
         }
-        CREATED_FOLDERS.put(folderName, folder);
+        CREATED_FOLDERS.register(folder);
         return folder;
     }
 
     /**
      * if and only if a file with that name does not exist in the given folder, a new file will be created.
-     * The created file will be added to the <code>CREATED_FILES</code> map.
+     * The created file will be added to the <code>CREATED_FILES</code> registry.
      * @param folder the folder where the file will be created
      * @param fileName the name of the new file
      * @return the newly created file
@@ -84,14 +93,143 @@ public class FileManager {
             throw new FormatException("The file name cannot contain any of these chars:" + RESERVED_CHARS_AS_STRING);
         }
         File file = new File(folder, fileName);
+        boolean metered = METRICS.isEnabled();
+        long startNanos = metered ? System.nanoTime() : 0;
         boolean wasCreated = file.createNewFile();
+        if (metered) METRICS.recordCreation(file, false, wasCreated, startNanos);
         if (!wasCreated) {
             Log.w(TAG, "File \"" + fileName + "\" was not created. Does it already exist?");
         }
-        CREATED_FILES.put(fileName, file);
+        CREATED_FILES.register(file);
         return file;
     }
 
+    /**
+     * creates all the given folders in the given parent folder. Invalid names do not stop the creation of the
+     * other folders, instead every folder gets its own result. Created and already existing folders will be added
+     * to the <code>CREATED_FOLDERS</code> registry.
+     * @param parent the folder where the folders will be created
+     * @param folderNames the names of the new folders
+     * @return the results of all folders in the order of the given names
+     */
+    public static ArrayList<CreationResult> createFolders(@NonNull File parent, @NonNull String... folderNames) {
+        ArrayList<CreationResult> results = new ArrayList<>(folderNames.length);
+        for (String folderName : folderNames) {
+            results.add(createFolderQuietly(parent, folderName, false));
+        }
+        return results;
+    }
+
+    /**
+     * creates a tree of nested folders in the given parent folder, so that the first name is the outermost folder
+     * and the last name the innermost one. As soon as one folder was created, the folders below it can not exist yet,
+     * so they are created without checking them first. If one folder fails, the folders below it fail as well.
+     * Created and already existing folders will be added to the <code>CREATED_FOLDERS</code> registry.
+     * @param parent the folder where the tree will be created
+     * @param folderNames the names of the nested folders from the outermost to the innermost one
+     * @return the results of all folders from the outermost to the innermost one
+     */
+    public static ArrayList<CreationResult> createFolderTree(@NonNull File parent, @NonNull String... folderNames) {
+        ArrayList<CreationResult> results = new ArrayList<>(folderNames.length);
+        File current = parent;
+        boolean parentCreated = false;
+        for (String folderName : folderNames) {
+            if (current == null) {
+                results.add(new CreationResult(folderName, null, CreationResult.Status.FAILED,
+                        new IOException("The parent of folder \"" + folderName + "\" could not be created")));
+                continue;
+            }
+            CreationResult result = createFolderQuietly(current, folderName, parentCreated);
+            results.add(result);
+            parentCreated = result.getStatus() == CreationResult.Status.CREATED;
+            current = result.exists() ? result.getFile() : null;
+        }
+        return results;
+    }
+
+    /**
+     * creates all the given files in the given folder. The folder is checked once, then every file is created
+     * without checking it first. Invalid names do not stop the creation of the other files, instead every file gets
+     * its own result. Created and already existing files will be added to the <code>CREATED_FILES</code> registry.
+     * @param folder the folder where the files will be created
+     * @param fileNames the names of the new files
+     * @return the results of all files in the order of the given names
+     */
+    public static ArrayList<CreationResult> createFiles(@NonNull File folder, @NonNull String... fileNames) {
+        ArrayList<CreationResult> results = new ArrayList<>(fileNames.length);
+        boolean folderExists = folder.isDirectory();
+        for (String fileName : fileNames) {
+            FormatException formatException = checkName(fileName);
+            if (formatException != null) {
+                results.add(new CreationResult(fileName, null, CreationResult.Status.FAILED, formatException));
+                continue;
+            }
+            File file = new File(folder, fileName);
+            if (!folderExists) {
+                results.add(new CreationResult(fileName, file, CreationResult.Status.FAILED,
+                        new IOException("Folder \"" + folder.getName() + "\" does not exist")));
+                continue;
+            }
+            try {
+                boolean metered = METRICS.isEnabled();
+                long startNanos = metered ? System.nanoTime() : 0;
+                boolean wasCreated = file.createNewFile();
+                if (metered) METRICS.recordCreation(file, false, wasCreated, startNanos);
+                CREATED_FILES.register(file);
+                results.add(new CreationResult(fileName, file,
+                        wasCreated ? CreationResult.Status.CREATED : CreationResult.Status.ALREADY_EXISTED, null));
+            } catch (IOException ex) {
+                results.add(new CreationResult(fileName, file, CreationResult.Status.FAILED, ex));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * creates the given folder and reports the outcome instead of throwing an exception
+     * @param parent the folder where the folder will be created
+     * @param folderName the name of the new folder
+     * @param parentCreated true if the parent was just created, so the folder can not exist yet
+     * @return the result of the creation
+     */
+    private static CreationResult createFolderQuietly(@NonNull File parent, @NonNull String folderName, boolean parentCreated) {
+        FormatException formatException = checkName(folderName);
+        if (formatException != null) {
+            return new CreationResult(folderName, null, CreationResult.Status.FAILED, formatException);
+        }
+        File folder = new File(parent, folderName);
+        CreationResult.Status status;
+        boolean metered = METRICS.isEnabled();
+        long startNanos = metered ? System.nanoTime() : 0;
+        boolean wasCreated = folder.mkdir();
+        if (metered) METRICS.recordCreation(folder, true, wasCreated, startNanos);
+        if (wasCreated) {
+            status = CreationResult.Status.CREATED;
+        } else if (!parentCreated && folder.isDirectory()) {
+            status = CreationResult.Status.ALREADY_EXISTED;
+        } else {
+            return new CreationResult(folderName, folder, CreationResult.Status.FAILED,
+                    new IOException("Folder \"" + folderName + "\" could not be created"));
+        }
+        CREATED_FOLDERS.register(folder);
+        return new CreationResult(folderName, folder, status, null);
+    }
+
+    /**
+     * checks if the given name can be used as file or folder name
+     * @param name the name which will be checked
+     * @return an exception describing why the name can not be used or null if the name is valid
+     */
+    private static FormatException checkName(@NonNull String name) {
+        if (name.isEmpty()) {
+            return new FormatException("name cannot be empty");
+        }
+        if (FileManagerHelper.containsChar(name, RESERVED_CHARS)) {
+            return new FormatException("The name cannot contain any of these chars:" + RESERVED_CHARS_AS_STRING);
+        }
+        return null;
+    }
+
     /**
      * creates a new instance of the UtilsLibrary reader class
      * @return a new instance of ULReader class
@@ -100,6 +238,134 @@ public class FileManager {
         return new ULReader();
     }
 
+    /**
+     * opens a long-lived appender for the given file with the default queue capacity and flush policy
+     * @param file the file the records will be appended to
+     * @return a new appender which has to be closed when it is no longer needed
+     * @throws IOException if an I/O error occurred
+     */
+    public static ULAppender getAppender(@NonNull File file) throws IOException {
+        return getAppender(file, ULAppender.DEFAULT_CAPACITY, ULAppender.DEFAULT_FLUSH_EVERY_RECORDS, ULAppender.DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * opens a long-lived appender for the given file. Records are enqueued by any number of threads and
+     * written in batches by one background writer over a channel which stays open until the appender is closed
+     * @param file the file the records will be appended to
+     * @param capacity the maximum number of queued records before producers are rejected or blocked
+     * @param flushEveryRecords the number of records after which the batch will be written, 0 or less to disable
+     * @param flushIntervalMillis the time after which queued records will be written, 0 or less to disable
+     * @return a new appender which has to be closed when it is no longer needed
+     * @throws IOException if an I/O error occurred
+     */
+    public static ULAppender getAppender(@NonNull File file, int capacity, int flushEveryRecords, long flushIntervalMillis) throws IOException {
+        return new ULAppender(file, capacity, flushEveryRecords, flushIntervalMillis);
+    }
+
+    /**
+     * opens the given file for writing length-prefixed binary records in blocks of the default block size
+     * @param file the file the records will be written into
+     * @param append if true, the records will be appended to the records the file already contains,
+     *               otherwise the content of the file will be overridden
+     * @param useChecksum if true, every block will be followed by a CRC32 checksum of its payload
+     * @return a new binary record writer which has to be closed when it is no longer needed
+     * @throws IOException if an I/O error occurred or the file is not a binary record file
+     */
+    public static BinaryRecordWriter getBinaryWriter(@NonNull File file, boolean append, boolean useChecksum) throws IOException {
+        return new BinaryRecordWriter(file, append, useChecksum, BinaryRecordWriter.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * opens the given binary record file for reading
+     * @param file the file which will be read
+     * @return a new binary record reader which has to be closed when it is no longer needed
+     * @throws IOException if an I/O error occurred or the file is not a binary record file
+     */
+    public static BinaryRecordReader getBinaryReader(@NonNull File file) throws IOException {
+        return new BinaryRecordReader(file);
+    }
+
+    /**
+     * converts a text file written by ULPrinter into a binary record file. Every line becomes one record
+     * @param textFile the text file which will be converted
+     * @param binaryFile the binary record file which will be overridden with the records
+     * @param useChecksum if true, every block will be followed by a CRC32 checksum of its payload
+     * @throws IOException if an I/O error occurred
+     */
+    public static void convertTextToBinary(@NonNull File textFile, @NonNull File binaryFile, boolean useChecksum) throws IOException {
+        try (LineIterator lines = getReader().iterateLines(textFile);
+             BinaryRecordWriter writer = getBinaryWriter(binaryFile, false, useChecksum)) {
+            while (lines.hasNext()) {
+                writer.write(lines.next());
+            }
+        }
+    }
+
+    /**
+     * converts a binary record file into a text file which can be read by ULReader. Every record becomes one line,
+     * so records should not contain line terminators
+     * @param binaryFile the binary record file which will be converted
+     * @param textFile the text file which will be overridden with the records
+     * @throws IOException if an I/O error occurred or the binary record file is corrupted
+     */
+    public static void convertBinaryToText(@NonNull File binaryFile, @NonNull File textFile) throws IOException {
+        try (BinaryRecordReader reader = getBinaryReader(binaryFile);
+             BufferedWriter writer = new BufferedWriter(new FileWriter(textFile))) {
+            String record;
+            while ((record = reader.nextString()) != null) {
+                writer.write(record);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * opens the append-only record store in the given folder with the default segment size and compaction threshold
+     * @param folder the folder which contains the segments of the store
+     * @return the opened record store which has to be closed when it is no longer needed
+     * @throws IOException if an I/O error occurred
+     */
+    public static RecordStore openRecordStore(@NonNull File folder) throws IOException {
+        return openRecordStore(folder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, RecordStore.DEFAULT_AUTO_COMPACT_SEGMENTS);
+    }
+
+    /**
+     * opens the append-only record store in the given folder. Puts are appended to the active segment,
+     * gets are served by one positioned read using an in-memory index of all keys
+     * @param folder the folder which contains the segments of the store
+     * @param maxSegmentSize the size in bytes after which a new segment will be started
+     * @param autoCompactSegments the number of closed segments after which a compaction will be started
+     *                            in the background, 0 or less to disable
+     * @return the opened record store which has to be closed when it is no longer needed
+     * @throws IOException if an I/O error occurred
+     */
+    public static RecordStore openRecordStore(@NonNull File folder, long maxSegmentSize, int autoCompactSegments) throws IOException {
+        return new RecordStore(folder, maxSegmentSize, autoCompactSegments);
+    }
+
+    /**
+     * creates an asynchronous facade for creating, reading and printing files with its own bounded I/O executor
+     * @param ioThreads the number of threads which run file operations
+     * @param queueCapacity the maximum number of operations which wait for a thread before new ones are rejected
+     * @return a new AsyncFileManager which should be closed when it is no longer needed
+     * @throws IllegalArgumentException if the number of threads or the queue capacity is smaller than one
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public static AsyncFileManager getAsyncFileManager(int ioThreads, int queueCapacity) {
+        return new AsyncFileManager(ioThreads, queueCapacity);
+    }
+
+    /**
+     * creates an asynchronous facade for creating, reading and printing files which runs on the given executor.
+     * The executor will not be shut down when the AsyncFileManager is closed
+     * @param executor the executor all file operations run on
+     * @return a new AsyncFileManager
+     */
+    @RequiresApi(api = Build.VERSION_CODES.N)
+    public static AsyncFileManager getAsyncFileManager(@NonNull ExecutorService executor) {
+        return new AsyncFileManager(executor, false);
+    }
+
     /**
      * creates a new instance of the UtilsLibrary printer class
      * @return a new instance of ULPrinter class
@@ -0,0 +1,412 @@
+package de.malik.utilslib.managers.files;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import de.malik.utilslib.managers.time.LatencyHistogram;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class FileMetrics {
+
+    /**
+     * the tag used to output text with Log class
+     */
+    public static final String TAG = FileMetrics.class.getName();
+
+    /**
+     * the counters which are kept while the metrics are enabled
+     */
+    public enum Counter {
+
+        /**
+         * the number of files which were created by FileManager
+         */
+        FILES_CREATED,
+
+        /**
+         * the number of folders which were created by FileManager
+         */
+        FOLDERS_CREATED,
+
+        /**
+         * the number of files which were read and closed by ULReader
+         */
+        FILES_READ,
+
+        /**
+         * the number of files which were written and closed by ULPrinter
+         */
+        FILES_WRITTEN,
+
+        /**
+         * the number of lines which were read by ULReader
+         */
+        LINES_READ,
+
+        /**
+         * the number of lines which were written by ULPrinter
+         */
+        LINES_WRITTEN,
+
+        /**
+         * the number of bytes which were read by ULReader before they were decoded
+         */
+        BYTES_READ,
+
+        /**
+         * the number of bytes which were written by ULPrinter after they were encoded
+         */
+        BYTES_WRITTEN
+    }
+
+    /**
+     * the operations whose latency is recorded while the metrics are enabled
+     */
+    public enum Operation {
+
+        /**
+         * the creation of a file or folder by FileManager
+         */
+        CREATE,
+
+        /**
+         * the opening of a file for reading or writing
+         */
+        OPEN,
+
+        /**
+         * the whole reading of a file from its opening to its closing, including the decoding of the lines
+         */
+        READ,
+
+        /**
+         * the whole writing of a file from its opening to its closing, including the encoding of the lines
+         */
+        WRITE,
+
+        /**
+         * the flushing of the printed lines into the file
+         */
+        FLUSH,
+
+        /**
+         * the closing of a file
+         */
+        CLOSE
+    }
+
+    /**
+     * the number of slots of every stripe. The counters of a stripe are followed by unused slots, so the stripes
+     * do not share a cache line
+     */
+    private static final int STRIPE_LENGTH = 16;
+
+    /**
+     * the maximum number of stripes
+     */
+    private static final int MAX_STRIPES = 4;
+
+    /**
+     * the counters of all stripes, a thread always counts into the same stripe
+     */
+    private final AtomicLongArray counters;
+
+    /**
+     * the number of stripes minus one, the number of stripes is a power of two
+     */
+    private final int stripeMask;
+
+    /**
+     * the latency histograms indexed by the operation, null until the metrics are enabled the first time
+     */
+    private volatile LatencyHistogram[] histograms;
+
+    /**
+     * the listeners which are notified of every operation, replaced on every change so it can be read without lock
+     */
+    private volatile FileMetricsListener[] listeners = new FileMetricsListener[0];
+
+    /**
+     * true if operations are recorded
+     */
+    private volatile boolean enabled;
+
+    /**
+     * creates new disabled FileMetrics. Use FileManager.METRICS for the metrics of the library
+     */
+    protected FileMetrics() {
+        int stripes = Integer.highestOneBit(Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+        counters = new AtomicLongArray(stripes * STRIPE_LENGTH);
+        stripeMask = stripes - 1;
+    }
+
+    /**
+     * checks if operations are recorded. This is the only cost the instrumented operations have while the
+     * metrics are disabled
+     * @return true if the metrics are enabled, false otherwise
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * starts recording operations. The latency histograms are created on the first call and take about 30 KB
+     * per operation and processor
+     */
+    public synchronized void enable() {
+        if (histograms == null) {
+            LatencyHistogram[] created = new LatencyHistogram[Operation.values().length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new LatencyHistogram();
+            }
+            histograms = created;
+        }
+        enabled = true;
+    }
+
+    /**
+     * stops recording operations. The recorded values are kept until reset() is called
+     */
+    public void disable() {
+        enabled = false;
+    }
+
+    /**
+     * sets all counters to zero and removes all recorded latencies
+     */
+    public synchronized void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        if (histograms != null) {
+            for (LatencyHistogram histogram : histograms) {
+                histogram.reset();
+            }
+        }
+    }
+
+    /**
+     * adds the given listener which will be notified of every recorded operation. The listener is called by the
+     * thread which did the operation, so it should return quickly. A RuntimeException thrown by the listener is
+     * logged and does not reach the operation
+     * @param listener the listener which will be added
+     */
+    public synchronized void addListener(@NonNull FileMetricsListener listener) {
+        FileMetricsListener[] current = listeners;
+        FileMetricsListener[] changed = Arrays.copyOf(current, current.length + 1);
+        changed[current.length] = listener;
+        listeners = changed;
+    }
+
+    /**
+     * removes the given listener
+     * @param listener the listener which will be removed
+     * @return true if the listener was added before, false otherwise
+     */
+    public synchronized boolean removeListener(@NonNull FileMetricsListener listener) {
+        FileMetricsListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                FileMetricsListener[] changed = new FileMetricsListener[current.length - 1];
+                System.arraycopy(current, 0, changed, 0, i);
+                System.arraycopy(current, i + 1, changed, i, current.length - i - 1);
+                listeners = changed;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * adds the given amount to the given counter without locking. Nothing happens while the metrics are disabled
+     * @param counter the counter
+     * @param amount the amount which will be added
+     */
+    public void add(@NonNull Counter counter, long amount) {
+        if (!enabled || amount == 0) return;
+        int stripe = (int) Thread.currentThread().getId() & stripeMask;
+        counters.addAndGet(stripe * STRIPE_LENGTH + counter.ordinal(), amount);
+    }
+
+    /**
+     * records the latency of the given operation and notifies all listeners. A listener which throws a
+     * RuntimeException does not keep the other listeners from being notified. Nothing happens while the metrics
+     * are disabled
+     * @param operation the operation
+     * @param file the file the operation was done with
+     * @param nanos the latency of the operation in nanoseconds
+     */
+    public void record(@NonNull Operation operation, @NonNull File file, long nanos) {
+        LatencyHistogram[] current = histograms;
+        if (!enabled || current == null) return;
+        current[operation.ordinal()].record(nanos);
+        for (FileMetricsListener listener : listeners) {
+            try {
+                listener.onOperation(operation, file, nanos);
+            } catch (RuntimeException ex) {
+                Log.w(TAG, "Listener failed on " + operation + " of \"" + file.getName() + "\"", ex);
+            }
+        }
+    }
+
+    /**
+     * records the creation of a file or folder which was started at the given time
+     * @param file the file or folder
+     * @param isFolder true if a folder was created, false if a file was created
+     * @param wasCreated true if the file or folder did not exist before
+     * @param startNanos the start of the creation, as returned by System.nanoTime()
+     */
+    protected void recordCreation(@NonNull File file, boolean isFolder, boolean wasCreated, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        if (wasCreated) add(isFolder ? Counter.FOLDERS_CREATED : Counter.FILES_CREATED, 1);
+        record(Operation.CREATE, file, nanos);
+    }
+
+    /**
+     * creates a snapshot of all counters and latencies. Operations which are recorded while the snapshot is
+     * created may be missing in some of its values
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        Counter[] counterValues = Counter.values();
+        long[] counts = new long[counterValues.length];
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += counters.get(stripe * STRIPE_LENGTH + i);
+            }
+        }
+        LatencyHistogram[] current = histograms;
+        LatencyHistogram.Snapshot[] latencies = new LatencyHistogram.Snapshot[Operation.values().length];
+        if (current != null) {
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = current[i].snapshot();
+            }
+        }
+        return new Snapshot(System.currentTimeMillis(), counts, latencies);
+    }
+
+    /**
+     * passes a snapshot of all counters and latencies to the given exporter
+     * @param exporter the exporter which receives the snapshot
+     * @throws IOException if the exporter throws an IOException
+     */
+    public void exportTo(@NonNull FileMetricsExporter exporter) throws IOException {
+        exporter.export(snapshot());
+    }
+
+    /**
+     * prints a snapshot of all counters and latencies into the given record file, one record per value.
+     * The records can be read with ULReader. The file is written without ULPrinter, so the dump does not count
+     * into the metrics it reports
+     * @param file the file the records will be printed in
+     * @param append if true, the file will keep all it's content, otherwise the content will be overridden
+     * @throws IOException if an I/O error occurred
+     */
+    public void dumpTo(@NonNull File file, boolean append) throws IOException {
+        ArrayList<String> records = snapshot().toRecords();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, append))) {
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * the counters and latencies at a certain point in time
+     */
+    public static final class Snapshot {
+
+        /**
+         * the time the snapshot was created, in milliseconds since the epoch
+         */
+        private final long timestamp;
+
+        /**
+         * the values of the counters indexed by the counter
+         */
+        private final long[] counts;
+
+        /**
+         * the latencies indexed by the operation, the entries are null if the metrics were never enabled
+         */
+        private final LatencyHistogram.Snapshot[] latencies;
+
+        /**
+         * creates a new Snapshot
+         * @param timestamp the time the snapshot was created, in milliseconds since the epoch
+         * @param counts the values of the counters indexed by the counter
+         * @param latencies the latencies indexed by the operation
+         */
+        private Snapshot(long timestamp, @NonNull long[] counts, @NonNull LatencyHistogram.Snapshot[] latencies) {
+            this.timestamp = timestamp;
+            this.counts = counts;
+            this.latencies = latencies;
+        }
+
+        /**
+         * returns the time the snapshot was created
+         * @return the time in milliseconds since the epoch
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * returns the value of the given counter
+         * @param counter the counter
+         * @return the value of the counter
+         */
+        public long getCount(@NonNull Counter counter) {
+            return counts[counter.ordinal()];
+        }
+
+        /**
+         * returns the latencies of the given operation
+         * @param operation the operation
+         * @return the latencies of the operation, null if the metrics were never enabled
+         */
+        public LatencyHistogram.Snapshot getLatency(@NonNull Operation operation) {
+            return latencies[operation.ordinal()];
+        }
+
+        /**
+         * creates a record of the form name=value for the timestamp, every counter and the latencies of every
+         * operation which was recorded at least once
+         * @return the records
+         */
+        public ArrayList<String> toRecords() {
+            ArrayList<String> records = new ArrayList<>(1 + counts.length + latencies.length);
+            records.add("timestamp=" + timestamp);
+            for (Counter counter : Counter.values()) {
+                records.add(counter.name().toLowerCase(Locale.ROOT) + "=" + counts[counter.ordinal()]);
+            }
+            for (Operation operation : Operation.values()) {
+                LatencyHistogram.Snapshot latency = latencies[operation.ordinal()];
+                if (latency != null && latency.getCount() > 0) {
+                    records.add(operation.name().toLowerCase(Locale.ROOT) + "_latency=" + latency.toFormattedString());
+                }
+            }
+            return records;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (String record : toRecords()) {
+                if (builder.length() > 0) builder.append(", ");
+                builder.append(record);
+            }
+            return builder.toString();
+        }
+    }
+}
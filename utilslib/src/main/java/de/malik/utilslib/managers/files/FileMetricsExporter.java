@@ -0,0 +1,15 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+public interface FileMetricsExporter {
+
+    /**
+     * is called with a snapshot of the metrics, for example to send it to a monitoring system
+     * @param snapshot the counters and latencies at the time of the export
+     * @throws IOException if the snapshot could not be exported
+     */
+    void export(@NonNull FileMetrics.Snapshot snapshot) throws IOException;
+}
@@ -0,0 +1,16 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+
+public interface FileMetricsListener {
+
+    /**
+     * is called for every operation which is recorded while the metrics are enabled, by the thread which did it
+     * @param operation the operation
+     * @param file the file the operation was done with
+     * @param nanos the latency of the operation in nanoseconds
+     */
+    void onOperation(@NonNull FileMetrics.Operation operation, @NonNull File file, long nanos);
+}
@@ -0,0 +1,231 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FileRegistry {
+
+    /**
+     * the maximum size which means that the registry is not bounded
+     */
+    public static final int UNBOUNDED = 0;
+
+    /**
+     * the registered files mapped by their absolute path
+     */
+    private final ConcurrentHashMap<String, Registration> files = new ConcurrentHashMap<>();
+
+    /**
+     * the registrations in the order they were made, used to evict the oldest registrations first
+     */
+    private final ConcurrentLinkedQueue<Registration> order = new ConcurrentLinkedQueue<>();
+
+    /**
+     * the number of registrations in the eviction order
+     */
+    private final AtomicInteger orderSize = new AtomicInteger();
+
+    /**
+     * the sequence number of the next registration
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * the maximum number of registered files, UNBOUNDED if there is no maximum
+     */
+    private volatile int maxSize;
+
+    /**
+     * creates a new registry which is not bounded
+     */
+    public FileRegistry() {
+        this(UNBOUNDED);
+    }
+
+    /**
+     * creates a new registry which holds at most the given number of files
+     * @param maxSize the maximum number of registered files, UNBOUNDED if there is no maximum
+     */
+    public FileRegistry(int maxSize) {
+        setMaxSize(maxSize);
+    }
+
+    /**
+     * sets the maximum number of registered files. If there are more files registered, the oldest
+     * registrations will be evicted
+     * @param maxSize the maximum number of registered files, UNBOUNDED if there is no maximum
+     * @throws IllegalArgumentException if the maximum size is negative
+     */
+    public synchronized void setMaxSize(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("Maximum size can not be negative");
+        if (this.maxSize == UNBOUNDED && maxSize != UNBOUNDED) {
+            ArrayList<Registration> registrations = new ArrayList<>(files.values());
+            Collections.sort(registrations, (o1, o2) -> Long.compare(o1.sequence, o2.sequence));
+            order.clear();
+            order.addAll(registrations);
+            orderSize.set(registrations.size());
+        }
+        this.maxSize = maxSize;
+        evict();
+    }
+
+    /**
+     * returns the maximum number of registered files
+     * @return the maximum number of registered files, UNBOUNDED if there is no maximum
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * registers the given file under its absolute path. A previous registration of the same path will be replaced
+     * @param file the file which will be registered
+     */
+    public void register(@NonNull File file) {
+        Registration registration = new Registration(file.getAbsolutePath(), file, sequence.getAndIncrement());
+        files.put(registration.path, registration);
+        int max = maxSize;
+        if (max != UNBOUNDED) {
+            order.add(registration);
+            if (orderSize.incrementAndGet() > 2 * max + 16) {
+                purgeReplaced();
+            }
+            evict();
+        }
+    }
+
+    /**
+     * returns the file which is registered under the given absolute path
+     * @param absolutePath the absolute path of the file
+     * @return the registered file or null if there is none
+     */
+    public File get(@NonNull String absolutePath) {
+        Registration registration = files.get(absolutePath);
+        return registration == null ? null : registration.file;
+    }
+
+    /**
+     * checks if the given file is registered
+     * @param file the file which will be checked
+     * @return true if the file is registered, false otherwise
+     */
+    public boolean contains(@NonNull File file) {
+        return files.containsKey(file.getAbsolutePath());
+    }
+
+    /**
+     * removes the registration of the given file
+     * @param file the file whose registration will be removed
+     * @return true if the file was registered, false otherwise
+     */
+    public boolean remove(@NonNull File file) {
+        return files.remove(file.getAbsolutePath()) != null;
+    }
+
+    /**
+     * returns the number of registered files
+     * @return the number of registered files
+     */
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * removes all registrations
+     */
+    public void clear() {
+        files.clear();
+        order.clear();
+        orderSize.set(0);
+    }
+
+    /**
+     * creates a snapshot of all registered files
+     * @return a new map containing all registered files mapped by their absolute path
+     */
+    public Map<String, File> snapshot() {
+        Map<String, File> snapshot = new HashMap<>();
+        for (Registration registration : files.values()) {
+            snapshot.put(registration.path, registration.file);
+        }
+        return snapshot;
+    }
+
+    /**
+     * evicts the oldest registrations until the registry is not larger than its maximum size
+     */
+    private void evict() {
+        int max = maxSize;
+        if (max == UNBOUNDED) {
+            order.clear();
+            orderSize.set(0);
+            return;
+        }
+        while (files.size() > max) {
+            Registration oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            orderSize.decrementAndGet();
+            files.remove(oldest.path, oldest);
+        }
+    }
+
+    /**
+     * removes the registrations from the eviction order which were replaced or removed in the meantime
+     */
+    private void purgeReplaced() {
+        Iterator<Registration> iterator = order.iterator();
+        while (iterator.hasNext()) {
+            Registration registration = iterator.next();
+            if (files.get(registration.path) != registration) {
+                iterator.remove();
+                orderSize.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * a file registered at a certain point in time
+     */
+    private static final class Registration {
+
+        /**
+         * the absolute path of the file
+         */
+        private final String path;
+
+        /**
+         * the registered file
+         */
+        private final File file;
+
+        /**
+         * the sequence number of the registration
+         */
+        private final long sequence;
+
+        /**
+         * creates a new registration
+         * @param path the absolute path of the file
+         * @param file the registered file
+         * @param sequence the sequence number of the registration
+         */
+        private Registration(@NonNull String path, @NonNull File file, long sequence) {
+            this.path = path;
+            this.file = file;
+            this.sequence = sequence;
+        }
+    }
+}
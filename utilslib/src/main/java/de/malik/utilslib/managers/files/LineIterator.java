@@ -0,0 +1,99 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class LineIterator implements Iterator<String>, Closeable {
+
+    /**
+     * the reader which delivers the lines
+     */
+    private final BufferedReader reader;
+
+    /**
+     * the line which will be returned by the next call of next(), or null if it was not read yet
+     */
+    private String nextLine;
+
+    /**
+     * true if the end of the file was reached or the iterator was closed
+     */
+    private boolean finished;
+
+    /**
+     * creates a new LineIterator which reads the lines of the given reader one by one
+     * @param reader the reader which will be read
+     */
+    protected LineIterator(@NonNull BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * checks if there is another line to read. The underlying reader will be closed automatically as soon
+     * as the end of the file is reached
+     * @return true if there is another line, false otherwise
+     * @throws IllegalStateException if an I/O error occurred, the cause contains the IOException
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextLine != null) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        try {
+            nextLine = reader.readLine();
+            if (nextLine == null) {
+                close();
+            }
+        } catch (IOException ex) {
+            closeQuietly();
+            throw new IllegalStateException("Could not read the next line", ex);
+        }
+        return nextLine != null;
+    }
+
+    /**
+     * returns the next line of the file
+     * @return the next line of the file, without its line terminator
+     * @throws NoSuchElementException if there are no more lines
+     * @throws IllegalStateException if an I/O error occurred, the cause contains the IOException
+     */
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There are no more lines to read");
+        }
+        String line = nextLine;
+        nextLine = null;
+        return line;
+    }
+
+    /**
+     * closes the underlying reader. Call this method if you stop iterating before the end of the file is reached
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) return;
+        finished = true;
+        nextLine = null;
+        reader.close();
+    }
+
+    /**
+     * closes the underlying reader and ignores any I/O error
+     */
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+public interface LineVisitor {
+
+    /**
+     * is called for every line which is read by the reader
+     * @param line the line which was read, without its line terminator
+     * @param lineNumber the number of the line, starting at zero
+     * @return true if the reader should continue with the next line, false to stop reading
+     */
+    boolean visit(@NonNull String line, long lineNumber);
+}
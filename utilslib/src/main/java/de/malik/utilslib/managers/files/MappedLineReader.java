@@ -0,0 +1,242 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MappedLineReader implements Closeable {
+
+    /**
+     * the extension of the index file which is saved next to the read file
+     */
+    public static final String INDEX_FILE_EXTENSION = ".idx";
+
+    /**
+     * the magic number at the beginning of every index file
+     */
+    private static final int INDEX_MAGIC = 0x554C4958;
+
+    /**
+     * the version of the index file format
+     */
+    private static final int INDEX_VERSION = 1;
+
+    /**
+     * the charset used to decode the lines. This is the same charset ULPrinter and ULReader use
+     */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * the file which is read
+     */
+    private final File file;
+
+    /**
+     * the channel of the mapped file
+     */
+    private final RandomAccessFile randomAccessFile;
+
+    /**
+     * the content of the file mapped into memory
+     */
+    private final MappedByteBuffer buffer;
+
+    /**
+     * the start offsets of all lines. The last entry is the size of the file, so the line n lies between
+     * lineStarts[n] and lineStarts[n + 1]
+     */
+    private final long[] lineStarts;
+
+    /**
+     * maps the given file into memory and builds the line index. If useIndexFile is true, a saved index
+     * will be loaded if it is still valid, otherwise the index will be built and saved next to the file
+     * @param file the file which will be read
+     * @param useIndexFile if true, the line index will be loaded from or saved to an index file next to the file
+     * @throws IOException if an I/O error occurred or the file is larger than 2 GB
+     */
+    protected MappedLineReader(@NonNull File file, boolean useIndexFile) throws IOException {
+        this.file = file;
+        randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File \"" + file.getName() + "\" is too large to be mapped: " + size + " bytes");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            long[] index = useIndexFile ? loadIndex(size) : null;
+            if (index == null) {
+                index = buildIndex();
+                if (useIndexFile) {
+                    saveIndex(index, size);
+                }
+            }
+            lineStarts = index;
+        } catch (IOException | RuntimeException ex) {
+            randomAccessFile.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * returns the index file which belongs to the given file
+     * @param file the file whose index file will be returned
+     * @return the index file of the given file
+     */
+    public static File getIndexFile(@NonNull File file) {
+        return new File(file.getParentFile(), file.getName() + INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * returns the number of lines of the file
+     * @return the number of lines of the file
+     */
+    public int lineCount() {
+        return lineStarts.length - 1;
+    }
+
+    /**
+     * reads the line with the given number
+     * @param lineNumber the number of the line, starting at zero
+     * @return the line with the given number, without its line terminator
+     * @throws IndexOutOfBoundsException if the line number is negative or not smaller than lineCount()
+     */
+    public String readLine(int lineNumber) {
+        if (lineNumber < 0 || lineNumber >= lineCount()) {
+            throw new IndexOutOfBoundsException("Line " + lineNumber + " does not exist, line count is " + lineCount());
+        }
+        int start = (int) lineStarts[lineNumber];
+        int end = (int) lineStarts[lineNumber + 1];
+        if (end > start && buffer.get(end - 1) == '\n') end--;
+        if (end > start && buffer.get(end - 1) == '\r') end--;
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    /**
+     * reads all the lines from the given line number (inclusive) to the other given line number (exclusive)
+     * @param from the number of the first line which will be read
+     * @param to the number of the line after the last line which will be read
+     * @return an ArrayList of String containing the read lines
+     * @throws IndexOutOfBoundsException if the range is not within 0 and lineCount()
+     */
+    public ArrayList<String> readRange(int from, int to) {
+        if (from < 0 || to > lineCount() || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + " to " + to + " is invalid, line count is " + lineCount());
+        }
+        ArrayList<String> lines = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            lines.add(readLine(i));
+        }
+        return lines;
+    }
+
+    /**
+     * closes the file. The mapped memory will be released as soon as the reader is garbage collected
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        randomAccessFile.close();
+    }
+
+    /**
+     * scans the mapped file once and collects the start offsets of all lines. A line ends at '\n', '\r'
+     * or "\r\n", just like BufferedReader.readLine() expects it
+     * @return the start offsets of all lines, followed by the size of the file
+     */
+    private long[] buildIndex() {
+        int size = buffer.limit();
+        long[] starts = new long[16];
+        int count = 0;
+        int lineStart = 0;
+        for (int i = 0; i < size; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && i + 1 < size && buffer.get(i + 1) == '\n') {
+                    i++;
+                }
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = lineStart;
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < size) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count + 1);
+            }
+            starts[count++] = lineStart;
+        }
+        long[] index = Arrays.copyOf(starts, count + 1);
+        index[count] = size;
+        return index;
+    }
+
+    /**
+     * loads the saved index of the file if it exists and still matches the size and the modification time of the file
+     * @param size the current size of the file
+     * @return the loaded index or null if there is no valid index file
+     */
+    private long[] loadIndex(long size) {
+        File indexFile = getIndexFile(file);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION
+                    || in.readLong() != size || in.readLong() != file.lastModified()) {
+                return null;
+            }
+            int length = in.readInt();
+            if (length < 1) {
+                return null;
+            }
+            long[] index = new long[length];
+            for (int i = 0; i < length; i++) {
+                index[i] = in.readLong();
+            }
+            return index[length - 1] == size ? index : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * saves the given index next to the file
+     * @param index the index which will be saved
+     * @param size the size of the file the index belongs to
+     * @throws IOException if an I/O error occurred
+     */
+    private void saveIndex(@NonNull long[] index, long size) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile(file))))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(size);
+            out.writeLong(file.lastModified());
+            out.writeInt(index.length);
+            for (long start : index) {
+                out.writeLong(start);
+            }
+        }
+    }
+}
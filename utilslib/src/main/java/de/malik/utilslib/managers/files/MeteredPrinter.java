@@ -0,0 +1,145 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+public class MeteredPrinter extends PrintWriter {
+
+    /**
+     * the metrics the writing is recorded into
+     */
+    private final FileMetrics metrics;
+
+    /**
+     * the file which is written
+     */
+    private final File file;
+
+    /**
+     * the stream which counts the bytes written into the file
+     */
+    private final CountingOutputStream counter;
+
+    /**
+     * the value of System.nanoTime() when the file was opened
+     */
+    private final long openedNanos;
+
+    /**
+     * the number of lines which were printed
+     */
+    private long lines;
+
+    /**
+     * true if the printer was closed
+     */
+    private boolean closed;
+
+    /**
+     * opens the given file for writing with the default charset, like FileWriter, and records the opening
+     * @param file the file which will be written in
+     * @param append if false, the printer will override all the content the file contains. If true,
+     *               the file will keep all the content
+     * @param metrics the metrics the writing is recorded into
+     * @throws IOException if an I/O error occurred
+     */
+    protected MeteredPrinter(@NonNull File file, boolean append, @NonNull FileMetrics metrics) throws IOException {
+        this(file, metrics, System.nanoTime(), new CountingOutputStream(new FileOutputStream(file, append)));
+    }
+
+    /**
+     * creates a new MeteredPrinter which encodes into the given stream and records the opening
+     * @param file the file which will be written in
+     * @param metrics the metrics the writing is recorded into
+     * @param startNanos the time the opening started
+     * @param counter the stream which counts the bytes written into the file
+     */
+    private MeteredPrinter(@NonNull File file, @NonNull FileMetrics metrics, long startNanos, @NonNull CountingOutputStream counter) {
+        super(new BufferedWriter(new OutputStreamWriter(counter, Charset.defaultCharset())));
+        this.metrics = metrics;
+        this.file = file;
+        this.counter = counter;
+        openedNanos = System.nanoTime();
+        metrics.record(FileMetrics.Operation.OPEN, file, openedNanos - startNanos);
+    }
+
+    /**
+     * terminates the current line and counts it. All println() methods of PrintWriter end up here
+     */
+    @Override
+    public void println() {
+        super.println();
+        lines++;
+    }
+
+    /**
+     * flushes the printed lines into the file and records the flushing
+     */
+    @Override
+    public void flush() {
+        long start = System.nanoTime();
+        super.flush();
+        metrics.record(FileMetrics.Operation.FLUSH, file, System.nanoTime() - start);
+    }
+
+    /**
+     * closes the file and records the closing, the whole writing and the number of lines and bytes
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            super.close();
+            return;
+        }
+        closed = true;
+        long closingNanos = System.nanoTime();
+        super.close();
+        long closedNanos = System.nanoTime();
+        metrics.record(FileMetrics.Operation.CLOSE, file, closedNanos - closingNanos);
+        metrics.record(FileMetrics.Operation.WRITE, file, closedNanos - openedNanos);
+        metrics.add(FileMetrics.Counter.FILES_WRITTEN, 1);
+        metrics.add(FileMetrics.Counter.LINES_WRITTEN, lines);
+        metrics.add(FileMetrics.Counter.BYTES_WRITTEN, counter.count);
+    }
+
+    /**
+     * a stream which counts the bytes written into the underlying stream. The count is only read after the stream
+     * was closed, so it does not need to be synchronized
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        /**
+         * the number of bytes which were written
+         */
+        private long count;
+
+        /**
+         * creates a new CountingOutputStream
+         * @param out the stream which will be written
+         */
+        private CountingOutputStream(@NonNull OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            out.write(buffer, offset, length);
+            count += length;
+        }
+    }
+}
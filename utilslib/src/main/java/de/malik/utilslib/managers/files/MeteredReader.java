@@ -0,0 +1,164 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+public class MeteredReader extends BufferedReader {
+
+    /**
+     * the metrics the reading is recorded into
+     */
+    private final FileMetrics metrics;
+
+    /**
+     * the file which is read
+     */
+    private final File file;
+
+    /**
+     * the stream which counts the bytes read from the file
+     */
+    private final CountingInputStream in;
+
+    /**
+     * the value of System.nanoTime() when the file was opened
+     */
+    private final long openedNanos;
+
+    /**
+     * the number of lines which were read
+     */
+    private long lines;
+
+    /**
+     * true if the reader was closed
+     */
+    private boolean closed;
+
+    /**
+     * opens the given file for reading with the default charset, like FileReader, and records the opening
+     * @param file the file which will be read
+     * @param metrics the metrics the reading is recorded into
+     * @throws IOException if an I/O error occurred
+     */
+    protected MeteredReader(@NonNull File file, @NonNull FileMetrics metrics) throws IOException {
+        this(file, metrics, System.nanoTime());
+    }
+
+    /**
+     * opens the given file for reading
+     * @param file the file which will be read
+     * @param metrics the metrics the reading is recorded into
+     * @param startNanos the time the opening started
+     * @throws IOException if an I/O error occurred
+     */
+    private MeteredReader(@NonNull File file, @NonNull FileMetrics metrics, long startNanos) throws IOException {
+        this(file, metrics, new CountingInputStream(new FileInputStream(file)), startNanos);
+    }
+
+    /**
+     * creates a new MeteredReader which decodes the given stream and records the opening
+     * @param file the file which will be read
+     * @param metrics the metrics the reading is recorded into
+     * @param in the stream which counts the bytes read from the file
+     * @param startNanos the time the opening started
+     */
+    private MeteredReader(@NonNull File file, @NonNull FileMetrics metrics, @NonNull CountingInputStream in, long startNanos) {
+        super(new InputStreamReader(in, Charset.defaultCharset()));
+        this.metrics = metrics;
+        this.file = file;
+        this.in = in;
+        openedNanos = System.nanoTime();
+        metrics.record(FileMetrics.Operation.OPEN, file, openedNanos - startNanos);
+    }
+
+    /**
+     * reads the next line and counts it
+     * @return the next line without its line terminator, null if the end of the file was reached
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public String readLine() throws IOException {
+        String line = super.readLine();
+        if (line != null) lines++;
+        return line;
+    }
+
+    /**
+     * closes the file and records the closing, the whole reading and the number of lines and bytes
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            super.close();
+            return;
+        }
+        closed = true;
+        long closingNanos = System.nanoTime();
+        try {
+            super.close();
+        } finally {
+            long closedNanos = System.nanoTime();
+            metrics.record(FileMetrics.Operation.CLOSE, file, closedNanos - closingNanos);
+            metrics.record(FileMetrics.Operation.READ, file, closedNanos - openedNanos);
+            metrics.add(FileMetrics.Counter.FILES_READ, 1);
+            metrics.add(FileMetrics.Counter.LINES_READ, lines);
+            metrics.add(FileMetrics.Counter.BYTES_READ, in.count);
+        }
+    }
+
+    /**
+     * a stream which counts the bytes read from the underlying stream. The count is only read after the stream
+     * was closed, so it does not need to be synchronized
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * the number of bytes which were read or skipped
+         */
+        private long count;
+
+        /**
+         * creates a new CountingInputStream
+         * @param in the stream which will be read
+         */
+        private CountingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = in.read();
+            if (read != -1) count++;
+            return read;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            int read = in.read(buffer, offset, length);
+            if (read > 0) count += read;
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
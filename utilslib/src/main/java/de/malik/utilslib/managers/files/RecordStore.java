@@ -0,0 +1,845 @@
+package de.malik.utilslib.managers.files;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+public class RecordStore implements Closeable {
+
+    /**
+     * the tag used to output text with Log class
+     */
+    public static final String TAG = RecordStore.class.getName();
+
+    /**
+     * the default size in bytes after which a new segment will be started
+     */
+    public static final long DEFAULT_MAX_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    /**
+     * the default number of closed segments after which a compaction will be started in the background
+     */
+    public static final int DEFAULT_AUTO_COMPACT_SEGMENTS = 4;
+
+    /**
+     * the prefix of all segment file names
+     */
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    /**
+     * the extension of the segment files
+     */
+    private static final String SEGMENT_EXTENSION = ".dat";
+
+    /**
+     * the extension of the hint files which contain the index of a closed segment
+     */
+    private static final String HINT_EXTENSION = ".hint";
+
+    /**
+     * the extension of a hint file which is written and not renamed into place yet
+     */
+    private static final String HINT_TEMP_EXTENSION = ".hint.tmp";
+
+    /**
+     * the extension of a segment which is written by a compaction and not finished yet
+     */
+    private static final String COMPACT_EXTENSION = ".compact";
+
+    /**
+     * the magic number at the beginning of every segment
+     */
+    private static final int MAGIC = 0x554C5253;
+
+    /**
+     * the magic number at the beginning of every hint file. Hint files of an older format have another magic number
+     * and are ignored
+     */
+    private static final int HINT_MAGIC = 0x554C5248;
+
+    /**
+     * the number of bytes of the segment header (magic number and id of the first replaced segment)
+     */
+    private static final int SEGMENT_HEADER_SIZE = 8;
+
+    /**
+     * the number of bytes of an entry header (checksum, key length and value length)
+     */
+    private static final int ENTRY_HEADER_SIZE = 12;
+
+    /**
+     * the value length which marks a removed key
+     */
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * the charset of keys and values
+     */
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /**
+     * the folder which contains the segments
+     */
+    private final File folder;
+
+    /**
+     * the size in bytes after which a new segment will be started
+     */
+    private final long maxSegmentSize;
+
+    /**
+     * the number of closed segments after which a compaction will be started, 0 or less to disable
+     */
+    private final int autoCompactSegments;
+
+    /**
+     * maps every live key to the location of its latest value
+     */
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+
+    /**
+     * all open segments sorted by their id
+     */
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+
+    /**
+     * guards the segments map. Reads hold the read lock, compaction holds the write lock while it swaps segments
+     */
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    /**
+     * the lock all writes into the active segment are synchronized on
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * makes sure only one compaction runs at a time
+     */
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * the executor which runs the automatic compactions
+     */
+    private final ExecutorService compactor;
+
+    /**
+     * the buffer entries are encoded into before they are written
+     */
+    private ByteBuffer entryBuffer = ByteBuffer.allocate(1024);
+
+    /**
+     * the checksum used to protect the entries
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * the id of the segment new entries are appended to
+     */
+    private int activeSegmentId;
+
+    /**
+     * the channel of the active segment
+     */
+    private FileChannel activeSegment;
+
+    /**
+     * the size of the active segment
+     */
+    private long activeSegmentSize;
+
+    /**
+     * true if the store was closed
+     */
+    private volatile boolean closed;
+
+    /**
+     * opens the store in the given folder and rebuilds the index from the hint files and segments
+     * @param folder the folder which contains the segments, it will be created if it does not exist
+     * @param maxSegmentSize the size in bytes after which a new segment will be started
+     * @param autoCompactSegments the number of closed segments after which a compaction will be started
+     *                            in the background, 0 or less to disable
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if the maximum segment size is smaller than one
+     */
+    protected RecordStore(@NonNull File folder, long maxSegmentSize, int autoCompactSegments) throws IOException {
+        if (maxSegmentSize < 1)
+            throw new IllegalArgumentException("Maximum segment size can not be smaller than one");
+        if (!folder.isDirectory() && !folder.mkdirs())
+            throw new IOException("Folder \"" + folder.getName() + "\" could not be created");
+        this.folder = folder;
+        this.maxSegmentSize = maxSegmentSize;
+        this.autoCompactSegments = autoCompactSegments;
+        compactor = autoCompactSegments > 0 ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RecordStore-compactor-" + folder.getName());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        try {
+            load();
+        } catch (IOException | RuntimeException ex) {
+            closeSegments();
+            throw ex;
+        }
+    }
+
+    /**
+     * appends the given value for the given key and makes it the current value of the key
+     * @param key the key
+     * @param value the value of the key
+     * @throws IOException if an I/O error occurred
+     */
+    public void put(@NonNull String key, @NonNull String value) throws IOException {
+        append(key, value.getBytes(CHARSET));
+    }
+
+    /**
+     * returns the current value of the given key with one positioned read
+     * @param key the key
+     * @return the value of the key or null if the key does not exist
+     * @throws IOException if an I/O error occurred
+     */
+    public String get(@NonNull String key) throws IOException {
+        checkOpen();
+        segmentLock.readLock().lock();
+        try {
+            Location location = index.get(key);
+            return location == null ? null : new String(readValue(location), CHARSET);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * removes the given key by appending a tombstone
+     * @param key the key
+     * @return true if the key existed, false otherwise
+     * @throws IOException if an I/O error occurred
+     */
+    public boolean remove(@NonNull String key) throws IOException {
+        if (!index.containsKey(key)) {
+            return false;
+        }
+        append(key, null);
+        return true;
+    }
+
+    /**
+     * checks if the given key exists
+     * @param key the key
+     * @return true if the key exists, false otherwise
+     */
+    public boolean containsKey(@NonNull String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * returns the number of live keys
+     * @return the number of live keys
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * returns a snapshot of all live keys
+     * @return a set containing all live keys
+     */
+    public Set<String> keys() {
+        return new HashSet<>(index.keySet());
+    }
+
+    /**
+     * forces all written entries of the active segment onto the storage device
+     * @throws IOException if an I/O error occurred
+     */
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            checkOpen();
+            activeSegment.force(false);
+        }
+    }
+
+    /**
+     * rewrites the live entries of all closed segments into one new segment and deletes the closed segments.
+     * Puts and gets can continue while the compaction runs. If another compaction is running, this method returns
+     * immediately
+     * @throws IOException if an I/O error occurred
+     */
+    public void compact() throws IOException {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            compactClosedSegments();
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * stops the background compaction and closes all segments
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            if (closed) return;
+            closed = true;
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        segmentLock.writeLock().lock();
+        try {
+            closeSegments();
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * appends an entry to the active segment and updates the index
+     * @param key the key of the entry
+     * @param value the value of the entry or null to append a tombstone
+     * @throws IOException if an I/O error occurred
+     */
+    private void append(@NonNull String key, byte[] value) throws IOException {
+        byte[] keyBytes = key.getBytes(CHARSET);
+        boolean compactionDue = false;
+        synchronized (writeLock) {
+            checkOpen();
+            if (activeSegmentSize >= maxSegmentSize) {
+                compactionDue = rollSegment();
+            }
+            ByteBuffer entry = encodeEntry(keyBytes, value);
+            long entryOffset = activeSegmentSize;
+            while (entry.hasRemaining()) {
+                activeSegment.write(entry, activeSegmentSize + entry.position());
+            }
+            activeSegmentSize += entry.limit();
+            if (value == null) {
+                index.remove(key);
+            } else {
+                index.put(key, new Location(activeSegmentId, entryOffset + ENTRY_HEADER_SIZE + keyBytes.length, value.length));
+            }
+        }
+        if (compactionDue) {
+            try {
+                compactor.execute(() -> {
+                    try {
+                        compact();
+                    } catch (IOException | IllegalStateException ex) {
+                        Log.w(TAG, "Compaction of \"" + folder.getName() + "\" failed", ex);
+                    }
+                });
+            } catch (RejectedExecutionException ex) {
+                Log.w(TAG, "Compaction of \"" + folder.getName() + "\" was skipped because the store is closed");
+            }
+        }
+    }
+
+    /**
+     * reads the value at the given location. The caller has to hold the read lock of the segments
+     * @param location the location of the value
+     * @return the bytes of the value
+     * @throws IOException if an I/O error occurred
+     */
+    private byte[] readValue(@NonNull Location location) throws IOException {
+        FileChannel segment = segments.get(location.segmentId);
+        if (segment == null) {
+            throw new IllegalStateException("Record store \"" + folder.getName() + "\" is closed");
+        }
+        ByteBuffer value = ByteBuffer.allocate(location.valueLength);
+        while (value.hasRemaining()) {
+            if (segment.read(value, location.valueOffset + value.position()) < 0) {
+                throw new EOFException("Value in segment " + location.segmentId + " is truncated");
+            }
+        }
+        return value.array();
+    }
+
+    /**
+     * encodes the given entry into the entry buffer
+     * @param key the key of the entry
+     * @param value the value of the entry or null for a tombstone
+     * @return the entry buffer, ready to be written
+     */
+    private ByteBuffer encodeEntry(@NonNull byte[] key, byte[] value) {
+        int valueLength = value == null ? 0 : value.length;
+        int size = ENTRY_HEADER_SIZE + key.length + valueLength;
+        if (entryBuffer.capacity() < size) {
+            entryBuffer = ByteBuffer.allocate(Math.max(size, entryBuffer.capacity() * 2));
+        }
+        entryBuffer.clear();
+        entryBuffer.position(4);
+        entryBuffer.putInt(key.length);
+        entryBuffer.putInt(value == null ? TOMBSTONE : value.length);
+        entryBuffer.put(key);
+        if (value != null) {
+            entryBuffer.put(value);
+        }
+        checksum.reset();
+        checksum.update(entryBuffer.array(), 4, size - 4);
+        entryBuffer.putInt(0, (int) checksum.getValue());
+        entryBuffer.flip();
+        return entryBuffer;
+    }
+
+    /**
+     * closes the active segment, saves its hint file and starts a new segment
+     * @return true if an automatic compaction is due
+     * @throws IOException if an I/O error occurred
+     */
+    private boolean rollSegment() throws IOException {
+        activeSegment.force(false);
+        writeHintFile(activeSegmentId, activeSegmentSize);
+        int id = activeSegmentId + 1;
+        FileChannel segment = createSegment(getSegmentFile(id), id);
+        int closedSegments;
+        segmentLock.writeLock().lock();
+        try {
+            segments.put(id, segment);
+            closedSegments = segments.size() - 1;
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        activeSegment = segment;
+        activeSegmentId = id;
+        activeSegmentSize = SEGMENT_HEADER_SIZE;
+        return compactor != null && closedSegments >= autoCompactSegments;
+    }
+
+    /**
+     * copies the live entries of all closed segments into a new segment and replaces the closed segments with it
+     * @throws IOException if an I/O error occurred
+     */
+    private void compactClosedSegments() throws IOException {
+        ArrayList<Integer> ids = new ArrayList<>();
+        synchronized (writeLock) {
+            checkOpen();
+            segmentLock.readLock().lock();
+            try {
+                for (int id : segments.keySet()) {
+                    if (id != activeSegmentId) ids.add(id);
+                }
+            } finally {
+                segmentLock.readLock().unlock();
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        int firstId = ids.get(0);
+        int targetId = ids.get(ids.size() - 1);
+        Set<Integer> compactedIds = new HashSet<>(ids);
+        File compactFile = new File(folder, SEGMENT_PREFIX + targetId + COMPACT_EXTENSION);
+        Map<String, Location> moved = new HashMap<>();
+        Map<String, Location> replaced = new HashMap<>();
+        long size;
+        try (FileChannel target = createSegment(compactFile, firstId)) {
+            size = SEGMENT_HEADER_SIZE;
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                if (!compactedIds.contains(location.segmentId)) continue;
+                byte[] valueBytes;
+                segmentLock.readLock().lock();
+                try {
+                    valueBytes = readValue(location);
+                } finally {
+                    segmentLock.readLock().unlock();
+                }
+                byte[] keyBytes = entry.getKey().getBytes(CHARSET);
+                ByteBuffer buffer;
+                synchronized (writeLock) {
+                    buffer = encodeEntry(keyBytes, valueBytes);
+                    while (buffer.hasRemaining()) {
+                        target.write(buffer, size + buffer.position());
+                    }
+                }
+                moved.put(entry.getKey(), new Location(targetId, size + ENTRY_HEADER_SIZE + keyBytes.length, valueBytes.length));
+                replaced.put(entry.getKey(), location);
+                size += ENTRY_HEADER_SIZE + keyBytes.length + valueBytes.length;
+            }
+            target.force(true);
+        } catch (IOException | RuntimeException ex) {
+            compactFile.delete();
+            throw ex;
+        }
+        segmentLock.writeLock().lock();
+        try {
+            if (segments.isEmpty()) {
+                compactFile.delete();
+                return;
+            }
+            for (int id : ids) {
+                segments.remove(id).close();
+            }
+            File targetFile = getSegmentFile(targetId);
+            File targetHint = new File(folder, SEGMENT_PREFIX + targetId + HINT_EXTENSION);
+            if (targetHint.exists() && !targetHint.delete())
+                throw new IOException("Hint file \"" + targetHint.getName() + "\" could not be deleted");
+            if (!compactFile.renameTo(targetFile))
+                throw new IOException("Compacted segment could not be renamed to \"" + targetFile.getName() + "\"");
+            for (int id : ids) {
+                if (id != targetId) deleteSegment(id);
+            }
+            segments.put(targetId, new RandomAccessFile(targetFile, "rw").getChannel());
+            for (Map.Entry<String, Location> entry : moved.entrySet()) {
+                index.replace(entry.getKey(), replaced.get(entry.getKey()), entry.getValue());
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        writeHintFile(targetId, size, moved);
+    }
+
+    /**
+     * opens all segments, deletes the segments replaced by a finished compaction and rebuilds the index
+     * @throws IOException if an I/O error occurred
+     */
+    private void load() throws IOException {
+        TreeMap<Integer, File> files = new TreeMap<>();
+        File[] children = folder.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                String name = child.getName();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(COMPACT_EXTENSION)) {
+                    if (!child.delete()) Log.w(TAG, "Unfinished compaction \"" + name + "\" could not be deleted");
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(HINT_TEMP_EXTENSION)) {
+                    if (!child.delete()) Log.w(TAG, "Unfinished hint file \"" + name + "\" could not be deleted");
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION)) {
+                    try {
+                        files.put(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXTENSION.length())), child);
+                    } catch (NumberFormatException ex) {
+                        Log.w(TAG, "Ignoring unknown file \"" + name + "\"");
+                    }
+                }
+            }
+        }
+        for (int id : new ArrayList<>(files.descendingKeySet())) {
+            if (!files.containsKey(id)) continue;
+            int firstId = readFirstId(files.get(id));
+            for (int replacedId : new ArrayList<>(files.subMap(firstId, true, id, false).keySet())) {
+                files.remove(replacedId);
+                deleteSegment(replacedId);
+            }
+        }
+        for (Map.Entry<Integer, File> entry : files.entrySet()) {
+            int id = entry.getKey();
+            FileChannel channel = new RandomAccessFile(entry.getValue(), "rw").getChannel();
+            segments.put(id, channel);
+            long size = loadHintFile(id, channel.size());
+            if (size < 0) {
+                size = scanSegment(id, entry.getValue(), channel.size());
+                if (size < channel.size()) {
+                    Log.w(TAG, "Truncating corrupted tail of segment \"" + entry.getValue().getName() + "\"");
+                    channel.truncate(size);
+                }
+            }
+            activeSegmentId = id;
+            activeSegmentSize = size;
+        }
+        if (segments.isEmpty()) {
+            activeSegmentId = 0;
+            activeSegmentSize = SEGMENT_HEADER_SIZE;
+            segments.put(0, createSegment(getSegmentFile(0), 0));
+        } else {
+            new File(folder, SEGMENT_PREFIX + activeSegmentId + HINT_EXTENSION).delete();
+        }
+        activeSegment = segments.get(activeSegmentId);
+    }
+
+    /**
+     * reads all entries of the given segment and applies them to the index. An entry whose lengths are negative or
+     * reach behind the end of the segment ends the valid data, just like an entry with a wrong checksum
+     * @param id the id of the segment
+     * @param file the segment file
+     * @param segmentLength the length of the segment file
+     * @return the offset behind the last complete entry
+     * @throws IOException if an I/O error occurred
+     */
+    private long scanSegment(int id, @NonNull File file, long segmentLength) throws IOException {
+        long offset = SEGMENT_HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.skipBytes(SEGMENT_HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            byte[] bytes = new byte[1024];
+            while (true) {
+                int storedChecksum, keyLength, valueLength;
+                try {
+                    storedChecksum = in.readInt();
+                    keyLength = in.readInt();
+                    valueLength = in.readInt();
+                    if (keyLength < 0 || valueLength < TOMBSTONE
+                            || offset + ENTRY_HEADER_SIZE + (long) keyLength + Math.max(valueLength, 0) > segmentLength) break;
+                    int length = keyLength + Math.max(valueLength, 0);
+                    if (bytes.length < length) bytes = new byte[length];
+                    in.readFully(bytes, 0, length);
+                } catch (EOFException ex) {
+                    break;
+                }
+                crc.reset();
+                crc.update(ByteBuffer.allocate(8).putInt(keyLength).putInt(valueLength).array());
+                crc.update(bytes, 0, keyLength + Math.max(valueLength, 0));
+                if ((int) crc.getValue() != storedChecksum) break;
+                String key = new String(bytes, 0, keyLength, CHARSET);
+                if (valueLength == TOMBSTONE) {
+                    index.remove(key);
+                } else {
+                    index.put(key, new Location(id, offset + ENTRY_HEADER_SIZE + keyLength, valueLength));
+                }
+                offset += ENTRY_HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * applies the hint file of the given segment to the index if it matches the size of the segment
+     * @param id the id of the segment
+     * @param segmentSize the size of the segment
+     * @return the size of the segment or -1 if there is no valid hint file
+     */
+    private long loadHintFile(int id, long segmentSize) {
+        File hintFile = new File(folder, SEGMENT_PREFIX + id + HINT_EXTENSION);
+        if (!hintFile.isFile()) {
+            return -1;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(hintFile)))) {
+            if (in.readInt() != HINT_MAGIC || in.readLong() != segmentSize) {
+                return -1;
+            }
+            int count = in.readInt();
+            Map<String, Location> entries = new TreeMap<>();
+            byte[] keyBytes = new byte[256];
+            for (int i = 0; i < count; i++) {
+                int keyLength = in.readInt();
+                if (keyLength < 0 || keyLength > hintFile.length()) {
+                    return -1;
+                }
+                if (keyBytes.length < keyLength) keyBytes = new byte[keyLength];
+                in.readFully(keyBytes, 0, keyLength);
+                String key = new String(keyBytes, 0, keyLength, CHARSET);
+                int valueLength = in.readInt();
+                long valueOffset = in.readLong();
+                entries.put(key, valueLength == TOMBSTONE ? null : new Location(id, valueOffset, valueLength));
+            }
+            for (Map.Entry<String, Location> entry : entries.entrySet()) {
+                if (entry.getValue() == null) index.remove(entry.getKey());
+                else index.put(entry.getKey(), entry.getValue());
+            }
+            return segmentSize;
+        } catch (IOException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * writes the hint file of the given closed segment containing the final entry of every key in the segment
+     * @param id the id of the segment
+     * @param segmentSize the size of the segment
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeHintFile(int id, long segmentSize) throws IOException {
+        Map<String, Location> entries = new TreeMap<>();
+        File segmentFile = getSegmentFile(id);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segmentFile)))) {
+            in.skipBytes(SEGMENT_HEADER_SIZE);
+            long offset = SEGMENT_HEADER_SIZE;
+            byte[] keyBytes = new byte[256];
+            while (offset < segmentSize) {
+                in.readInt();
+                int keyLength = in.readInt();
+                int valueLength = in.readInt();
+                if (keyBytes.length < keyLength) keyBytes = new byte[keyLength];
+                in.readFully(keyBytes, 0, keyLength);
+                in.skipBytes(Math.max(valueLength, 0));
+                String key = new String(keyBytes, 0, keyLength, CHARSET);
+                entries.put(key, valueLength == TOMBSTONE ? null : new Location(id, offset + ENTRY_HEADER_SIZE + keyLength, valueLength));
+                offset += ENTRY_HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+            }
+        }
+        writeHintFile(id, segmentSize, entries);
+    }
+
+    /**
+     * writes the given entries as hint file of the given segment. The file is written under a temporary name and
+     * renamed into place, so a crash never leaves a partly written hint file
+     * @param id the id of the segment
+     * @param segmentSize the size of the segment
+     * @param entries the final entry of every key in the segment, null values mark tombstones
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeHintFile(int id, long segmentSize, @NonNull Map<String, Location> entries) throws IOException {
+        File hintFile = new File(folder, SEGMENT_PREFIX + id + HINT_EXTENSION);
+        File tempFile = new File(folder, SEGMENT_PREFIX + id + HINT_TEMP_EXTENSION);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(HINT_MAGIC);
+            out.writeLong(segmentSize);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Location> entry : entries.entrySet()) {
+                Location location = entry.getValue();
+                byte[] keyBytes = entry.getKey().getBytes(CHARSET);
+                out.writeInt(keyBytes.length);
+                out.write(keyBytes);
+                out.writeInt(location == null ? TOMBSTONE : location.valueLength);
+                out.writeLong(location == null ? 0 : location.valueOffset);
+            }
+        } catch (IOException | RuntimeException ex) {
+            tempFile.delete();
+            throw ex;
+        }
+        if (!tempFile.renameTo(hintFile)) {
+            tempFile.delete();
+            throw new IOException("Hint file could not be renamed to \"" + hintFile.getName() + "\"");
+        }
+    }
+
+    /**
+     * creates a new segment file and writes its header
+     * @param file the segment file
+     * @param firstId the id of the first segment this segment replaces, or its own id
+     * @return the channel of the new segment
+     * @throws IOException if an I/O error occurred
+     */
+    private FileChannel createSegment(@NonNull File file, int firstId) throws IOException {
+        FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_SIZE);
+        header.putInt(MAGIC).putInt(firstId).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        return channel;
+    }
+
+    /**
+     * reads the id of the first segment the given segment replaces
+     * @param file the segment file
+     * @return the id of the first replaced segment
+     * @throws IOException if an I/O error occurred or the file is not a segment
+     */
+    private int readFirstId(@NonNull File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException("File \"" + file.getName() + "\" is not a segment");
+            return in.readInt();
+        } catch (EOFException ex) {
+            throw new IOException("File \"" + file.getName() + "\" is not a segment", ex);
+        }
+    }
+
+    /**
+     * deletes the segment file and the hint file of the given segment
+     * @param id the id of the segment
+     */
+    private void deleteSegment(int id) {
+        File segmentFile = getSegmentFile(id);
+        if (segmentFile.exists() && !segmentFile.delete()) {
+            Log.w(TAG, "Segment \"" + segmentFile.getName() + "\" could not be deleted");
+        }
+        new File(folder, SEGMENT_PREFIX + id + HINT_EXTENSION).delete();
+    }
+
+    /**
+     * returns the segment file with the given id
+     * @param id the id of the segment
+     * @return the segment file
+     */
+    private File getSegmentFile(int id) {
+        return new File(folder, SEGMENT_PREFIX + id + SEGMENT_EXTENSION);
+    }
+
+    /**
+     * closes all open segments
+     * @throws IOException if an I/O error occurred
+     */
+    private void closeSegments() throws IOException {
+        IOException failure = null;
+        for (FileChannel segment : segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        segments.clear();
+        if (failure != null) throw failure;
+    }
+
+    /**
+     * checks that the store is open
+     * @throws IllegalStateException if the store is closed
+     */
+    private void checkOpen() {
+        if (closed)
+            throw new IllegalStateException("Record store \"" + folder.getName() + "\" is closed");
+    }
+
+    /**
+     * the location of a value within the segments
+     */
+    private static final class Location {
+
+        /**
+         * the id of the segment which contains the value
+         */
+        private final int segmentId;
+
+        /**
+         * the offset of the value within the segment
+         */
+        private final long valueOffset;
+
+        /**
+         * the length of the value in bytes
+         */
+        private final int valueLength;
+
+        /**
+         * creates a new location
+         * @param segmentId the id of the segment which contains the value
+         * @param valueOffset the offset of the value within the segment
+         * @param valueLength the length of the value in bytes
+         */
+        private Location(int segmentId, long valueOffset, int valueLength) {
+            this.segmentId = segmentId;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+        }
+    }
+}
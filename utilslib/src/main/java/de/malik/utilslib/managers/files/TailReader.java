@@ -0,0 +1,224 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class TailReader {
+
+    /**
+     * the number of bytes at the beginning of the file which are compared to detect a replaced file
+     */
+    private static final int FINGERPRINT_SIZE = 64;
+
+    /**
+     * the number of bytes which are read at once
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * the charset used to decode the lines. This is the same charset ULPrinter and ULReader use
+     */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * the file which is tailed
+     */
+    private final File file;
+
+    /**
+     * the buffer the new bytes are read into
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * the first bytes of the file, used to detect if the file was replaced
+     */
+    private byte[] fingerprint = new byte[0];
+
+    /**
+     * the bytes of the trailing line which is not terminated yet
+     */
+    private byte[] partialLine = new byte[256];
+
+    /**
+     * the number of bytes in partialLine
+     */
+    private int partialLength;
+
+    /**
+     * the offset up to which the file was read
+     */
+    private long offset;
+
+    /**
+     * true if the last read byte was '\r', so a following '\n' belongs to the same line terminator
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * true if the last poll detected that the file was truncated or replaced
+     */
+    private boolean lastPollReset;
+
+    /**
+     * creates a new TailReader for the given file
+     * @param file the file which will be tailed
+     * @param fromEnd if true, the content the file already contains will be skipped, otherwise the first poll
+     *                returns all lines of the file
+     * @throws IOException if an I/O error occurred
+     */
+    protected TailReader(@NonNull File file, boolean fromEnd) throws IOException {
+        this.file = file;
+        if (fromEnd && file.exists()) {
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                offset = in.length();
+                fingerprint = readFingerprint(in, (int) Math.min(FINGERPRINT_SIZE, offset));
+            }
+        }
+    }
+
+    /**
+     * reads all the complete lines which were appended since the last poll. A trailing line without line terminator
+     * is kept until it is complete. If the file was truncated or replaced since the last poll, it is read from the
+     * beginning again and isLastPollReset() returns true
+     * @return an ArrayList of String containing the new lines, without their line terminators
+     * @throws IOException if an I/O error occurred
+     */
+    public ArrayList<String> poll() throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        lastPollReset = false;
+        if (!file.exists()) {
+            if (offset > 0 || partialLength > 0) reset();
+            return lines;
+        }
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            long length = in.length();
+            if (length < offset || !fingerprintMatches(in)) {
+                reset();
+            }
+            if (length == offset) {
+                return lines;
+            }
+            in.seek(offset);
+            long remaining = length - offset;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) break;
+                splitLines(read, lines);
+                offset += read;
+                remaining -= read;
+            }
+            if (fingerprint.length < FINGERPRINT_SIZE) {
+                fingerprint = readFingerprint(in, (int) Math.min(FINGERPRINT_SIZE, offset));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * checks if the last poll detected that the file was truncated or replaced
+     * @return true if the last poll started reading at the beginning of the file again, false otherwise
+     */
+    public boolean isLastPollReset() {
+        return lastPollReset;
+    }
+
+    /**
+     * returns the offset up to which the file was read
+     * @return the offset up to which the file was read
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * splits the read bytes into lines and keeps the trailing bytes which are not terminated yet
+     * @param read the number of bytes in the buffer
+     * @param lines the list the complete lines will be added to
+     */
+    private void splitLines(int read, @NonNull ArrayList<String> lines) {
+        int lineStart = 0;
+        for (int i = 0; i < read; i++) {
+            byte b = buffer[i];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (b == '\n') {
+                    lineStart = i + 1;
+                    continue;
+                }
+            }
+            if (b == '\n' || b == '\r') {
+                appendPartial(lineStart, i);
+                lines.add(new String(partialLine, 0, partialLength, CHARSET));
+                partialLength = 0;
+                skipLineFeed = b == '\r';
+                lineStart = i + 1;
+            }
+        }
+        appendPartial(lineStart, read);
+    }
+
+    /**
+     * appends the given range of the buffer to the trailing line
+     * @param from the first byte of the range
+     * @param to the byte behind the last byte of the range
+     */
+    private void appendPartial(int from, int to) {
+        int length = to - from;
+        if (length <= 0) return;
+        if (partialLength + length > partialLine.length) {
+            partialLine = Arrays.copyOf(partialLine, Math.max(partialLine.length * 2, partialLength + length));
+        }
+        System.arraycopy(buffer, from, partialLine, partialLength, length);
+        partialLength += length;
+    }
+
+    /**
+     * checks if the beginning of the file still matches the bytes which were read before
+     * @param in the opened file
+     * @return true if the beginning of the file did not change, false otherwise
+     * @throws IOException if an I/O error occurred
+     */
+    private boolean fingerprintMatches(@NonNull RandomAccessFile in) throws IOException {
+        if (fingerprint.length == 0) {
+            return true;
+        }
+        return Arrays.equals(fingerprint, readFingerprint(in, fingerprint.length));
+    }
+
+    /**
+     * reads the given number of bytes from the beginning of the file
+     * @param in the opened file
+     * @param length the number of bytes
+     * @return the first bytes of the file, less if the file is shorter
+     * @throws IOException if an I/O error occurred
+     */
+    private static byte[] readFingerprint(@NonNull RandomAccessFile in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.seek(0);
+        int read = 0;
+        while (read < length) {
+            int count = in.read(bytes, read, length - read);
+            if (count < 0) return Arrays.copyOf(bytes, read);
+            read += count;
+        }
+        return bytes;
+    }
+
+    /**
+     * forgets everything which was read, so the next read starts at the beginning of the file
+     */
+    private void reset() {
+        offset = 0;
+        partialLength = 0;
+        skipLineFeed = false;
+        fingerprint = new byte[0];
+        lastPollReset = true;
+    }
+}
@@ -0,0 +1,413 @@
+package de.malik.utilslib.managers.files;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class ULAppender implements Closeable {
+
+    /**
+     * the default number of records which can be queued before producers are rejected or blocked
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * the default number of records after which the queued records will be written into the file
+     */
+    public static final int DEFAULT_FLUSH_EVERY_RECORDS = 256;
+
+    /**
+     * the default time in milliseconds after which queued records will be written into the file
+     */
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 100;
+
+    /**
+     * the number of bytes after which the batch will be written even if no flush is due yet
+     */
+    private static final int MAX_BATCH_BYTES = 64 * 1024;
+
+    /**
+     * the time in nanoseconds a blocked producer waits before it tries to enqueue its record again
+     */
+    private static final long BACKOFF_NANOS = 50_000;
+
+    /**
+     * the charset used to encode the records. This is the same charset ULPrinter uses
+     */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * the line separator which terminates every record, just like PrintWriter.println() does
+     */
+    private static final byte[] LINE_SEPARATOR = System.getProperty("line.separator", "\n").getBytes(CHARSET);
+
+    /**
+     * the queued records which were not taken by the writer yet
+     */
+    private final ConcurrentLinkedQueue<String> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * the number of records in the queue
+     */
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    /**
+     * the number of records which were enqueued since the appender was opened
+     */
+    private final AtomicLong enqueuedRecords = new AtomicLong();
+
+    /**
+     * the number of producers which are between their check of closed and the end of their enqueue. close() waits
+     * until it is zero before it lets the writer stop, so no accepted record is enqueued behind the writer
+     */
+    private final AtomicInteger activeProducers = new AtomicInteger();
+
+    /**
+     * the lock flush() and close() wait on until the writer has written their records
+     */
+    private final Object writtenLock = new Object();
+
+    /**
+     * the file the records are appended to
+     */
+    private final File file;
+
+    /**
+     * the maximum number of queued records
+     */
+    private final int capacity;
+
+    /**
+     * the number of records after which the batch will be written, 0 or less to disable
+     */
+    private final int flushEveryRecords;
+
+    /**
+     * the time in nanoseconds after which the batch will be written, 0 or less to disable
+     */
+    private final long flushIntervalNanos;
+
+    /**
+     * the channel which stays open as long as the appender is open
+     */
+    private final FileChannel channel;
+
+    /**
+     * the thread which drains the queue and writes the records
+     */
+    private final Thread writer;
+
+    /**
+     * the number of records which were written into the file
+     */
+    private volatile long writtenRecords;
+
+    /**
+     * the number of enqueued records flush() waits for
+     */
+    private volatile long flushTarget;
+
+    /**
+     * true if the writer is parked and has to be woken up when a record is enqueued
+     */
+    private volatile boolean writerParked;
+
+    /**
+     * true if close() was called
+     */
+    private volatile boolean closed;
+
+    /**
+     * true if all accepted records are enqueued and the writer may stop as soon as the queue is empty
+     */
+    private volatile boolean stopRequested;
+
+    /**
+     * the error which stopped the writer or null if there was no error
+     */
+    private volatile IOException failure;
+
+    /**
+     * opens the given file for appending and starts the writer thread
+     * @param file the file the records will be appended to
+     * @param capacity the maximum number of queued records
+     * @param flushEveryRecords the number of records after which the batch will be written, 0 or less to disable
+     * @param flushIntervalMillis the time after which queued records will be written, 0 or less to disable
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if the capacity is smaller than one
+     */
+    protected ULAppender(@NonNull File file, int capacity, int flushEveryRecords, long flushIntervalMillis) throws IOException {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity can not be smaller than one");
+        this.file = file;
+        this.capacity = capacity;
+        this.flushEveryRecords = flushEveryRecords;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        channel = new FileOutputStream(file, true).getChannel();
+        writer = new Thread(this::writeLoop, "ULAppender-" + file.getName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * returns the file the records are appended to
+     * @return the file the records are appended to
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * enqueues the given record if there is space in the queue. This method never blocks
+     * @param record the record which will be appended
+     * @return true if the record was enqueued, false if the queue is full
+     * @throws IOException if the writer stopped because of an I/O error
+     * @throws IllegalStateException if the appender is closed
+     */
+    public boolean offer(@NonNull String record) throws IOException {
+        activeProducers.incrementAndGet();
+        try {
+            checkOpen();
+            if (queueSize.incrementAndGet() > capacity) {
+                queueSize.decrementAndGet();
+                return false;
+            }
+            queue.add(record);
+            enqueuedRecords.incrementAndGet();
+        } finally {
+            activeProducers.decrementAndGet();
+        }
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    /**
+     * enqueues the given record and waits for space in the queue at most the given time
+     * @param record the record which will be appended
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if the record was enqueued, false if the queue was still full after the timeout
+     * @throws IOException if the writer stopped because of an I/O error
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws IllegalStateException if the appender is closed
+     */
+    public boolean offer(@NonNull String record, long timeout, @NonNull TimeUnit unit) throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(record)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            backOff();
+        }
+        return true;
+    }
+
+    /**
+     * enqueues the given record and waits as long as the queue is full
+     * @param record the record which will be appended
+     * @throws IOException if the writer stopped because of an I/O error
+     * @throws InterruptedException if the thread was interrupted while waiting
+     * @throws IllegalStateException if the appender is closed
+     */
+    public void append(@NonNull String record) throws IOException, InterruptedException {
+        while (!offer(record)) {
+            backOff();
+        }
+    }
+
+    /**
+     * writes all the records which were enqueued before this call into the file and waits until they are written
+     * @throws IOException if the writer stopped because of an I/O error
+     * @throws InterruptedException if the thread was interrupted while waiting
+     */
+    public void flush() throws IOException, InterruptedException {
+        long target = enqueuedRecords.get();
+        synchronized (writtenLock) {
+            if (target > flushTarget) {
+                flushTarget = target;
+            }
+        }
+        LockSupport.unpark(writer);
+        synchronized (writtenLock) {
+            while (writtenRecords < target && failure == null && writer.isAlive()) {
+                writtenLock.wait();
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * returns the number of records which are queued but not written yet
+     * @return the number of queued records
+     */
+    public int getQueuedRecords() {
+        return queueSize.get();
+    }
+
+    /**
+     * stops accepting records, writes all queued records into the file and closes it
+     * @throws IOException if an I/O error occurred
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        while (activeProducers.get() > 0) {
+            Thread.yield();
+        }
+        stopRequested = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        checkFailure();
+    }
+
+    /**
+     * drains the queue in batches and writes them into the file until the appender is closed
+     */
+    private void writeLoop() {
+        ByteBuffer batch = ByteBuffer.allocate(MAX_BATCH_BYTES);
+        int pending = 0;
+        long firstPendingTime = 0;
+        try {
+            while (true) {
+                String record;
+                while ((flushEveryRecords <= 0 || pending < flushEveryRecords) && batch.position() < MAX_BATCH_BYTES
+                        && (record = queue.poll()) != null) {
+                    queueSize.decrementAndGet();
+                    if (pending == 0) {
+                        firstPendingTime = System.nanoTime();
+                    }
+                    batch = encode(batch, record);
+                    pending++;
+                }
+                boolean queueEmpty = queue.isEmpty();
+                boolean writeDue = pending > 0 && ((flushEveryRecords > 0 && pending >= flushEveryRecords)
+                        || batch.position() >= MAX_BATCH_BYTES
+                        || (flushIntervalNanos > 0 && System.nanoTime() - firstPendingTime >= flushIntervalNanos)
+                        || (queueEmpty && stopRequested)
+                        || (flushTarget > writtenRecords && (queueEmpty || writtenRecords + pending >= flushTarget)));
+                if (writeDue) {
+                    writeBatch(batch, pending);
+                    pending = 0;
+                    continue;
+                }
+                if (!queueEmpty) {
+                    continue;
+                }
+                if (stopRequested) {
+                    break;
+                }
+                writerParked = true;
+                if (queue.isEmpty() && !stopRequested && flushTarget <= writtenRecords + pending) {
+                    if (pending > 0 && flushIntervalNanos > 0) {
+                        LockSupport.parkNanos(this, flushIntervalNanos - (System.nanoTime() - firstPendingTime));
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+                writerParked = false;
+            }
+        } catch (IOException ex) {
+            failure = ex;
+        } finally {
+            synchronized (writtenLock) {
+                writtenLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * encodes the given record followed by the line separator into the given batch
+     * @param batch the batch the record will be put into
+     * @param record the record which will be encoded
+     * @return the given batch or a larger copy of it if the record did not fit
+     */
+    private ByteBuffer encode(@NonNull ByteBuffer batch, @NonNull String record) {
+        byte[] bytes = record.getBytes(CHARSET);
+        int required = bytes.length + LINE_SEPARATOR.length;
+        if (batch.remaining() < required) {
+            ByteBuffer larger = ByteBuffer.allocate(batch.position() + required);
+            batch.flip();
+            larger.put(batch);
+            batch = larger;
+        }
+        batch.put(bytes);
+        batch.put(LINE_SEPARATOR);
+        return batch;
+    }
+
+    /**
+     * writes the given batch into the file and wakes up the threads waiting in flush()
+     * @param batch the batch which will be written
+     * @param records the number of records in the batch
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeBatch(@NonNull ByteBuffer batch, int records) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            channel.write(batch);
+        }
+        batch.clear();
+        synchronized (writtenLock) {
+            writtenRecords += records;
+            writtenLock.notifyAll();
+        }
+    }
+
+    /**
+     * waits a short time before a blocked producer tries again
+     * @throws InterruptedException if the thread was interrupted
+     */
+    private void backOff() throws InterruptedException {
+        LockSupport.parkNanos(BACKOFF_NANOS);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /**
+     * checks that the appender is open and the writer did not fail
+     * @throws IOException if the writer stopped because of an I/O error
+     * @throws IllegalStateException if the appender is closed
+     */
+    private void checkOpen() throws IOException {
+        checkFailure();
+        if (closed)
+            throw new IllegalStateException("Appender for file \"" + file.getName() + "\" is closed");
+    }
+
+    /**
+     * throws the error which stopped the writer, if there is one
+     * @throws IOException if the writer stopped because of an I/O error
+     */
+    private void checkFailure() throws IOException {
+        IOException ex = failure;
+        if (ex != null) {
+            throw new IOException("Writing into file \"" + file.getName() + "\" failed", ex);
+        }
+    }
+}
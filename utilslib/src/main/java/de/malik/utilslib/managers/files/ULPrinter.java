@@ -4,9 +4,11 @@ import androidx.annotation.NonNull;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -46,7 +48,89 @@ public class ULPrinter {
     }
 
     /**
-     * creates a print writer which will write into the given file
+     * prints all the given records compressed into the given file. The records are compressed in independent blocks,
+     * so appending does not rewrite the content the file already contains
+     * @param file the file where the records will be printed in
+     * @param append if true, the file will keep all it's content, otherwise the content will be overridden
+     * @param level the compression level from Deflater.NO_COMPRESSION to Deflater.BEST_COMPRESSION,
+     *              or Deflater.DEFAULT_COMPRESSION
+     * @param records the records which will be printed into the file
+     * @throws IOException if an I/O error occurred
+     */
+    public void printCompressed(@NonNull File file, boolean append, int level, @NonNull String... records) throws IOException {
+        if (records.length == 0) return;
+        printCompressed(file, append, level, Arrays.asList(records));
+    }
+
+    /**
+     * prints all the given records compressed into the given file. The records are compressed in independent blocks,
+     * so appending does not rewrite the content the file already contains
+     * @param file the file where the records will be printed in
+     * @param append if true, the file will keep all it's content, otherwise the content will be overridden
+     * @param level the compression level from Deflater.NO_COMPRESSION to Deflater.BEST_COMPRESSION,
+     *              or Deflater.DEFAULT_COMPRESSION
+     * @param records the records which will be printed into the file
+     * @throws IOException if an I/O error occurred
+     */
+    public void printCompressed(@NonNull File file, boolean append, int level, @NonNull Collection<? extends String> records) throws IOException {
+        if (records.size() == 0) return;
+        Charset charset = Charset.defaultCharset();
+        byte[] lineSeparator = System.getProperty("line.separator", "\n").getBytes(charset);
+        CompressedBlockOutputStream out = new CompressedBlockOutputStream(new FileOutputStream(file, append),
+                level, CompressedBlockOutputStream.DEFAULT_BLOCK_SIZE);
+        try {
+            for (String record : records) {
+                out.write(record.getBytes(charset));
+                out.write(lineSeparator);
+                out.endRecord();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * replaces the content of the given file with the given records, so readers never see a half written file.
+     * The records are written into a temporary sibling which is renamed over the file afterwards. Whether the
+     * file survives a crash complete depends on the durability
+     * @param file the file whose content will be replaced
+     * @param durability decides which syncs are done before the method returns
+     * @param records the records which will be the new content of the file
+     * @throws IOException if an I/O error occurred
+     */
+    public void printAtomically(@NonNull File file, @NonNull Durability durability, @NonNull String... records) throws IOException {
+        printAtomically(file, durability, Arrays.asList(records));
+    }
+
+    /**
+     * replaces the content of the given file with the given records, so readers never see a half written file.
+     * The records are written into a temporary sibling which is renamed over the file afterwards. Whether the
+     * file survives a crash complete depends on the durability
+     * @param file the file whose content will be replaced
+     * @param durability decides which syncs are done before the method returns
+     * @param records the records which will be the new content of the file
+     * @throws IOException if an I/O error occurred
+     */
+    public void printAtomically(@NonNull File file, @NonNull Durability durability, @NonNull Collection<? extends String> records) throws IOException {
+        try (AtomicRewriteBatch batch = beginAtomicBatch(durability)) {
+            batch.print(file, records);
+            batch.commit();
+        }
+    }
+
+    /**
+     * starts a batch of atomic rewrites. All files printed into the batch are replaced when the batch is committed,
+     * so they share the renames and the folder syncs. Closing the batch without committing it discards all writes
+     * @param durability the durability all writes of the batch get when the batch is committed
+     * @return a new batch which has to be committed or closed
+     */
+    public AtomicRewriteBatch beginAtomicBatch(@NonNull Durability durability) {
+        return new AtomicRewriteBatch(durability);
+    }
+
+    /**
+     * creates a print writer which will write into the given file. While FileManager.METRICS is enabled,
+     * the printer records the opening, the flushing, the writing and the closing of the file
      * @param file the file which will be written in
      * @param append if false, the printer will override all the content the file contains. If true,
      *               the file will keep all the content
@@ -54,6 +138,9 @@ public class ULPrinter {
      * @throws IOException if an I/O error occurred
      */
     private PrintWriter createPrinter(@NonNull File file, boolean append) throws IOException {
+        if (FileManager.METRICS.isEnabled()) {
+            return new MeteredPrinter(file, append, FileManager.METRICS);
+        }
         return new PrintWriter(new BufferedWriter(new FileWriter(file, append)));
     }
 }
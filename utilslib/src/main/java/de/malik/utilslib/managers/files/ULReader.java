@@ -6,7 +6,11 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
 
 public class ULReader {
 
@@ -31,12 +35,167 @@ public class ULReader {
     }
 
     /**
-     * creates a buffered reader which will read the given file
+     * opens the given file for streaming. Different to readLines(), only the current line is held in memory.
+     * The returned iterator has to be closed if the iteration is stopped before the end of the file is reached
+     * @param file the file which will be read
+     * @return a closeable iterator over the lines of the given file
+     * @throws IOException if an I/O error occurred
+     */
+    public LineIterator iterateLines(@NonNull File file) throws IOException {
+        return new LineIterator(createReader(file));
+    }
+
+    /**
+     * reads the given file line by line and passes every line to the given visitor. Only the current line
+     * is held in memory. Reading stops as soon as the visitor returns false
+     * @param file the file which will be read
+     * @param visitor the visitor which will receive the lines
+     * @return the number of lines which were passed to the visitor
+     * @throws IOException if an I/O error occurred
+     */
+    public long forEachLine(@NonNull File file, @NonNull LineVisitor visitor) throws IOException {
+        long lineNumber = 0;
+        BufferedReader reader = createReader(file);
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!visitor.visit(line, lineNumber++)) {
+                    break;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return lineNumber;
+    }
+
+    /**
+     * maps the given file into memory and indexes the start of every line once, so that single lines
+     * and ranges of lines can be read without reading the whole file
+     * @param file the file which will be read
+     * @param useIndexFile if true, the line index will be loaded from or saved to an index file next to the file
+     * @return a reader which offers random access to the lines of the given file
+     * @throws IOException if an I/O error occurred or the file is larger than 2 GB
+     */
+    public MappedLineReader openMapped(@NonNull File file, boolean useIndexFile) throws IOException {
+        return new MappedLineReader(file, useIndexFile);
+    }
+
+    /**
+     * splits the given file into chunks of about ChunkedFileProcessor.DEFAULT_CHUNK_SIZE bytes which end at a line
+     * terminator and processes them in parallel on a shared fork join pool. The chunk results are reduced in order
+     * @param file the file which will be processed
+     * @param processor the processor which processes and reduces the chunks
+     * @param <R> the type of the result
+     * @return the reduced result of all chunks
+     * @throws IOException if an I/O error occurred
+     */
+    public <R> R processParallel(@NonNull File file, @NonNull ChunkProcessor<R> processor) throws IOException {
+        return processParallel(file, processor, ChunkedFileProcessor.getSharedPool(), ChunkedFileProcessor.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * splits the given file into chunks which end at a line terminator and processes them in parallel on the
+     * given fork join pool. The chunk results are reduced in order
+     * @param file the file which will be processed
+     * @param processor the processor which processes and reduces the chunks
+     * @param pool the pool the chunks will be processed on
+     * @param chunkSize the size a chunk should have at least, in bytes
+     * @param <R> the type of the result
+     * @return the reduced result of all chunks
+     * @throws IOException if an I/O error occurred
+     */
+    public <R> R processParallel(@NonNull File file, @NonNull ChunkProcessor<R> processor, @NonNull ForkJoinPool pool, long chunkSize) throws IOException {
+        return new ChunkedFileProcessor(file, chunkSize).process(processor, pool);
+    }
+
+    /**
+     * splits the given file into chunks which end at a line terminator and processes them in parallel on the
+     * given executor
+     * @param file the file which will be processed
+     * @param processor the processor which processes and reduces the chunks
+     * @param executor the executor the chunks will be processed on
+     * @param chunkSize the size a chunk should have at least, in bytes
+     * @param preserveOrder if true, the results are reduced in the order of the chunks,
+     *                      otherwise in the order the chunks are finished
+     * @param <R> the type of the result
+     * @return the reduced result of all chunks
+     * @throws IOException if an I/O error occurred
+     * @throws InterruptedException if the thread was interrupted while waiting for the chunks
+     */
+    public <R> R processParallel(@NonNull File file, @NonNull ChunkProcessor<R> processor, @NonNull ExecutorService executor,
+                                 long chunkSize, boolean preserveOrder) throws IOException, InterruptedException {
+        return new ChunkedFileProcessor(file, chunkSize).process(processor, executor, preserveOrder);
+    }
+
+    /**
+     * creates a reader which returns only the lines appended to the given file since its last poll.
+     * The cost of a poll depends on the number of new bytes, not on the size of the file
+     * @param file the file which will be tailed
+     * @param fromEnd if true, the content the file already contains will be skipped, otherwise the first poll
+     *                returns all lines of the file
+     * @return a new tail reader for the given file
+     * @throws IOException if an I/O error occurred
+     */
+    public TailReader tail(@NonNull File file, boolean fromEnd) throws IOException {
+        return new TailReader(file, fromEnd);
+    }
+
+    /**
+     * reads the lines of the given compressed file, which was written by ULPrinter.printCompressed()
+     * @param file the file which will be read
+     * @return an ArrayList of String containing all the content of the file
+     * @throws IOException if an I/O error occurred or the file is corrupted
+     */
+    public ArrayList<String> readCompressedLines(@NonNull File file) throws IOException {
+        ArrayList<String> lines = new ArrayList<>();
+        try (LineIterator iterator = iterateCompressedLines(file, 0)) {
+            while (iterator.hasNext()) {
+                lines.add(iterator.next());
+            }
+        } catch (IllegalStateException ex) {
+            if (ex.getCause() instanceof IOException) throw (IOException) ex.getCause();
+            throw ex;
+        }
+        return lines;
+    }
+
+    /**
+     * opens the given compressed file for streaming, starting at the given block. Only the current block
+     * is held in memory. The returned iterator has to be closed if the iteration is stopped before the end
+     * of the file is reached
+     * @param file the file which will be read
+     * @param blockOffset the offset of the first block which will be read, 0 or an offset returned by findCompressedBlocks()
+     * @return a closeable iterator over the lines of the given file
+     * @throws IOException if an I/O error occurred
+     */
+    public LineIterator iterateCompressedLines(@NonNull File file, long blockOffset) throws IOException {
+        return new LineIterator(new BufferedReader(new InputStreamReader(
+                new CompressedBlockInputStream(file, blockOffset), Charset.defaultCharset())));
+    }
+
+    /**
+     * reads only the block headers of the given compressed file and returns the offset of every block.
+     * Every block starts with a complete line, so iterateCompressedLines() can start at any of them
+     * @param file the compressed file
+     * @return the offsets of all blocks of the file
+     * @throws IOException if an I/O error occurred or the file is corrupted
+     */
+    public long[] findCompressedBlocks(@NonNull File file) throws IOException {
+        return CompressedBlockInputStream.findBlockOffsets(file);
+    }
+
+    /**
+     * creates a buffered reader which will read the given file. While FileManager.METRICS is enabled,
+     * the reader records the opening, the reading and the closing of the file
      * @param file the file which will be read
      * @return a buffered reader which will read the content of the given file
      * @throws IOException if an I/O error occurred
      */
     private BufferedReader createReader(@NonNull File file) throws IOException {
+        if (FileManager.METRICS.isEnabled()) {
+            return new MeteredReader(file, FileManager.METRICS);
+        }
         return new BufferedReader(new FileReader(file));
     }
 }
@@ -0,0 +1,94 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class CollationKeyCache {
+
+    /**
+     * the collator the keys are computed with, it is only used while holding the lock of this cache
+     */
+    private final Collator collator;
+
+    /**
+     * the maximum number of cached keys
+     */
+    private final int maxSize;
+
+    /**
+     * the cached keys mapped by their record, in the order they were used, so the least recently used key is evicted
+     */
+    private final LinkedHashMap<String, CollationKey> keys;
+
+    /**
+     * creates a new cache for the collator of the given locale
+     * @param locale the locale whose rules the records are compared by
+     * @param maxSize the maximum number of cached keys
+     * @throws IllegalArgumentException if the maximum size is smaller than one
+     */
+    public CollationKeyCache(@NonNull Locale locale, int maxSize) {
+        this(Collator.getInstance(locale), maxSize);
+    }
+
+    /**
+     * creates a new cache for the given collator. The collator is copied, so changing it later does not change the
+     * cached keys
+     * @param collator the collator the keys are computed with
+     * @param maxSize the maximum number of cached keys
+     * @throws IllegalArgumentException if the maximum size is smaller than one
+     */
+    public CollationKeyCache(@NonNull Collator collator, int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("Maximum size has to be at least one");
+        this.collator = (Collator) collator.clone();
+        this.maxSize = maxSize;
+        keys = new LinkedHashMap<String, CollationKey>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CollationKey> eldest) {
+                return size() > CollationKeyCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * returns the collation key of the given record. The key is computed and cached if it is not cached yet
+     * @param record the record
+     * @return the collation key of the record
+     */
+    public synchronized CollationKey getKey(@NonNull String record) {
+        CollationKey key = keys.get(record);
+        if (key == null) {
+            key = collator.getCollationKey(record);
+            keys.put(record, key);
+        }
+        return key;
+    }
+
+    /**
+     * returns the number of cached keys
+     * @return the number of cached keys
+     */
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    /**
+     * returns the maximum number of cached keys
+     * @return the maximum number of cached keys
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * removes all cached keys
+     */
+    public synchronized void clear() {
+        keys.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package de.malik.utilslib.managers.sorting;
+
+public enum ColumnType {
+
+    /**
+     * makes the sort manager to compare the column as long
+     */
+    LONG,
+
+    /**
+     * makes the sort manager to compare the column as date with the pattern of the sort column
+     */
+    DATE,
+
+    /**
+     * makes the sort manager to compare the column as string
+     */
+    STRING,
+
+    /**
+     * makes the sort manager to compare the column as string, ignoring the case
+     */
+    STRING_IGNORE_CASE
+}
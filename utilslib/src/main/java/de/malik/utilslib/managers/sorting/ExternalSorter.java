@@ -0,0 +1,331 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+
+import de.malik.utilslib.managers.time.DateCodec;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class ExternalSorter {
+
+    /**
+     * the default number of bytes the records of one run may occupy on the heap
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 16L * 1024 * 1024;
+
+    /**
+     * the maximum number of runs which are merged at once. If there are more runs, they are merged in several passes
+     */
+    private static final int MAX_FAN_IN = 64;
+
+    /**
+     * the smallest size of the buffer of a reader or writer in chars
+     */
+    private static final int MIN_BUFFER_SIZE = 4096;
+
+    /**
+     * the estimated number of bytes a record occupies on the heap besides its chars, including its key and its index
+     */
+    private static final int RECORD_OVERHEAD = 80;
+
+    /**
+     * the prefix and the suffix of the names of the temporary run files
+     */
+    private static final String RUN_PREFIX = "sort", RUN_SUFFIX = ".run";
+
+    /**
+     * the value by which the records will be sorted
+     */
+    private final SortValue sortValue;
+
+    /**
+     * the codec the records are parsed with if the sort value is a date sort value
+     */
+    private final DateCodec dateCodec;
+
+    /**
+     * the number of bytes the records of one run may occupy on the heap
+     */
+    private final long memoryBudget;
+
+    /**
+     * the folder the temporary run files are created in
+     */
+    private final File tempDirectory;
+
+    /**
+     * creates a new ExternalSorter which parses date records with the default codec of SortManager
+     * @param sortValue the value by which the records will be sorted
+     * @param memoryBudget the number of bytes the records of one run may occupy on the heap
+     * @param tempDirectory the folder the temporary run files are created in
+     * @throws IllegalArgumentException if the memory budget is not positive
+     */
+    protected ExternalSorter(@NonNull SortValue sortValue, long memoryBudget, @NonNull File tempDirectory) {
+        this(sortValue, SortManager.DATE_CODEC, memoryBudget, tempDirectory);
+    }
+
+    /**
+     * creates a new ExternalSorter
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param memoryBudget the number of bytes the records of one run may occupy on the heap
+     * @param tempDirectory the folder the temporary run files are created in
+     * @throws IllegalArgumentException if the memory budget is not positive
+     */
+    protected ExternalSorter(@NonNull SortValue sortValue, @NonNull DateCodec dateCodec, long memoryBudget,
+                             @NonNull File tempDirectory) {
+        if (memoryBudget <= 0)
+            throw new IllegalArgumentException("Memory budget has to be positive");
+        this.sortValue = sortValue;
+        this.dateCodec = dateCodec;
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * sorts the lines of the input file into the output file. The input is read in runs which fit into the memory
+     * budget, every run is sorted and written to a temporary file, then the runs are merged. The sort is stable and
+     * its result is the same as the result of SortManager.sort(). The input file may also be the output file
+     * @param input the file whose lines will be sorted
+     * @param output the file the sorted lines will be written to, its content will be overridden
+     * @return the number of sorted lines
+     * @throws IOException if an I/O error occurred
+     * @throws NumberFormatException if the sort value is an ID sort value and a line is not a long
+     */
+    public long sort(@NonNull File input, @NonNull File output) throws IOException, NumberFormatException {
+        ArrayList<File> runs = new ArrayList<>();
+        try {
+            ArrayList<String> lastRun = new ArrayList<>();
+            long count = 0;
+            try (BufferedReader reader = new BufferedReader(new FileReader(input), bufferSize(1))) {
+                long used = 0;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lastRun.add(line);
+                    count++;
+                    used += RECORD_OVERHEAD + 2L * line.length();
+                    if (used >= memoryBudget) {
+                        runs.add(writeRun(lastRun));
+                        lastRun = new ArrayList<>();
+                        used = 0;
+                    }
+                }
+            }
+            if (runs.isEmpty()) {
+                writeSorted(lastRun, output);
+                return count;
+            }
+            if (!lastRun.isEmpty()) {
+                runs.add(writeRun(lastRun));
+            }
+            lastRun = null;
+            while (runs.size() > MAX_FAN_IN) {
+                ArrayList<File> merged = new ArrayList<>();
+                try {
+                    for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                        List<File> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                        File run = createRunFile();
+                        merged.add(run);
+                        merge(group, run);
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    deleteAll(merged);
+                    throw ex;
+                }
+                deleteAll(runs);
+                runs = merged;
+            }
+            merge(runs, output);
+            return count;
+        } finally {
+            deleteAll(runs);
+        }
+    }
+
+    /**
+     * sorts the given records and writes them to a new temporary run file
+     * @param records the records of the run
+     * @return the run file
+     * @throws IOException if an I/O error occurred
+     */
+    private File writeRun(@NonNull ArrayList<String> records) throws IOException {
+        File run = createRunFile();
+        writeSorted(records, run);
+        return run;
+    }
+
+    /**
+     * sorts the given records and writes them to the given file
+     * @param records the records
+     * @param file the file the sorted records will be written to
+     * @throws IOException if an I/O error occurred
+     */
+    private void writeSorted(@NonNull ArrayList<String> records, @NonNull File file) throws IOException {
+        int[] order = SortManager.sortedOrder(records, sortValue, dateCodec);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file), bufferSize(1))) {
+            for (int index : order) {
+                writer.write(records.get(index));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * merges the given sorted runs into the given file. Records with equal keys are taken from the earlier run first,
+     * so the merge is stable
+     * @param runs the sorted runs in the order of the records they contain
+     * @param target the file the merged records will be written to
+     * @throws IOException if an I/O error occurred
+     */
+    private void merge(@NonNull List<File> runs, @NonNull File target) throws IOException {
+        int bufferSize = bufferSize(runs.size() + 1);
+        ArrayList<RunCursor> cursors = new ArrayList<>(runs.size());
+        try {
+            PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size(), this::compare);
+            for (int i = 0; i < runs.size(); i++) {
+                RunCursor cursor = new RunCursor(new BufferedReader(new FileReader(runs.get(i)), bufferSize), i);
+                cursors.add(cursor);
+                if (cursor.advance()) queue.add(cursor);
+            }
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(target), bufferSize)) {
+                RunCursor cursor;
+                while ((cursor = queue.poll()) != null) {
+                    writer.write(cursor.record);
+                    writer.newLine();
+                    if (cursor.advance()) queue.add(cursor);
+                }
+            }
+        } finally {
+            for (RunCursor cursor : cursors) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * compares the current records of two runs
+     * @param a the first run
+     * @param b the second run
+     * @return a negative number, zero or a positive number if the record of the first run comes before, together with
+     *         or after the record of the second run
+     */
+    private int compare(@NonNull RunCursor a, @NonNull RunCursor b) {
+        int result;
+        if (sortValue == SortValue.STRING_A_TO_Z)
+            result = a.record.compareTo(b.record);
+        else if (sortValue == SortValue.STRING_Z_TO_A)
+            result = b.record.compareTo(a.record);
+        else if (a.valid != b.valid)
+            result = a.valid ? -1 : 1;
+        else if (!a.valid)
+            result = 0;
+        else if (SortManager.isDescending(sortValue))
+            result = Long.compare(b.key, a.key);
+        else result = Long.compare(a.key, b.key);
+        return result != 0 ? result : Integer.compare(a.run, b.run);
+    }
+
+    /**
+     * calculates the size of a buffer if the memory budget is shared by the given number of buffers
+     * @param buffers the number of buffers
+     * @return the size of one buffer in chars
+     */
+    private int bufferSize(int buffers) {
+        return (int) Math.max(MIN_BUFFER_SIZE, Math.min(Integer.MAX_VALUE / 2, memoryBudget / 4 / buffers));
+    }
+
+    /**
+     * creates a new temporary run file
+     * @return the run file
+     * @throws IOException if an I/O error occurred
+     */
+    File createRunFile() throws IOException {
+        return File.createTempFile(RUN_PREFIX, RUN_SUFFIX, tempDirectory);
+    }
+
+    /**
+     * deletes all the given files
+     * @param files the files which will be deleted
+     */
+    private static void deleteAll(@NonNull List<File> files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * the current position in a sorted run
+     */
+    private class RunCursor implements Closeable {
+
+        /**
+         * the reader of the run file
+         */
+        private final BufferedReader reader;
+
+        /**
+         * the position of the run in the order of the runs
+         */
+        private final int run;
+
+        /**
+         * the current record
+         */
+        private String record;
+
+        /**
+         * the key of the current record
+         */
+        private long key;
+
+        /**
+         * true if the key of the current record could be extracted
+         */
+        private boolean valid;
+
+        /**
+         * creates a new cursor before the first record of a run
+         * @param reader the reader of the run file
+         * @param run the position of the run in the order of the runs
+         */
+        private RunCursor(@NonNull BufferedReader reader, int run) {
+            this.reader = reader;
+            this.run = run;
+        }
+
+        /**
+         * moves to the next record and extracts its key
+         * @return true if there is a next record, false if the run is exhausted
+         * @throws IOException if an I/O error occurred
+         */
+        private boolean advance() throws IOException {
+            record = reader.readLine();
+            if (record == null) {
+                return false;
+            }
+            if (sortValue == SortValue.ID_ASC || sortValue == SortValue.ID_DESC) {
+                key = Long.parseLong(record);
+                valid = true;
+            }
+            else if (sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD) {
+                key = dateCodec.parseEpochDay(record);
+                valid = key != DateCodec.INVALID;
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class IndexSorter {
+
+    /**
+     * ranges which are not longer than this are sorted by insertion sort
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    /**
+     * key arrays which are at least this long are sorted by radix sort instead of merge sort
+     */
+    private static final int RADIX_SORT_THRESHOLD = 256;
+
+    /**
+     * the number of bits which are sorted in one pass of the radix sort
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * the number of buckets of one pass of the radix sort
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * compares two records by their index
+     */
+    public interface IndexComparator {
+
+        /**
+         * compares the records with the given indices
+         * @param a the index of the first record
+         * @param b the index of the second record
+         * @return a negative number, zero or a positive number if the first record is less than, equal to
+         *         or greater than the second one
+         */
+        int compare(int a, int b);
+    }
+
+    /**
+     * creates the order which sorts the given keys. The sort is stable, so equal keys keep their original order,
+     * also if the keys are sorted descending
+     * @param keys the keys which will be sorted
+     * @param descending if true, the greatest key comes first
+     * @return the indices of the keys in sorted order
+     */
+    public static int[] sort(@NonNull long[] keys, boolean descending) {
+        if (keys.length >= RADIX_SORT_THRESHOLD) {
+            return radixSort(keys, descending);
+        }
+        int[] order = identity(keys.length);
+        if (descending) {
+            sort(order, 0, order.length, (a, b) -> Long.compare(keys[b], keys[a]));
+        } else {
+            sort(order, 0, order.length, (a, b) -> Long.compare(keys[a], keys[b]));
+        }
+        return order;
+    }
+
+    /**
+     * creates the order which sorts the given keys by a least significant digit radix sort over (key, index) pairs.
+     * The sort is stable and takes linear time. Passes in which all keys have the same digit are skipped
+     * @param keys the keys which will be sorted, they will not be changed
+     * @param descending if true, the greatest key comes first
+     * @return the indices of the keys in sorted order
+     */
+    public static int[] radixSort(@NonNull long[] keys, boolean descending) {
+        int length = keys.length;
+        if (length < 2) {
+            return identity(length);
+        }
+        long[] currentKeys = new long[length];
+        for (int i = 0; i < length; i++) {
+            long key = keys[i] ^ Long.MIN_VALUE;
+            currentKeys[i] = descending ? ~key : key;
+        }
+        int[] currentOrder = identity(length);
+        long[] nextKeys = new long[length];
+        int[] nextOrder = new int[length];
+        int[] counts = new int[RADIX];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                counts[(int) (currentKeys[i] >>> shift) & (RADIX - 1)]++;
+            }
+            if (counts[(int) (currentKeys[0] >>> shift) & (RADIX - 1)] == length) {
+                continue;
+            }
+            int position = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+            for (int i = 0; i < length; i++) {
+                long key = currentKeys[i];
+                int target = counts[(int) (key >>> shift) & (RADIX - 1)]++;
+                nextKeys[target] = key;
+                nextOrder[target] = currentOrder[i];
+            }
+            long[] swapKeys = currentKeys;
+            currentKeys = nextKeys;
+            nextKeys = swapKeys;
+            int[] swapOrder = currentOrder;
+            currentOrder = nextOrder;
+            nextOrder = swapOrder;
+        }
+        return currentOrder;
+    }
+
+    /**
+     * sorts the given range of indices stably by the given comparator
+     * @param order the indices which will be sorted
+     * @param from the first index of the range (inclusive)
+     * @param to the end of the range (exclusive)
+     * @param comparator the comparator which compares two records by their index
+     */
+    public static void sort(@NonNull int[] order, int from, int to, @NonNull IndexComparator comparator) {
+        if (to - from < 2) return;
+        int[] buffer = new int[to];
+        mergeSort(order, buffer, from, to, comparator);
+    }
+
+    /**
+     * sorts the given indices stably by the given comparator on the given pool. The halves of a range are sorted
+     * in parallel until a range is not longer than the given chunk size, then the sorted halves are merged. The
+     * result is exactly the same as the result of sort(), so the comparator has to be thread safe
+     * @param order the indices which will be sorted
+     * @param comparator the comparator which compares two records by their index
+     * @param pool the pool the indices will be sorted on
+     * @param chunk the number of indices from which on a range is sorted in parallel
+     */
+    public static void parallelSort(@NonNull int[] order, @NonNull IndexComparator comparator, @NonNull ForkJoinPool pool, int chunk) {
+        if (order.length < 2) return;
+        int[] buffer = new int[order.length];
+        pool.invoke(new ParallelMergeSort(order, buffer, 0, order.length, comparator, Math.max(chunk, INSERTION_SORT_THRESHOLD)));
+    }
+
+    /**
+     * creates an array containing the indices from 0 to length - 1
+     * @param length the length of the array
+     * @return the indices in their original order
+     */
+    public static int[] identity(int length) {
+        int[] order = new int[length];
+        for (int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * sorts the given range by merging its sorted halves
+     * @param order the indices which will be sorted
+     * @param buffer a buffer at least as long as the order
+     * @param from the first index of the range (inclusive)
+     * @param to the end of the range (exclusive)
+     * @param comparator the comparator which compares two records by their index
+     */
+    private static void mergeSort(@NonNull int[] order, @NonNull int[] buffer, int from, int to, @NonNull IndexComparator comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(order, from, to, comparator);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(order, buffer, from, middle, comparator);
+        mergeSort(order, buffer, middle, to, comparator);
+        merge(order, buffer, from, middle, to, comparator);
+    }
+
+    /**
+     * merges the sorted ranges [from, middle) and [middle, to). The left range is copied into the buffer at the
+     * same position, so ranges which are merged at the same time do not share any part of the buffer
+     * @param order the indices which will be merged
+     * @param buffer a buffer at least as long as the order
+     * @param from the first index of the left range (inclusive)
+     * @param middle the first index of the right range
+     * @param to the end of the right range (exclusive)
+     * @param comparator the comparator which compares two records by their index
+     */
+    private static void merge(@NonNull int[] order, @NonNull int[] buffer, int from, int middle, int to, @NonNull IndexComparator comparator) {
+        if (comparator.compare(order[middle - 1], order[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, middle - from);
+        int left = from, right = middle, target = from;
+        while (left < middle && right < to) {
+            if (comparator.compare(order[right], buffer[left]) < 0) {
+                order[target++] = order[right++];
+            } else {
+                order[target++] = buffer[left++];
+            }
+        }
+        System.arraycopy(buffer, left, order, target, middle - left);
+    }
+
+    /**
+     * sorts the given range by insertion sort
+     * @param order the indices which will be sorted
+     * @param from the first index of the range (inclusive)
+     * @param to the end of the range (exclusive)
+     * @param comparator the comparator which compares two records by their index
+     */
+    private static void insertionSort(@NonNull int[] order, int from, int to, @NonNull IndexComparator comparator) {
+        for (int i = from + 1; i < to; i++) {
+            int current = order[i];
+            int j = i - 1;
+            while (j >= from && comparator.compare(order[j], current) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = current;
+        }
+    }
+
+    /**
+     * a task which sorts a range of indices by sorting its halves in parallel and merging them
+     */
+    private static class ParallelMergeSort extends RecursiveAction {
+
+        /**
+         * the indices which will be sorted
+         */
+        private final int[] order;
+
+        /**
+         * the buffer used to merge, as long as the order
+         */
+        private final int[] buffer;
+
+        /**
+         * the first index of the range (inclusive) and the end of the range (exclusive)
+         */
+        private final int from, to;
+
+        /**
+         * the comparator which compares two records by their index
+         */
+        private final IndexComparator comparator;
+
+        /**
+         * the number of indices from which on the range is split
+         */
+        private final int chunk;
+
+        /**
+         * creates a new task for the given range
+         * @param order the indices which will be sorted
+         * @param buffer the buffer used to merge
+         * @param from the first index of the range
+         * @param to the end of the range
+         * @param comparator the comparator which compares two records by their index
+         * @param chunk the number of indices from which on the range is split
+         */
+        private ParallelMergeSort(@NonNull int[] order, @NonNull int[] buffer, int from, int to,
+                                  @NonNull IndexComparator comparator, int chunk) {
+            this.order = order;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                mergeSort(order, buffer, from, to, comparator);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParallelMergeSort(order, buffer, from, middle, comparator, chunk),
+                    new ParallelMergeSort(order, buffer, middle, to, comparator, chunk));
+            merge(order, buffer, from, middle, to, comparator);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import de.malik.utilslib.managers.time.DateCodec;
+
+public class SortColumn {
+
+    /**
+     * the index of the column in a record, starting at 0
+     */
+    private final int column;
+
+    /**
+     * the type the column is compared as
+     */
+    private final ColumnType type;
+
+    /**
+     * the codec the dates are parsed with if the column is a date column, null otherwise
+     */
+    @Nullable
+    private final DateCodec dateCodec;
+
+    /**
+     * true if the greatest value comes first
+     */
+    private final boolean descending;
+
+    /**
+     * creates a new SortColumn
+     * @param column the index of the column in a record, starting at 0
+     * @param type the type the column is compared as
+     * @param dateCodec the codec the dates are parsed with if the column is a date column, null otherwise
+     * @param descending true if the greatest value comes first
+     * @throws IllegalArgumentException if the column index is negative
+     */
+    private SortColumn(int column, @NonNull ColumnType type, @Nullable DateCodec dateCodec, boolean descending) {
+        if (column < 0)
+            throw new IllegalArgumentException("Column index can not be negative");
+        this.column = column;
+        this.type = type;
+        this.dateCodec = dateCodec;
+        this.descending = descending;
+    }
+
+    /**
+     * creates a column which is compared as long
+     * @param column the index of the column in a record, starting at 0
+     * @param descending true if the greatest value comes first
+     * @return the created column
+     */
+    public static SortColumn ofLong(int column, boolean descending) {
+        return new SortColumn(column, ColumnType.LONG, null, descending);
+    }
+
+    /**
+     * creates a column which is compared as date with the pattern dd.MM.yyyy
+     * @param column the index of the column in a record, starting at 0
+     * @param descending true if the newest date comes first
+     * @return the created column
+     */
+    public static SortColumn ofDate(int column, boolean descending) {
+        return ofDate(column, DateCodec.GERMAN_DATE, descending);
+    }
+
+    /**
+     * creates a column which is compared as date with the given pattern
+     * @param column the index of the column in a record, starting at 0
+     * @param datePattern the fixed width pattern of the dates, as supported by DateCodec
+     * @param descending true if the newest date comes first
+     * @return the created column
+     * @throws IllegalArgumentException if the pattern is not supported by DateCodec
+     */
+    public static SortColumn ofDate(int column, @NonNull String datePattern, boolean descending) {
+        return ofDate(column, new DateCodec(datePattern), descending);
+    }
+
+    /**
+     * creates a column which is compared as date parsed with the given codec
+     * @param column the index of the column in a record, starting at 0
+     * @param dateCodec the codec the dates are parsed with
+     * @param descending true if the newest date comes first
+     * @return the created column
+     */
+    public static SortColumn ofDate(int column, @NonNull DateCodec dateCodec, boolean descending) {
+        return new SortColumn(column, ColumnType.DATE, dateCodec, descending);
+    }
+
+    /**
+     * creates a column which is compared as string
+     * @param column the index of the column in a record, starting at 0
+     * @param descending true if z comes first
+     * @return the created column
+     */
+    public static SortColumn ofString(int column, boolean descending) {
+        return new SortColumn(column, ColumnType.STRING, null, descending);
+    }
+
+    /**
+     * creates a column which is compared as string, ignoring the case
+     * @param column the index of the column in a record, starting at 0
+     * @param descending true if z comes first
+     * @return the created column
+     */
+    public static SortColumn ofStringIgnoreCase(int column, boolean descending) {
+        return new SortColumn(column, ColumnType.STRING_IGNORE_CASE, null, descending);
+    }
+
+    /**
+     * returns the index of the column in a record
+     * @return the index of the column, starting at 0
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * returns the type the column is compared as
+     * @return the type of the column
+     */
+    public ColumnType getType() {
+        return type;
+    }
+
+    /**
+     * returns the codec the dates are parsed with if the column is a date column
+     * @return the date codec, null if the column is no date column
+     */
+    @Nullable
+    public DateCodec getDateCodec() {
+        return dateCodec;
+    }
+
+    /**
+     * checks if the greatest value comes first
+     * @return true if the column is sorted descending, false otherwise
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+}
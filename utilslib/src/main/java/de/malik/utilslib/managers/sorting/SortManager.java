@@ -1,95 +1,601 @@
 package de.malik.utilslib.managers.sorting;
 
-import android.os.Build;
-
 import androidx.annotation.NonNull;
-import androidx.annotation.RequiresApi;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import de.malik.utilslib.managers.time.DateCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.CollationKey;
+import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
-import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class SortManager {
 
     /**
-     * sorts the given records by the given sort value
+     * the default number of records from which on sortParallel() sorts in parallel. This is an untuned default,
+     * it was not measured on any device. Callers which care about the crossover should measure it on their
+     * target devices and pass it to sortParallel(records, sortValue, pool, threshold)
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * the smallest number of records a parallel task works on
+     */
+    private static final int MIN_PARALLEL_CHUNK = 2048;
+
+    /**
+     * the codec date records are parsed with if the caller does not pass one
+     */
+    protected static final DateCodec DATE_CODEC = DateCodec.GERMAN_DATE;
+
+    /**
+     * the pool which is used if the caller does not pass one
+     */
+    private static ForkJoinPool sharedPool;
+
+    /**
+     * sorts the given records by the given sort value. The key of every record is extracted once, then the records
+     * are sorted by their keys. The sort is stable, so equal records keep their original order. Records which are not
+     * a valid date are placed behind all dates in their original order if the sort value is a date sort value
      * @param records the records which will be sorted
      * @param sortValue the value by which the records will be sorted
      * @return an array list of consisting of the sorted records
      * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
      *                               and the records do not consist of longs
      */
-    @RequiresApi(api = Build.VERSION_CODES.N)
     public static ArrayList<String> sort(@NonNull ArrayList<String> records, @NonNull SortValue sortValue) throws NumberFormatException {
+        return sort(records, sortValue, DATE_CODEC);
+    }
+
+    /**
+     * sorts the given records by the given sort value just like sort(records, sortValue), but parses the records with
+     * the given codec if the sort value is a date sort value
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @return an array list of consisting of the sorted records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static ArrayList<String> sort(@NonNull ArrayList<String> records, @NonNull SortValue sortValue,
+                                         @NonNull DateCodec dateCodec) throws NumberFormatException {
+        if (records.size() == 0) {
+            return new ArrayList<>();
+        }
+        return applyOrder(records, sortedOrder(records, sortValue, dateCodec));
+    }
+
+    /**
+     * sorts the given delimited records by the columns of the given spec. The columns of every record are extracted
+     * once, then the records are sorted stably by comparing the extracted keys column by column
+     * @param records the records which will be sorted
+     * @param spec the spec which defines the delimiter and the columns the records are sorted by
+     * @return an array list of consisting of the sorted records
+     * @throws NumberFormatException if a long column of a record is not a long
+     */
+    public static ArrayList<String> sort(@NonNull ArrayList<String> records, @NonNull SortSpec spec) throws NumberFormatException {
         if (records.size() == 0) {
             return new ArrayList<>();
         }
-        ArrayList<String> sortedList = new ArrayList<>(records);
+        return applyOrder(records, spec.sortedOrder(records));
+    }
+
+    /**
+     * sorts the given records alphabetically by the rules of the given locale, so umlauts and upper case letters are
+     * placed next to their base letters. The collation key of every record is computed once, then the records are
+     * sorted stably by their keys
+     * @param records the records which will be sorted
+     * @param locale the locale whose rules the records are compared by, for example Locale.GERMANY
+     * @param descending if true, z comes first
+     * @return an array list of consisting of the sorted records
+     */
+    public static ArrayList<String> sortCollated(@NonNull ArrayList<String> records, @NonNull Locale locale, boolean descending) {
+        Collator collator = Collator.getInstance(locale);
+        CollationKey[] keys = new CollationKey[records.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = collator.getCollationKey(records.get(i));
+        }
+        return applyOrder(records, collatedOrder(keys, descending));
+    }
+
+    /**
+     * sorts the given records alphabetically by the collator of the given cache. Keys of records which were sorted
+     * before are taken from the cache, so lists which are sorted repeatedly only compute the keys of new records
+     * @param records the records which will be sorted
+     * @param cache the cache which computes and keeps the collation keys
+     * @param descending if true, z comes first
+     * @return an array list of consisting of the sorted records
+     */
+    public static ArrayList<String> sortCollated(@NonNull ArrayList<String> records, @NonNull CollationKeyCache cache, boolean descending) {
+        CollationKey[] keys = new CollationKey[records.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = cache.getKey(records.get(i));
+        }
+        return applyOrder(records, collatedOrder(keys, descending));
+    }
+
+    /**
+     * sorts the given records by the given sort value on a shared fork join pool if there are at least
+     * DEFAULT_PARALLEL_THRESHOLD records. The result is exactly the same as the result of sort()
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @return an array list of consisting of the sorted records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static ArrayList<String> sortParallel(@NonNull ArrayList<String> records, @NonNull SortValue sortValue) throws NumberFormatException {
+        return sortParallel(records, sortValue, DATE_CODEC, getSharedPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * sorts the given records by the given sort value on a shared fork join pool if there are at least
+     * DEFAULT_PARALLEL_THRESHOLD records. The result is exactly the same as the result of sort()
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @return an array list of consisting of the sorted records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static ArrayList<String> sortParallel(@NonNull ArrayList<String> records, @NonNull SortValue sortValue,
+                                                 @NonNull DateCodec dateCodec) throws NumberFormatException {
+        return sortParallel(records, sortValue, dateCodec, getSharedPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * sorts the given records by the given sort value on the given pool if there are at least as many records as the
+     * given threshold. The keys are extracted in parallel, then the records are sorted by a parallel merge sort.
+     * The result is exactly the same as the result of sort()
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @param pool the pool the records will be sorted on
+     * @param threshold the number of records from which on the records are sorted in parallel
+     * @return an array list of consisting of the sorted records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static ArrayList<String> sortParallel(@NonNull ArrayList<String> records, @NonNull SortValue sortValue,
+                                                 @NonNull ForkJoinPool pool, int threshold) throws NumberFormatException {
+        return sortParallel(records, sortValue, DATE_CODEC, pool, threshold);
+    }
+
+    /**
+     * sorts the given records by the given sort value on the given pool if there are at least as many records as the
+     * given threshold. The keys are extracted in parallel, then the records are sorted by a parallel merge sort.
+     * The result is exactly the same as the result of sort()
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param pool the pool the records will be sorted on
+     * @param threshold the number of records from which on the records are sorted in parallel
+     * @return an array list of consisting of the sorted records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static ArrayList<String> sortParallel(@NonNull ArrayList<String> records, @NonNull SortValue sortValue,
+                                                 @NonNull DateCodec dateCodec, @NonNull ForkJoinPool pool,
+                                                 int threshold) throws NumberFormatException {
+        if (records.size() < Math.max(threshold, 2)) {
+            return sort(records, sortValue, dateCodec);
+        }
+        int chunk = Math.max(MIN_PARALLEL_CHUNK, records.size() / (pool.getParallelism() * 4));
+        return applyOrder(records, parallelSortedOrder(records, sortValue, dateCodec, pool, chunk));
+    }
+
+    /**
+     * returns the first records the given records would have if they were sorted by the given sort value, without
+     * sorting all of them. The result is the same as the beginning of the result of sort()
+     * @param records the records
+     * @param sortValue the value by which the records are sorted
+     * @param k the number of records which will be returned
+     * @return an array list consisting of the first k sorted records, less if there are less records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static ArrayList<String> topK(@NonNull ArrayList<String> records, @NonNull SortValue sortValue, int k) throws NumberFormatException {
+        return page(records, sortValue, DATE_CODEC, 0, k);
+    }
+
+    /**
+     * returns the first records the given records would have if they were sorted by the given sort value, without
+     * sorting all of them. The result is the same as the beginning of the result of sort()
+     * @param records the records
+     * @param sortValue the value by which the records are sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param k the number of records which will be returned
+     * @return an array list consisting of the first k sorted records, less if there are less records
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     * @throws IllegalArgumentException if k is negative
+     */
+    public static ArrayList<String> topK(@NonNull ArrayList<String> records, @NonNull SortValue sortValue,
+                                         @NonNull DateCodec dateCodec, int k) throws NumberFormatException {
+        return page(records, sortValue, dateCodec, 0, k);
+    }
+
+    /**
+     * returns a page of the records the given records would have if they were sorted by the given sort value. Only
+     * the records up to the end of the page are selected, the records behind it are never sorted. The result is the
+     * same as the same range of the result of sort()
+     * @param records the records
+     * @param sortValue the value by which the records are sorted
+     * @param offset the number of sorted records in front of the page
+     * @param limit the maximum number of records on the page
+     * @return an array list consisting of the sorted records of the page
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    public static ArrayList<String> page(@NonNull ArrayList<String> records, @NonNull SortValue sortValue, int offset, int limit) throws NumberFormatException {
+        return page(records, sortValue, DATE_CODEC, offset, limit);
+    }
+
+    /**
+     * returns a page of the records the given records would have if they were sorted by the given sort value. Only
+     * the records up to the end of the page are selected, the records behind it are never sorted. The result is the
+     * same as the same range of the result of sort()
+     * @param records the records
+     * @param sortValue the value by which the records are sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param offset the number of sorted records in front of the page
+     * @param limit the maximum number of records on the page
+     * @return an array list consisting of the sorted records of the page
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    public static ArrayList<String> page(@NonNull ArrayList<String> records, @NonNull SortValue sortValue,
+                                         @NonNull DateCodec dateCodec, int offset, int limit) throws NumberFormatException {
+        if (offset < 0 || limit < 0)
+            throw new IllegalArgumentException("Offset and limit can not be negative");
+        int end = (int) Math.min((long) offset + limit, records.size());
+        if (offset >= end) {
+            return new ArrayList<>();
+        }
+        int[] order = end == records.size() ? sortedOrder(records, sortValue, dateCodec)
+                : TopKSelector.select(records, sortValue, dateCodec, end);
+        return applyOrder(records, Arrays.copyOfRange(order, offset, end));
+    }
+
+    /**
+     * sorts the lines of the input file by the given sort value into the output file without loading the whole
+     * file into memory. The result is the same as reading the file, calling sort() and printing the records
+     * @param input the file whose lines will be sorted
+     * @param output the file the sorted lines will be written to, its content will be overridden
+     * @param sortValue the value by which the lines will be sorted
+     * @return the number of sorted lines
+     * @throws IOException if an I/O error occurred
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the lines do not consist of longs
+     */
+    public static long sortFile(@NonNull File input, @NonNull File output, @NonNull SortValue sortValue) throws IOException, NumberFormatException {
+        return sortFile(input, output, sortValue, DATE_CODEC);
+    }
+
+    /**
+     * sorts the lines of the input file by the given sort value into the output file without loading the whole
+     * file into memory. The result is the same as reading the file, calling sort() and printing the records
+     * @param input the file whose lines will be sorted
+     * @param output the file the sorted lines will be written to, its content will be overridden
+     * @param sortValue the value by which the lines will be sorted
+     * @param dateCodec the codec the lines are parsed with if the sort value is a date sort value
+     * @return the number of sorted lines
+     * @throws IOException if an I/O error occurred
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the lines do not consist of longs
+     */
+    public static long sortFile(@NonNull File input, @NonNull File output, @NonNull SortValue sortValue,
+                                @NonNull DateCodec dateCodec) throws IOException, NumberFormatException {
+        return sortFile(input, output, sortValue, dateCodec, ExternalSorter.DEFAULT_MEMORY_BUDGET,
+                new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * sorts the lines of the input file by the given sort value into the output file. The lines are sorted in runs
+     * which fit into the memory budget, the runs are spilled into temporary files and merged afterwards
+     * @param input the file whose lines will be sorted
+     * @param output the file the sorted lines will be written to, its content will be overridden
+     * @param sortValue the value by which the lines will be sorted
+     * @param memoryBudget the number of bytes the lines of one run may occupy on the heap
+     * @param tempDirectory the folder the temporary files are created in
+     * @return the number of sorted lines
+     * @throws IOException if an I/O error occurred
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the lines do not consist of longs
+     * @throws IllegalArgumentException if the memory budget is not positive
+     */
+    public static long sortFile(@NonNull File input, @NonNull File output, @NonNull SortValue sortValue,
+                                long memoryBudget, @NonNull File tempDirectory) throws IOException, NumberFormatException {
+        return sortFile(input, output, sortValue, DATE_CODEC, memoryBudget, tempDirectory);
+    }
+
+    /**
+     * sorts the lines of the input file by the given sort value into the output file. The lines are sorted in runs
+     * which fit into the memory budget, the runs are spilled into temporary files and merged afterwards
+     * @param input the file whose lines will be sorted
+     * @param output the file the sorted lines will be written to, its content will be overridden
+     * @param sortValue the value by which the lines will be sorted
+     * @param dateCodec the codec the lines are parsed with if the sort value is a date sort value
+     * @param memoryBudget the number of bytes the lines of one run may occupy on the heap
+     * @param tempDirectory the folder the temporary files are created in
+     * @return the number of sorted lines
+     * @throws IOException if an I/O error occurred
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the lines do not consist of longs
+     * @throws IllegalArgumentException if the memory budget is not positive
+     */
+    public static long sortFile(@NonNull File input, @NonNull File output, @NonNull SortValue sortValue,
+                                @NonNull DateCodec dateCodec, long memoryBudget,
+                                @NonNull File tempDirectory) throws IOException, NumberFormatException {
+        return new ExternalSorter(sortValue, dateCodec, memoryBudget, tempDirectory).sort(input, output);
+    }
+
+    /**
+     * creates the order which sorts the given records by the given sort value
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @return the indices of the records in sorted order
+     * @throws NumberFormatException if the sort value is an ID sort value and the records do not consist of longs
+     */
+    protected static int[] sortedOrder(@NonNull List<String> records, @NonNull SortValue sortValue,
+                                       @NonNull DateCodec dateCodec) throws NumberFormatException {
+        int size = records.size();
+        if (isStringSortValue(sortValue)) {
+            int[] order = IndexSorter.identity(size);
+            IndexSorter.sort(order, 0, size, createStringComparator(records, sortValue));
+            return order;
+        }
+        long[] keys = new long[size];
+        boolean[] valid = new boolean[size];
+        extractKeys(records, sortValue, dateCodec, keys, valid, 0, size);
+        int[] validIndices = new int[size];
+        int validCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (valid[i]) {
+                keys[validCount] = keys[i];
+                validIndices[validCount++] = i;
+            }
+        }
+        long[] validKeys = validCount == size ? keys : Arrays.copyOf(keys, validCount);
+        int[] validOrder = IndexSorter.sort(validKeys, isDescending(sortValue));
+        int[] order = new int[size];
+        for (int i = 0; i < validCount; i++) {
+            order[i] = validIndices[validOrder[i]];
+        }
+        appendInvalid(valid, order, validCount);
+        return order;
+    }
+
+    /**
+     * creates the order which sorts the given collation keys
+     * @param keys the collation keys of the records
+     * @param descending if true, the greatest key comes first
+     * @return the indices of the records in sorted order
+     */
+    private static int[] collatedOrder(@NonNull CollationKey[] keys, boolean descending) {
+        int[] order = IndexSorter.identity(keys.length);
+        if (descending) {
+            IndexSorter.sort(order, 0, order.length, (a, b) -> keys[b].compareTo(keys[a]));
+        } else {
+            IndexSorter.sort(order, 0, order.length, (a, b) -> keys[a].compareTo(keys[b]));
+        }
+        return order;
+    }
+
+    /**
+     * creates the order which sorts the given records by the given sort value on the given pool
+     * @param records the records which will be sorted
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param pool the pool the records will be sorted on
+     * @param chunk the number of records a task works on
+     * @return the indices of the records in sorted order
+     * @throws NumberFormatException if the sort value is an ID sort value and the records do not consist of longs
+     */
+    private static int[] parallelSortedOrder(@NonNull List<String> records, @NonNull SortValue sortValue,
+                                             @NonNull DateCodec dateCodec, @NonNull ForkJoinPool pool,
+                                             int chunk) throws NumberFormatException {
+        int size = records.size();
+        if (isStringSortValue(sortValue)) {
+            int[] order = IndexSorter.identity(size);
+            IndexSorter.parallelSort(order, createStringComparator(records, sortValue), pool, chunk);
+            return order;
+        }
+        long[] keys = new long[size];
+        boolean[] valid = new boolean[size];
+        pool.invoke(new KeyExtraction(records, sortValue, dateCodec, keys, valid, 0, size, chunk));
+        int[] order = new int[size];
+        int validCount = 0;
+        for (int i = 0; i < size; i++) {
+            if (valid[i]) order[validCount++] = i;
+        }
+        int[] validOrder = validCount == size ? order : Arrays.copyOf(order, validCount);
+        if (isDescending(sortValue)) {
+            IndexSorter.parallelSort(validOrder, (a, b) -> Long.compare(keys[b], keys[a]), pool, chunk);
+        } else {
+            IndexSorter.parallelSort(validOrder, (a, b) -> Long.compare(keys[a], keys[b]), pool, chunk);
+        }
+        if (validOrder != order) {
+            System.arraycopy(validOrder, 0, order, 0, validCount);
+        }
+        appendInvalid(valid, order, validCount);
+        return order;
+    }
+
+    /**
+     * extracts the keys of the given range of records. IDs are parsed as long, dates as days since epoch
+     * @param records the records
+     * @param sortValue the ID or date sort value which decides how the keys are extracted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param keys the array the keys are written into at the index of their record
+     * @param valid the array which is set to true at the index of every record whose key could be extracted
+     * @param from the first record of the range (inclusive)
+     * @param to the end of the range (exclusive)
+     * @throws NumberFormatException if the sort value is an ID sort value and a record is not a long
+     */
+    protected static void extractKeys(@NonNull List<String> records, @NonNull SortValue sortValue,
+                                      @NonNull DateCodec dateCodec, @NonNull long[] keys, @NonNull boolean[] valid,
+                                      int from, int to) throws NumberFormatException {
         if (sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD) {
-            DateFormat df = new SimpleDateFormat("dd.MM.yyyy", Locale.GERMANY);
-            df.setTimeZone(TimeZone.getDefault());
-            sortedList.sort((o1, o2) -> {
-                int result = 0;
-                try {
-                    if (sortValue == SortValue.DATE_OLD_TO_NEW)
-                        result = df.parse(o1).compareTo(df.parse(o2));
-                    else result = df.parse(o2).compareTo(df.parse(o1));
-                } catch (ParseException ex) {
-                    ex.printStackTrace();
+            for (int i = from; i < to; i++) {
+                long epochDay = dateCodec.parseEpochDay(records.get(i));
+                if (epochDay != DateCodec.INVALID) {
+                    keys[i] = epochDay;
+                    valid[i] = true;
                 }
-                return result;
-            });
-        }
-        else if (sortValue == SortValue.STRING_A_TO_Z || sortValue == SortValue.STRING_Z_TO_A) {
-            sortedList.sort((o1, o2) -> {
-                int result = 0;
-                if (sortValue == SortValue.STRING_A_TO_Z)
-                    result =  o1.compareTo(o2);
-                else result =  o2.compareTo(o1);
-                return result;
-            });
-        }
-        else if (sortValue == SortValue.ID_ASC ||sortValue == SortValue.ID_DESC) {
-            ArrayList<Long> recordsAsNumbers = convertStringsToLongs(records);
-            recordsAsNumbers.sort((o1, o2) -> {
-                int result = 0;
-                if (sortValue == SortValue.ID_ASC)
-                    result = o1.compareTo(o2);
-                else result = o2.compareTo(o1);
-                return result;
-            });
-            sortedList = convertLongsToStrings(recordsAsNumbers);
+            }
+        }
+        else {
+            for (int i = from; i < to; i++) {
+                keys[i] = Long.parseLong(records.get(i));
+                valid[i] = true;
+            }
+        }
+    }
+
+    /**
+     * checks if the given sort value sorts by descending keys
+     * @param sortValue the sort value
+     * @return true if the greatest key comes first, false otherwise
+     */
+    protected static boolean isDescending(@NonNull SortValue sortValue) {
+        return sortValue == SortValue.ID_DESC || sortValue == SortValue.STRING_Z_TO_A || sortValue == SortValue.DATE_NEW_TO_OLD;
+    }
+
+    /**
+     * checks if the given sort value compares the records as strings
+     * @param sortValue the sort value
+     * @return true if the records are compared as strings, false if they have long keys
+     */
+    protected static boolean isStringSortValue(@NonNull SortValue sortValue) {
+        return sortValue == SortValue.STRING_A_TO_Z || sortValue == SortValue.STRING_Z_TO_A;
+    }
+
+    /**
+     * creates a comparator which compares the records with the given indices as strings
+     * @param records the records
+     * @param sortValue the string sort value
+     * @return a comparator which compares two records by their index
+     */
+    private static IndexSorter.IndexComparator createStringComparator(@NonNull List<String> records, @NonNull SortValue sortValue) {
+        if (sortValue == SortValue.STRING_A_TO_Z)
+            return (a, b) -> records.get(a).compareTo(records.get(b));
+        else return (a, b) -> records.get(b).compareTo(records.get(a));
+    }
+
+    /**
+     * appends the indices of all records without a valid key to the given order, keeping their original order
+     * @param valid the flags which tell which records have a valid key
+     * @param order the order the indices will be appended to
+     * @param validCount the number of records with a valid key, which are already in the order
+     */
+    private static void appendInvalid(@NonNull boolean[] valid, @NonNull int[] order, int validCount) {
+        int position = validCount;
+        for (int i = 0; i < valid.length && position < order.length; i++) {
+            if (!valid[i]) order[position++] = i;
+        }
+    }
+
+    /**
+     * creates a new list containing the records in the given order
+     * @param records the records
+     * @param order the indices of the records in the order they will have in the new list
+     * @return an array list consisting of the records in the given order
+     */
+    protected static ArrayList<String> applyOrder(@NonNull List<String> records, @NonNull int[] order) {
+        ArrayList<String> sortedList = new ArrayList<>(order.length);
+        for (int index : order) {
+            sortedList.add(records.get(index));
         }
         return sortedList;
     }
 
     /**
-     * converts the given list of strings to a list of longs
-     * @param list the list of strings which will be converted
-     * @return the resulting array list of longs
-     * @throws NumberFormatException if any of the strings is not a long
+     * returns the pool which is shared by all calls which do not pass their own pool
+     * @return the shared fork join pool
      */
-    private static ArrayList<Long> convertStringsToLongs(@NonNull ArrayList<String> list) throws NumberFormatException {
-        ArrayList<Long> longList = new ArrayList<>();
-        for (int i = 0; i < list.size(); i++) {
-            longList.add(Long.parseLong(list.get(i)));
+    protected static synchronized ForkJoinPool getSharedPool() {
+        if (sharedPool == null) {
+            sharedPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
         }
-        return longList;
+        return sharedPool;
     }
 
     /**
-     * converts the given list of longs to a list of strings
-     * @param list the list of longs which will be converted
-     * @return the resulting array list of strings
+     * a task which extracts the keys of a range of records by splitting it in halves until it is small enough
      */
-    private static ArrayList<String> convertLongsToStrings(@NonNull ArrayList<Long> list) {
-        ArrayList<String> stringsList = new ArrayList<>();
-        for (int i = 0; i < list.size(); i++) {
-            stringsList.add(list.get(i) + "");
+    private static class KeyExtraction extends RecursiveAction {
+
+        /**
+         * the records
+         */
+        private final List<String> records;
+
+        /**
+         * the sort value which decides how the keys are extracted
+         */
+        private final SortValue sortValue;
+
+        /**
+         * the codec the records are parsed with if the sort value is a date sort value
+         */
+        private final DateCodec dateCodec;
+
+        /**
+         * the array the keys are written into
+         */
+        private final long[] keys;
+
+        /**
+         * the flags which tell which records have a valid key
+         */
+        private final boolean[] valid;
+
+        /**
+         * the first record of the range (inclusive), the end of the range (exclusive) and the size of a chunk
+         */
+        private final int from, to, chunk;
+
+        /**
+         * creates a new task for the given range
+         * @param records the records
+         * @param sortValue the sort value which decides how the keys are extracted
+         * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+         * @param keys the array the keys are written into
+         * @param valid the flags which tell which records have a valid key
+         * @param from the first record of the range
+         * @param to the end of the range
+         * @param chunk the number of records from which on the range is split
+         */
+        private KeyExtraction(@NonNull List<String> records, @NonNull SortValue sortValue, @NonNull DateCodec dateCodec,
+                              @NonNull long[] keys, @NonNull boolean[] valid, int from, int to, int chunk) {
+            this.records = records;
+            this.sortValue = sortValue;
+            this.dateCodec = dateCodec;
+            this.keys = keys;
+            this.valid = valid;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                extractKeys(records, sortValue, dateCodec, keys, valid, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new KeyExtraction(records, sortValue, dateCodec, keys, valid, from, middle, chunk),
+                    new KeyExtraction(records, sortValue, dateCodec, keys, valid, middle, to, chunk));
         }
-        return stringsList;
     }
 }
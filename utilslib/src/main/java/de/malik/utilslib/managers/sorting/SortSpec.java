@@ -0,0 +1,166 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+
+import de.malik.utilslib.managers.time.DateCodec;
+
+import java.util.List;
+
+public class SortSpec {
+
+    /**
+     * the delimiter which separates the columns of a record
+     */
+    private final String delimiter;
+
+    /**
+     * the columns the records are sorted by, the first column has the highest priority
+     */
+    private final SortColumn[] columns;
+
+    /**
+     * creates a new SortSpec. Records are sorted by the first column, records with an equal first column are sorted
+     * by the second column and so on. Records which do not have a column or whose column is not a valid date are
+     * placed behind all other records for this column
+     * @param delimiter the delimiter which separates the columns of a record, for example ";"
+     * @param columns the columns the records are sorted by, the first column has the highest priority
+     * @throws IllegalArgumentException if the delimiter is empty or no column is given
+     */
+    public SortSpec(@NonNull String delimiter, @NonNull SortColumn... columns) {
+        if (delimiter.isEmpty())
+            throw new IllegalArgumentException("Delimiter can not be empty");
+        if (columns.length == 0)
+            throw new IllegalArgumentException("At least one column is required");
+        this.delimiter = delimiter;
+        this.columns = columns.clone();
+    }
+
+    /**
+     * returns the delimiter which separates the columns of a record
+     * @return the delimiter
+     */
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * returns the columns the records are sorted by
+     * @return a copy of the columns, the first column has the highest priority
+     */
+    public SortColumn[] getColumns() {
+        return columns.clone();
+    }
+
+    /**
+     * creates the order which sorts the given records by this spec. Every record is split once and its columns are
+     * extracted into typed key arrays, then the records are sorted stably by comparing the keys
+     * @param records the records which will be sorted
+     * @return the indices of the records in sorted order
+     * @throws NumberFormatException if a long column of a record is not a long
+     */
+    protected int[] sortedOrder(@NonNull List<String> records) throws NumberFormatException {
+        int size = records.size();
+        int columnCount = columns.length;
+        long[][] longKeys = new long[columnCount][];
+        String[][] stringKeys = new String[columnCount][];
+        boolean[][] present = new boolean[columnCount][];
+        int maxColumn = 0;
+        for (int c = 0; c < columnCount; c++) {
+            SortColumn column = columns[c];
+            maxColumn = Math.max(maxColumn, column.getColumn());
+            if (column.getType() == ColumnType.LONG || column.getType() == ColumnType.DATE) {
+                longKeys[c] = new long[size];
+                present[c] = new boolean[size];
+            } else {
+                stringKeys[c] = new String[size];
+            }
+        }
+        boolean[] needed = new boolean[maxColumn + 1];
+        for (SortColumn column : columns) {
+            needed[column.getColumn()] = true;
+        }
+        String[] fields = new String[maxColumn + 1];
+        for (int i = 0; i < size; i++) {
+            int fieldCount = split(records.get(i), needed, fields);
+            for (int c = 0; c < columnCount; c++) {
+                int index = columns[c].getColumn();
+                String field = index < fieldCount ? fields[index] : null;
+                if (field == null) continue;
+                switch (columns[c].getType()) {
+                    case LONG:
+                        longKeys[c][i] = Long.parseLong(field);
+                        present[c][i] = true;
+                        break;
+                    case DATE:
+                        long millis = columns[c].getDateCodec().parseEpochMillis(field);
+                        if (millis != DateCodec.INVALID) {
+                            longKeys[c][i] = millis;
+                            present[c][i] = true;
+                        }
+                        break;
+                    default:
+                        stringKeys[c][i] = field;
+                }
+            }
+        }
+        int[] order = IndexSorter.identity(size);
+        IndexSorter.sort(order, 0, size, (a, b) -> {
+            for (int c = 0; c < columnCount; c++) {
+                int result = compareColumn(c, longKeys[c], stringKeys[c], present[c], a, b);
+                if (result != 0) return result;
+            }
+            return 0;
+        });
+        return order;
+    }
+
+    /**
+     * compares the keys of two records in one column. A missing key comes after every present key
+     * @param c the position of the column in this spec
+     * @param longKeys the long keys of the column or null if it is a string column
+     * @param stringKeys the string keys of the column or null if it is a long or date column
+     * @param present the flags which tell which records have a long key or null if it is a string column
+     * @param a the index of the first record
+     * @param b the index of the second record
+     * @return a negative number, zero or a positive number if the first record comes before, together with
+     *         or after the second record
+     */
+    private int compareColumn(int c, long[] longKeys, String[] stringKeys, boolean[] present, int a, int b) {
+        SortColumn column = columns[c];
+        int result;
+        if (longKeys != null) {
+            if (present[a] != present[b]) return present[a] ? -1 : 1;
+            if (!present[a]) return 0;
+            result = Long.compare(longKeys[a], longKeys[b]);
+        } else {
+            String keyA = stringKeys[a], keyB = stringKeys[b];
+            if (keyA == null || keyB == null) {
+                return keyA == keyB ? 0 : keyA == null ? 1 : -1;
+            }
+            result = column.getType() == ColumnType.STRING_IGNORE_CASE
+                    ? String.CASE_INSENSITIVE_ORDER.compare(keyA, keyB) : keyA.compareTo(keyB);
+        }
+        return column.isDescending() ? -result : result;
+    }
+
+    /**
+     * splits the given record into its columns. Only the needed columns are copied into the fields
+     * @param record the record
+     * @param needed true at the index of every column which is needed
+     * @param fields the array the needed columns are written into, its other entries are set to null
+     * @return the number of columns which were found, at most the length of the fields
+     */
+    private int split(@NonNull String record, @NonNull boolean[] needed, @NonNull String[] fields) {
+        int start = 0;
+        int count = 0;
+        while (count < fields.length) {
+            int end = record.indexOf(delimiter, start);
+            if (end < 0) end = record.length();
+            fields[count] = needed[count] ? record.substring(start, end) : null;
+            count++;
+            if (end == record.length()) break;
+            start = end + delimiter.length();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,573 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+
+import de.malik.utilslib.managers.time.DateCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SortedRecordIndex {
+
+    /**
+     * the maximum number of records in one chunk. A full chunk is split in halves when a record is inserted
+     */
+    private static final int MAX_CHUNK_SIZE = 512;
+
+    /**
+     * the value by which the records are sorted
+     */
+    private final SortValue sortValue;
+
+    /**
+     * the codec the records are parsed with if the sort value is a date sort value
+     */
+    private final DateCodec dateCodec;
+
+    /**
+     * the chunks in sorted order, every chunk contains at least one record
+     */
+    private final ArrayList<Chunk> chunks = new ArrayList<>();
+
+    /**
+     * a Fenwick tree over the sizes of the chunks, element i + 1 belongs to chunk i. It is updated when a record is
+     * inserted or removed and rebuilt when a chunk is split or removed
+     */
+    private int[] chunkCounts = new int[1];
+
+    /**
+     * the number of records in all chunks
+     */
+    private int size;
+
+    /**
+     * the sequence number of the next inserted record, used to keep records with equal keys in insertion order
+     */
+    private long nextSequence;
+
+    /**
+     * creates a new empty SortedRecordIndex which parses date records with the default codec of SortManager
+     * @param sortValue the value by which the records will be sorted
+     */
+    public SortedRecordIndex(@NonNull SortValue sortValue) {
+        this(sortValue, SortManager.DATE_CODEC);
+    }
+
+    /**
+     * creates a new empty SortedRecordIndex
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     */
+    public SortedRecordIndex(@NonNull SortValue sortValue, @NonNull DateCodec dateCodec) {
+        this.sortValue = sortValue;
+        this.dateCodec = dateCodec;
+    }
+
+    /**
+     * creates a new SortedRecordIndex containing the given records. The records are sorted once, which is faster than
+     * adding them one by one. The order is the same as the order of SortManager.sort()
+     * @param records the records
+     * @param sortValue the value by which the records will be sorted
+     * @return the created index
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static SortedRecordIndex build(@NonNull List<String> records, @NonNull SortValue sortValue) throws NumberFormatException {
+        return build(records, sortValue, SortManager.DATE_CODEC);
+    }
+
+    /**
+     * creates a new SortedRecordIndex containing the given records just like build(records, sortValue), but parses
+     * the records with the given codec if the sort value is a date sort value
+     * @param records the records
+     * @param sortValue the value by which the records will be sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @return the created index
+     * @throws NumberFormatException if the sort value is set to ether SortValue.ID_ASC or SortValue.ID_DESC
+     *                               and the records do not consist of longs
+     */
+    public static SortedRecordIndex build(@NonNull List<String> records, @NonNull SortValue sortValue,
+                                          @NonNull DateCodec dateCodec) throws NumberFormatException {
+        SortedRecordIndex index = new SortedRecordIndex(sortValue, dateCodec);
+        int[] order = SortManager.sortedOrder(records, sortValue, dateCodec);
+        Probe probe = new Probe();
+        Chunk chunk = null;
+        for (int i = 0; i < order.length; i++) {
+            if (chunk == null || chunk.size == MAX_CHUNK_SIZE * 3 / 4) {
+                chunk = new Chunk();
+                index.chunks.add(chunk);
+            }
+            index.createProbe(records.get(order[i]), order[i], probe);
+            chunk.set(chunk.size++, probe);
+        }
+        index.size = order.length;
+        index.nextSequence = order.length;
+        index.rebuildChunkCounts();
+        return index;
+    }
+
+    /**
+     * inserts the given record. It is placed behind all records which are equal by the sort value
+     * @param record the record which will be inserted
+     * @return the rank of the inserted record, which is the number of records in front of it
+     * @throws NumberFormatException if the sort value is an ID sort value and the record is not a long
+     */
+    public int add(@NonNull String record) throws NumberFormatException {
+        Probe probe = createProbe(record, nextSequence, new Probe());
+        nextSequence++;
+        if (chunks.isEmpty()) {
+            chunks.add(new Chunk());
+        }
+        int chunkIndex = findChunk(probe);
+        Chunk chunk = chunks.get(chunkIndex);
+        int position = chunk.upperBound(probe, this);
+        boolean split = chunk.size == MAX_CHUNK_SIZE;
+        if (split) {
+            Chunk second = chunk.splitHalf();
+            chunks.add(chunkIndex + 1, second);
+            if (position > chunk.size) {
+                position -= chunk.size;
+                chunk = second;
+                chunkIndex++;
+            }
+        }
+        chunk.insert(position, probe);
+        size++;
+        if (split || chunks.size() >= chunkCounts.length) rebuildChunkCounts();
+        else updateChunkCount(chunkIndex, 1);
+        return rankOfChunk(chunkIndex) + position;
+    }
+
+    /**
+     * inserts all the given records
+     * @param records the records which will be inserted
+     * @throws NumberFormatException if the sort value is an ID sort value and a record is not a long
+     */
+    public void addAll(@NonNull List<String> records) throws NumberFormatException {
+        for (String record : records) {
+            add(record);
+        }
+    }
+
+    /**
+     * removes the record which was inserted first of all records which are equal to the given one
+     * @param record the record which will be removed
+     * @return true if the record was found and removed, false otherwise
+     * @throws NumberFormatException if the sort value is an ID sort value and the record is not a long
+     */
+    public boolean remove(@NonNull String record) throws NumberFormatException {
+        int rank = indexOf(record);
+        if (rank < 0) {
+            return false;
+        }
+        removeAt(rank);
+        return true;
+    }
+
+    /**
+     * removes the record with the given rank
+     * @param rank the rank of the record
+     * @return the removed record
+     * @throws IndexOutOfBoundsException if the rank is out of range
+     */
+    public String removeAt(int rank) {
+        checkRank(rank);
+        int chunkIndex = chunkOfRank(rank);
+        Chunk chunk = chunks.get(chunkIndex);
+        int position = rank - rankOfChunk(chunkIndex);
+        String record = chunk.records[position];
+        chunk.remove(position);
+        size--;
+        if (chunk.size == 0) {
+            chunks.remove(chunkIndex);
+            rebuildChunkCounts();
+        }
+        else updateChunkCount(chunkIndex, -1);
+        return record;
+    }
+
+    /**
+     * returns the record with the given rank
+     * @param rank the rank of the record, 0 is the first record
+     * @return the record
+     * @throws IndexOutOfBoundsException if the rank is out of range
+     */
+    public String get(int rank) {
+        checkRank(rank);
+        int chunkIndex = chunkOfRank(rank);
+        return chunks.get(chunkIndex).records[rank - rankOfChunk(chunkIndex)];
+    }
+
+    /**
+     * returns the rank of the record which was inserted first of all records which are equal to the given one
+     * @param record the record
+     * @return the rank of the record or -1 if the index does not contain it
+     * @throws NumberFormatException if the sort value is an ID sort value and the record is not a long
+     */
+    public int indexOf(@NonNull String record) throws NumberFormatException {
+        Probe probe = createProbe(record, Long.MIN_VALUE, new Probe());
+        int rank = rankOf(probe);
+        Probe last = createProbe(record, Long.MAX_VALUE, new Probe());
+        int end = rankOf(last);
+        if (rank == end) {
+            return -1;
+        }
+        int chunkIndex = chunkOfRank(rank);
+        int position = rank - rankOfChunk(chunkIndex);
+        for (int i = rank; i < end; i++, position++) {
+            Chunk chunk = chunks.get(chunkIndex);
+            if (position == chunk.size) {
+                chunk = chunks.get(++chunkIndex);
+                position = 0;
+            }
+            if (chunk.records[position].equals(record)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * returns the number of records which come before the given record by the sort value
+     * @param record the record, it does not need to be in the index
+     * @return the number of records whose key is less than the key of the given record
+     * @throws NumberFormatException if the sort value is an ID sort value and the record is not a long
+     */
+    public int rank(@NonNull String record) throws NumberFormatException {
+        return rankOf(createProbe(record, Long.MIN_VALUE, new Probe()));
+    }
+
+    /**
+     * returns the records whose ranks are in the given range
+     * @param fromRank the first rank (inclusive)
+     * @param toRank the end of the range (exclusive)
+     * @return an array list consisting of the records in sorted order
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public ArrayList<String> range(int fromRank, int toRank) {
+        if (fromRank < 0 || toRank > size || fromRank > toRank)
+            throw new IndexOutOfBoundsException("Range: " + fromRank + " to " + toRank + ", size: " + size);
+        ArrayList<String> records = new ArrayList<>(toRank - fromRank);
+        if (fromRank == toRank) {
+            return records;
+        }
+        int chunkIndex = chunkOfRank(fromRank);
+        int chunkStart = rankOfChunk(chunkIndex);
+        while (chunkStart < toRank) {
+            Chunk chunk = chunks.get(chunkIndex++);
+            int chunkEnd = chunkStart + chunk.size;
+            for (int i = Math.max(fromRank, chunkStart); i < Math.min(toRank, chunkEnd); i++) {
+                records.add(chunk.records[i - chunkStart]);
+            }
+            chunkStart = chunkEnd;
+        }
+        return records;
+    }
+
+    /**
+     * returns the records whose keys are between the keys of the given records
+     * @param from the record whose key is the lower bound (inclusive)
+     * @param to the record whose key is the upper bound (exclusive)
+     * @return an array list consisting of the records in sorted order
+     * @throws NumberFormatException if the sort value is an ID sort value and a record is not a long
+     */
+    public ArrayList<String> range(@NonNull String from, @NonNull String to) throws NumberFormatException {
+        int fromRank = rank(from);
+        return range(fromRank, Math.max(fromRank, rank(to)));
+    }
+
+    /**
+     * returns the number of records in the index
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * returns the value by which the records are sorted
+     * @return the sort value
+     */
+    public SortValue getSortValue() {
+        return sortValue;
+    }
+
+    /**
+     * creates a list of all records in sorted order
+     * @return an array list consisting of all records
+     */
+    public ArrayList<String> toList() {
+        return range(0, size);
+    }
+
+    /**
+     * finds the chunk a record with the given probe has to be inserted into
+     * @param probe the probe of the record
+     * @return the index of the first chunk whose last record comes after the probe, or the last chunk
+     */
+    private int findChunk(@NonNull Probe probe) {
+        int low = 0, high = chunks.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Chunk chunk = chunks.get(middle);
+            if (compare(probe, chunk, chunk.size - 1) < 0) high = middle;
+            else low = middle + 1;
+        }
+        return low;
+    }
+
+    /**
+     * returns the number of records which come before the given probe
+     * @param probe the probe
+     * @return the number of records which come before the probe
+     */
+    private int rankOf(@NonNull Probe probe) {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        int chunkIndex = findChunk(probe);
+        return rankOfChunk(chunkIndex) + chunks.get(chunkIndex).upperBound(probe, this);
+    }
+
+    /**
+     * returns the number of records in the chunks before the given chunk
+     * @param chunkIndex the index of the chunk
+     * @return the number of records in front of the chunk
+     */
+    private int rankOfChunk(int chunkIndex) {
+        int rank = 0;
+        for (int i = chunkIndex; i > 0; i -= i & -i) {
+            rank += chunkCounts[i];
+        }
+        return rank;
+    }
+
+    /**
+     * finds the chunk which contains the record with the given rank
+     * @param rank the rank of the record, less than the size
+     * @return the index of the chunk
+     */
+    private int chunkOfRank(int rank) {
+        int chunkIndex = 0;
+        for (int step = Integer.highestOneBit(chunkCounts.length - 1); step > 0; step >>= 1) {
+            int next = chunkIndex + step;
+            if (next < chunkCounts.length && chunkCounts[next] <= rank) {
+                chunkIndex = next;
+                rank -= chunkCounts[next];
+            }
+        }
+        return chunkIndex;
+    }
+
+    /**
+     * adds the given value to the size of the given chunk in the Fenwick tree
+     * @param chunkIndex the index of the chunk
+     * @param delta the value which is added
+     */
+    private void updateChunkCount(int chunkIndex, int delta) {
+        for (int i = chunkIndex + 1; i < chunkCounts.length; i += i & -i) {
+            chunkCounts[i] += delta;
+        }
+    }
+
+    /**
+     * rebuilds the Fenwick tree from the sizes of the chunks, with space for more chunks
+     */
+    private void rebuildChunkCounts() {
+        int length = chunkCounts.length;
+        while (length <= chunks.size()) length *= 2;
+        int[] counts = new int[length];
+        for (int i = 1; i < length; i++) {
+            if (i <= chunks.size()) counts[i] += chunks.get(i - 1).size;
+            int parent = i + (i & -i);
+            if (parent < length) counts[parent] += counts[i];
+        }
+        chunkCounts = counts;
+    }
+
+    /**
+     * extracts the key of the given record into the given probe
+     * @param record the record
+     * @param sequence the sequence number of the record
+     * @param probe the probe the key is written into
+     * @return the given probe
+     * @throws NumberFormatException if the sort value is an ID sort value and the record is not a long
+     */
+    private Probe createProbe(@NonNull String record, long sequence, @NonNull Probe probe) throws NumberFormatException {
+        probe.record = record;
+        probe.sequence = sequence;
+        probe.key = 0;
+        probe.valid = true;
+        if (sortValue == SortValue.ID_ASC || sortValue == SortValue.ID_DESC) {
+            probe.key = Long.parseLong(record);
+        }
+        else if (sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD) {
+            probe.key = dateCodec.parseEpochDay(record);
+            probe.valid = probe.key != DateCodec.INVALID;
+        }
+        return probe;
+    }
+
+    /**
+     * compares the given probe with a record of a chunk
+     * @param probe the probe
+     * @param chunk the chunk
+     * @param position the position of the record in the chunk
+     * @return a negative number, zero or a positive number if the probe comes before, together with or after the record
+     */
+    private int compare(@NonNull Probe probe, @NonNull Chunk chunk, int position) {
+        int result;
+        if (sortValue == SortValue.STRING_A_TO_Z)
+            result = probe.record.compareTo(chunk.records[position]);
+        else if (sortValue == SortValue.STRING_Z_TO_A)
+            result = chunk.records[position].compareTo(probe.record);
+        else if (probe.valid != chunk.valid[position])
+            result = probe.valid ? -1 : 1;
+        else if (!probe.valid)
+            result = 0;
+        else if (SortManager.isDescending(sortValue))
+            result = Long.compare(chunk.keys[position], probe.key);
+        else result = Long.compare(probe.key, chunk.keys[position]);
+        return result != 0 ? result : Long.compare(probe.sequence, chunk.sequences[position]);
+    }
+
+    /**
+     * checks if the given rank is in range
+     * @param rank the rank
+     * @throws IndexOutOfBoundsException if the rank is out of range
+     */
+    private void checkRank(int rank) {
+        if (rank < 0 || rank >= size)
+            throw new IndexOutOfBoundsException("Rank: " + rank + ", size: " + size);
+    }
+
+    /**
+     * the key of a record which is searched or inserted
+     */
+    private static final class Probe {
+
+        /**
+         * the record
+         */
+        private String record;
+
+        /**
+         * the key of the record if it is no string record
+         */
+        private long key;
+
+        /**
+         * true if the key of the record could be extracted
+         */
+        private boolean valid;
+
+        /**
+         * the sequence number of the record
+         */
+        private long sequence;
+    }
+
+    /**
+     * a sorted part of the records, stored in parallel arrays
+     */
+    private static final class Chunk {
+
+        /**
+         * the records
+         */
+        private String[] records = new String[MAX_CHUNK_SIZE];
+
+        /**
+         * the keys of the records
+         */
+        private long[] keys = new long[MAX_CHUNK_SIZE];
+
+        /**
+         * true at the position of every record whose key could be extracted
+         */
+        private boolean[] valid = new boolean[MAX_CHUNK_SIZE];
+
+        /**
+         * the sequence numbers of the records
+         */
+        private long[] sequences = new long[MAX_CHUNK_SIZE];
+
+        /**
+         * the number of records in this chunk
+         */
+        private int size;
+
+        /**
+         * finds the position of the first record which comes after the given probe
+         * @param probe the probe
+         * @param index the index the chunk belongs to
+         * @return the position of the first record which comes after the probe or the size if there is none
+         */
+        private int upperBound(@NonNull Probe probe, @NonNull SortedRecordIndex index) {
+            int low = 0, high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (index.compare(probe, this, middle) < 0) high = middle;
+                else low = middle + 1;
+            }
+            return low;
+        }
+
+        /**
+         * inserts the record of the given probe at the given position
+         * @param position the position
+         * @param probe the probe of the record
+         */
+        private void insert(int position, @NonNull Probe probe) {
+            int moved = size - position;
+            System.arraycopy(records, position, records, position + 1, moved);
+            System.arraycopy(keys, position, keys, position + 1, moved);
+            System.arraycopy(valid, position, valid, position + 1, moved);
+            System.arraycopy(sequences, position, sequences, position + 1, moved);
+            set(position, probe);
+            size++;
+        }
+
+        /**
+         * sets the record at the given position
+         * @param position the position
+         * @param probe the probe of the record
+         */
+        private void set(int position, @NonNull Probe probe) {
+            records[position] = probe.record;
+            keys[position] = probe.key;
+            valid[position] = probe.valid;
+            sequences[position] = probe.sequence;
+        }
+
+        /**
+         * removes the record at the given position
+         * @param position the position
+         */
+        private void remove(int position) {
+            int moved = size - position - 1;
+            System.arraycopy(records, position + 1, records, position, moved);
+            System.arraycopy(keys, position + 1, keys, position, moved);
+            System.arraycopy(valid, position + 1, valid, position, moved);
+            System.arraycopy(sequences, position + 1, sequences, position, moved);
+            records[--size] = null;
+        }
+
+        /**
+         * moves the second half of the records into a new chunk
+         * @return the new chunk containing the second half
+         */
+        private Chunk splitHalf() {
+            Chunk second = new Chunk();
+            int half = size / 2;
+            second.size = size - half;
+            System.arraycopy(records, half, second.records, 0, second.size);
+            System.arraycopy(keys, half, second.keys, 0, second.size);
+            System.arraycopy(valid, half, second.valid, 0, second.size);
+            System.arraycopy(sequences, half, second.sequences, 0, second.size);
+            for (int i = half; i < size; i++) {
+                records[i] = null;
+            }
+            size = half;
+            return second;
+        }
+    }
+}
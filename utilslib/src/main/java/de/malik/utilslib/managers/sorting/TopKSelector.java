@@ -0,0 +1,244 @@
+package de.malik.utilslib.managers.sorting;
+
+import androidx.annotation.NonNull;
+
+import de.malik.utilslib.managers.time.DateCodec;
+
+import java.util.List;
+
+public class TopKSelector {
+
+    /**
+     * the records the first records are selected from
+     */
+    private final List<String> records;
+
+    /**
+     * the value by which the records are sorted
+     */
+    private final SortValue sortValue;
+
+    /**
+     * the codec the records are parsed with if the sort value is a date sort value
+     */
+    private final DateCodec dateCodec;
+
+    /**
+     * the indices of the selected records, ordered as a heap whose root is the record which comes last
+     */
+    private final int[] indices;
+
+    /**
+     * the keys of the selected records, at the same position as their indices
+     */
+    private final long[] keys;
+
+    /**
+     * true at the position of every selected record whose key could be extracted
+     */
+    private final boolean[] valid;
+
+    /**
+     * the number of selected records
+     */
+    private int size;
+
+    /**
+     * creates a new TopKSelector
+     * @param records the records the first records are selected from
+     * @param sortValue the value by which the records are sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param count the maximum number of selected records
+     */
+    private TopKSelector(@NonNull List<String> records, @NonNull SortValue sortValue, @NonNull DateCodec dateCodec, int count) {
+        this.records = records;
+        this.sortValue = sortValue;
+        this.dateCodec = dateCodec;
+        indices = new int[count];
+        keys = new long[count];
+        valid = new boolean[count];
+    }
+
+    /**
+     * selects the records which come first if the given records are sorted by the given sort value. Only the selected
+     * records are kept in a bounded heap, so the selection takes O(n log count) time and O(count) extra memory. The
+     * order is exactly the same as the beginning of the order of SortManager.sortedOrder()
+     * @param records the records
+     * @param sortValue the value by which the records are sorted
+     * @param count the number of records which will be selected
+     * @return the indices of the first records in sorted order, less than count if there are less records
+     * @throws NumberFormatException if the sort value is an ID sort value and the records do not consist of longs
+     */
+    public static int[] select(@NonNull List<String> records, @NonNull SortValue sortValue, int count) throws NumberFormatException {
+        return select(records, sortValue, SortManager.DATE_CODEC, count);
+    }
+
+    /**
+     * selects the records which come first if the given records are sorted by the given sort value, just like
+     * select(records, sortValue, count), but parses the records with the given codec if the sort value is a date
+     * sort value
+     * @param records the records
+     * @param sortValue the value by which the records are sorted
+     * @param dateCodec the codec the records are parsed with if the sort value is a date sort value
+     * @param count the number of records which will be selected
+     * @return the indices of the first records in sorted order, less than count if there are less records
+     * @throws NumberFormatException if the sort value is an ID sort value and the records do not consist of longs
+     */
+    public static int[] select(@NonNull List<String> records, @NonNull SortValue sortValue, @NonNull DateCodec dateCodec,
+                               int count) throws NumberFormatException {
+        count = Math.min(count, records.size());
+        if (count <= 0) {
+            return new int[0];
+        }
+        TopKSelector selector = new TopKSelector(records, sortValue, dateCodec, count);
+        selector.offerAll();
+        return selector.drain();
+    }
+
+    /**
+     * offers all records to the heap
+     * @throws NumberFormatException if the sort value is an ID sort value and the records do not consist of longs
+     */
+    private void offerAll() throws NumberFormatException {
+        boolean ids = sortValue == SortValue.ID_ASC || sortValue == SortValue.ID_DESC;
+        boolean dates = sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD;
+        int recordCount = records.size();
+        for (int i = 0; i < recordCount; i++) {
+            long key = 0;
+            boolean isValid = true;
+            if (ids) {
+                key = Long.parseLong(records.get(i));
+            }
+            else if (dates) {
+                key = dateCodec.parseEpochDay(records.get(i));
+                isValid = key != DateCodec.INVALID;
+            }
+            offer(i, key, isValid);
+        }
+    }
+
+    /**
+     * offers the given record to the heap. It is added if the heap is not full yet or if it comes before the record
+     * which comes last in the heap, which is then removed
+     * @param index the index of the record
+     * @param key the key of the record
+     * @param isValid true if the key of the record could be extracted
+     */
+    private void offer(int index, long key, boolean isValid) {
+        if (size < indices.length) {
+            set(size, index, key, isValid);
+            siftUp(size++);
+        }
+        else if (compare(index, key, isValid, indices[0], keys[0], valid[0]) < 0) {
+            set(0, index, key, isValid);
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * removes the records from the heap in sorted order
+     * @return the indices of the selected records in sorted order
+     */
+    private int[] drain() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+        return indices;
+    }
+
+    /**
+     * moves the record at the given position up until its parent comes after it
+     * @param position the position of the record
+     */
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (compareAt(position, parent) <= 0) break;
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    /**
+     * moves the record at the given position down until no child comes after it
+     * @param position the position of the record
+     * @param end the number of records in the heap
+     */
+    private void siftDown(int position, int end) {
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= end) break;
+            if (child + 1 < end && compareAt(child + 1, child) > 0) child++;
+            if (compareAt(child, position) <= 0) break;
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    /**
+     * compares the records at the given positions in the heap
+     * @param a the position of the first record
+     * @param b the position of the second record
+     * @return a negative number or a positive number if the first record comes before or after the second one
+     */
+    private int compareAt(int a, int b) {
+        return compare(indices[a], keys[a], valid[a], indices[b], keys[b], valid[b]);
+    }
+
+    /**
+     * compares two records by the sort value. Records which are equal are ordered by their index, so the order is stable
+     * @param indexA the index of the first record
+     * @param keyA the key of the first record
+     * @param validA true if the key of the first record could be extracted
+     * @param indexB the index of the second record
+     * @param keyB the key of the second record
+     * @param validB true if the key of the second record could be extracted
+     * @return a negative number or a positive number if the first record comes before or after the second one
+     */
+    private int compare(int indexA, long keyA, boolean validA, int indexB, long keyB, boolean validB) {
+        int result;
+        if (sortValue == SortValue.STRING_A_TO_Z)
+            result = records.get(indexA).compareTo(records.get(indexB));
+        else if (sortValue == SortValue.STRING_Z_TO_A)
+            result = records.get(indexB).compareTo(records.get(indexA));
+        else if (validA != validB)
+            result = validA ? -1 : 1;
+        else if (!validA)
+            result = 0;
+        else if (SortManager.isDescending(sortValue))
+            result = Long.compare(keyB, keyA);
+        else result = Long.compare(keyA, keyB);
+        return result != 0 ? result : Integer.compare(indexA, indexB);
+    }
+
+    /**
+     * sets the record at the given position in the heap
+     * @param position the position in the heap
+     * @param index the index of the record
+     * @param key the key of the record
+     * @param isValid true if the key of the record could be extracted
+     */
+    private void set(int position, int index, long key, boolean isValid) {
+        indices[position] = index;
+        keys[position] = key;
+        valid[position] = isValid;
+    }
+
+    /**
+     * swaps the records at the given positions in the heap
+     * @param a the position of the first record
+     * @param b the position of the second record
+     */
+    private void swap(int a, int b) {
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        boolean isValid = valid[a];
+        valid[a] = valid[b];
+        valid[b] = isValid;
+    }
+}
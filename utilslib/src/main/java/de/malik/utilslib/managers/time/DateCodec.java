@@ -0,0 +1,393 @@
+package de.malik.utilslib.managers.time;
+
+import androidx.annotation.NonNull;
+
+public final class DateCodec {
+
+    /**
+     * the value which is returned if a text could not be parsed
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * the codec for german dates like 31.12.2022
+     */
+    public static final DateCodec GERMAN_DATE = new DateCodec("dd.MM.yyyy");
+
+    /**
+     * the codec for german dates with an optional time like 31.12.2022 or 31.12.2022 23:59:59
+     */
+    public static final DateCodec GERMAN_DATE_TIME = new DateCodec("dd.MM.yyyy[ HH:mm:ss]");
+
+    /**
+     * the codec for ISO dates like 2022-12-31
+     */
+    public static final DateCodec ISO_DATE = new DateCodec("yyyy-MM-dd");
+
+    /**
+     * the codec for ISO dates with an optional time like 2022-12-31 or 2022-12-31T23:59:59
+     */
+    public static final DateCodec ISO_DATE_TIME = new DateCodec("yyyy-MM-dd['T'HH:mm:ss]");
+
+    /**
+     * the number of milliseconds of one day
+     */
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    /**
+     * the kinds of the elements of a pattern
+     */
+    private static final byte LITERAL = 0, YEAR = 1, MONTH = 2, DAY = 3, HOUR = 4, MINUTE = 5, SECOND = 6, MILLISECOND = 7;
+
+    /**
+     * the pattern of this codec
+     */
+    private final String pattern;
+
+    /**
+     * the kind of every char of a text, YEAR to MILLISECOND for digits, LITERAL for a literal
+     */
+    private final byte[] kinds;
+
+    /**
+     * the expected char at the position of every literal
+     */
+    private final char[] literals;
+
+    /**
+     * the length of the part of a text which is required, the rest of the pattern is optional
+     */
+    private final int requiredLength;
+
+    /**
+     * creates a new DateCodec for the given fixed width pattern. The pattern may contain the fields yyyy, MM, dd, HH,
+     * mm, ss and SSS, literal chars and text in single quotes. A part at the end of the pattern which is put in square
+     * brackets is optional, for example "dd.MM.yyyy[ HH:mm]"
+     * @param pattern the pattern of the texts
+     * @throws IllegalArgumentException if the pattern contains an unsupported field or no complete date
+     */
+    public DateCodec(@NonNull String pattern) {
+        this.pattern = pattern;
+        StringBuilder kindBuilder = new StringBuilder();
+        StringBuilder literalBuilder = new StringBuilder();
+        int required = -1;
+        boolean[] seen = new boolean[MILLISECOND + 1];
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '[') {
+                if (required >= 0)
+                    throw new IllegalArgumentException("Only one optional part is supported: " + pattern);
+                required = kindBuilder.length();
+                i++;
+            }
+            else if (c == ']') {
+                if (required < 0 || i != pattern.length() - 1)
+                    throw new IllegalArgumentException("The optional part has to be at the end: " + pattern);
+                i++;
+            }
+            else if (c == '\'') {
+                int end = pattern.indexOf('\'', i + 1);
+                if (end < 0)
+                    throw new IllegalArgumentException("Unterminated quote: " + pattern);
+                for (int j = i + 1; j < end; j++) {
+                    kindBuilder.append((char) LITERAL);
+                    literalBuilder.append(pattern.charAt(j));
+                }
+                i = end + 1;
+            }
+            else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) == c) end++;
+                byte kind = fieldKind(c, end - i);
+                if (kind == LITERAL || seen[kind])
+                    throw new IllegalArgumentException("Unsupported field " + pattern.substring(i, end) + ": " + pattern);
+                seen[kind] = true;
+                for (int j = i; j < end; j++) {
+                    kindBuilder.append((char) kind);
+                    literalBuilder.append('0');
+                }
+                i = end;
+            }
+            else {
+                kindBuilder.append((char) LITERAL);
+                literalBuilder.append(c);
+                i++;
+            }
+        }
+        if (required >= 0 && pattern.charAt(pattern.length() - 1) != ']')
+            throw new IllegalArgumentException("Unterminated optional part: " + pattern);
+        if (!seen[YEAR] || !seen[MONTH] || !seen[DAY])
+            throw new IllegalArgumentException("The pattern has to contain yyyy, MM and dd: " + pattern);
+        kinds = new byte[kindBuilder.length()];
+        for (int j = 0; j < kinds.length; j++) {
+            kinds[j] = (byte) kindBuilder.charAt(j);
+        }
+        literals = literalBuilder.toString().toCharArray();
+        requiredLength = required < 0 ? kinds.length : required;
+        for (int j = requiredLength; j < kinds.length; j++) {
+            if (kinds[j] >= YEAR && kinds[j] <= DAY)
+                throw new IllegalArgumentException("Date fields can not be optional: " + pattern);
+        }
+    }
+
+    /**
+     * returns the pattern of this codec
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * parses the date at the beginning of the given text. Chars behind the date are ignored
+     * @param text the text
+     * @return the number of days since 01.01.1970 or INVALID if the text does not start with a valid date
+     */
+    public long parseEpochDay(@NonNull CharSequence text) {
+        return parseEpochDay(text, 0);
+    }
+
+    /**
+     * parses the date at the given offset of the given text. Time fields which are not in the optional part are only
+     * checked to be digits. Chars behind the date are ignored
+     * @param text the text
+     * @param offset the position of the date in the text
+     * @return the number of days since 01.01.1970 or INVALID if there is no valid date at the offset
+     */
+    public long parseEpochDay(@NonNull CharSequence text, int offset) {
+        if (offset < 0 || text.length() - offset < requiredLength) {
+            return INVALID;
+        }
+        int year = 0, month = 0, day = 0;
+        for (int i = 0; i < requiredLength; i++) {
+            char c = text.charAt(offset + i);
+            byte kind = kinds[i];
+            if (kind == LITERAL) {
+                if (c != literals[i]) return INVALID;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) return INVALID;
+            if (kind == YEAR) year = year * 10 + digit;
+            else if (kind == MONTH) month = month * 10 + digit;
+            else if (kind == DAY) day = day * 10 + digit;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return INVALID;
+        }
+        return toEpochDay(year, month, day);
+    }
+
+    /**
+     * parses the date and the time at the beginning of the given text. If the pattern has an optional time which the
+     * text does not contain, the time is midnight. Chars behind the date and time are ignored
+     * @param text the text
+     * @return the number of milliseconds since 01.01.1970 00:00 UTC or INVALID if the text does not start with a valid
+     *         date
+     */
+    public long parseEpochMillis(@NonNull CharSequence text) {
+        return parseEpochMillis(text, 0);
+    }
+
+    /**
+     * parses the date and the time at the given offset of the given text. If the pattern has an optional time which
+     * the text does not contain, the time is midnight. Chars behind the date and time are ignored
+     * @param text the text
+     * @param offset the position of the date in the text
+     * @return the number of milliseconds since 01.01.1970 00:00 UTC or INVALID if there is no valid date at the offset
+     */
+    public long parseEpochMillis(@NonNull CharSequence text, int offset) {
+        long epochDay = parseEpochDay(text, offset);
+        if (epochDay == INVALID) {
+            return INVALID;
+        }
+        long millisOfDay = parseMillisOfDay(text, offset, 0, requiredLength);
+        if (kinds.length > requiredLength && text.length() - offset >= kinds.length) {
+            long optional = parseMillisOfDay(text, offset, requiredLength, kinds.length);
+            if (optional == INVALID) return INVALID;
+            if (optional >= 0) millisOfDay += optional;
+        }
+        return millisOfDay == INVALID ? INVALID : epochDay * MILLIS_PER_DAY + millisOfDay;
+    }
+
+    /**
+     * parses the time fields of the given part of the pattern
+     * @param text the text
+     * @param offset the position of the date in the text
+     * @param from the first char of the part of the pattern (inclusive)
+     * @param to the end of the part of the pattern (exclusive)
+     * @return the milliseconds of the time fields, -1 if the text does not match the part or INVALID if a field is
+     *         out of range
+     */
+    private long parseMillisOfDay(@NonNull CharSequence text, int offset, int from, int to) {
+        int hour = 0, minute = 0, second = 0, millisecond = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(offset + i);
+            byte kind = kinds[i];
+            if (kind == LITERAL) {
+                if (c != literals[i]) return -1;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) return -1;
+            if (kind == HOUR) hour = hour * 10 + digit;
+            else if (kind == MINUTE) minute = minute * 10 + digit;
+            else if (kind == SECOND) second = second * 10 + digit;
+            else if (kind == MILLISECOND) millisecond = millisecond * 10 + digit;
+        }
+        if (hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+        return ((hour * 60L + minute) * 60 + second) * 1000 + millisecond;
+    }
+
+    /**
+     * formats the given day into the given builder, without the optional part of the pattern
+     * @param epochDay the number of days since 01.01.1970
+     * @param builder the builder the date is appended to
+     * @return the given builder
+     */
+    public StringBuilder formatEpochDay(long epochDay, @NonNull StringBuilder builder) {
+        return format(epochDay * MILLIS_PER_DAY, requiredLength, builder);
+    }
+
+    /**
+     * formats the given point in time into the given builder, including the optional part of the pattern
+     * @param epochMillis the number of milliseconds since 01.01.1970 00:00 UTC
+     * @param builder the builder the date and time are appended to
+     * @return the given builder
+     */
+    public StringBuilder formatEpochMillis(long epochMillis, @NonNull StringBuilder builder) {
+        return format(epochMillis, kinds.length, builder);
+    }
+
+    /**
+     * formats the given point in time into the given builder
+     * @param epochMillis the number of milliseconds since 01.01.1970 00:00 UTC
+     * @param length the number of chars of the pattern which are formatted
+     * @param builder the builder the text is appended to
+     * @return the given builder
+     */
+    private StringBuilder format(long epochMillis, int length, @NonNull StringBuilder builder) {
+        long epochDay = floorDiv(epochMillis, MILLIS_PER_DAY);
+        long millisOfDay = epochMillis - epochDay * MILLIS_PER_DAY;
+        long civil = fromEpochDay(epochDay);
+        long[] values = null;
+        int i = 0;
+        while (i < length) {
+            byte kind = kinds[i];
+            if (kind == LITERAL) {
+                builder.append(literals[i++]);
+                continue;
+            }
+            int end = i;
+            while (end < length && kinds[end] == kind) end++;
+            long value;
+            switch (kind) {
+                case YEAR: value = civil >> 9; break;
+                case MONTH: value = (civil >> 5) & 0xF; break;
+                case DAY: value = civil & 0x1F; break;
+                case HOUR: value = millisOfDay / 3600000; break;
+                case MINUTE: value = millisOfDay / 60000 % 60; break;
+                case SECOND: value = millisOfDay / 1000 % 60; break;
+                default: value = millisOfDay % 1000;
+            }
+            appendPadded(builder, value, end - i);
+            i = end;
+        }
+        return builder;
+    }
+
+    /**
+     * appends the given value with leading zeros
+     * @param builder the builder the value is appended to
+     * @param value the value, not negative
+     * @param width the minimum number of digits
+     */
+    private static void appendPadded(@NonNull StringBuilder builder, long value, int width) {
+        long limit = 1;
+        for (int i = 1; i < width; i++) limit *= 10;
+        for (; limit > 1 && value < limit; limit /= 10) {
+            builder.append('0');
+        }
+        builder.append(value);
+    }
+
+    /**
+     * returns the kind of the field with the given letter and width
+     * @param letter the letter of the field
+     * @param width the number of letters
+     * @return the kind of the field or LITERAL if it is not supported
+     */
+    private static byte fieldKind(char letter, int width) {
+        switch (letter) {
+            case 'y': return width == 4 ? YEAR : LITERAL;
+            case 'M': return width == 2 ? MONTH : LITERAL;
+            case 'd': return width == 2 ? DAY : LITERAL;
+            case 'H': return width == 2 ? HOUR : LITERAL;
+            case 'm': return width == 2 ? MINUTE : LITERAL;
+            case 's': return width == 2 ? SECOND : LITERAL;
+            case 'S': return width == 3 ? MILLISECOND : LITERAL;
+            default: return LITERAL;
+        }
+    }
+
+    /**
+     * returns the number of days of the given month
+     * @param year the year
+     * @param month the month from 1 to 12
+     * @return the number of days of the month
+     */
+    private static int daysInMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * converts the given date of the proleptic gregorian calendar into the number of days since 01.01.1970
+     * @param year the year
+     * @param month the month from 1 to 12
+     * @param day the day of the month
+     * @return the number of days since 01.01.1970
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * converts the given number of days since 01.01.1970 into a date of the proleptic gregorian calendar
+     * @param epochDay the number of days since 01.01.1970
+     * @return the date packed as (year << 9) | (month << 5) | day
+     */
+    public static long fromEpochDay(long epochDay) {
+        long z = epochDay + 719468;
+        long era = floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (year << 9) | (month << 5) | day;
+    }
+
+    /**
+     * divides the given values and rounds the result towards negative infinity
+     * @param dividend the dividend
+     * @param divisor the positive divisor
+     * @return the largest value which is not greater than the quotient
+     */
+    private static long floorDiv(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        return dividend % divisor < 0 ? quotient - 1 : quotient;
+    }
+}
@@ -0,0 +1,211 @@
+package de.malik.utilslib.managers.time;
+
+import androidx.annotation.NonNull;
+
+public final class ImmutableTime implements Comparable<ImmutableTime> {
+
+    /**
+     * the time of midnight
+     */
+    public static final ImmutableTime ZERO = new ImmutableTime(0);
+
+    /**
+     * the values of the time
+     */
+    private final int hours, minutes, seconds, millis;
+
+    /**
+     * the time in milliseconds, computed once when the time is created
+     */
+    private final long time;
+
+    /**
+     * creates a new ImmutableTime with the given value, split the same way as Time splits it
+     * @param millis the time in milliseconds
+     * @throws IllegalArgumentException if the millis are smaller than zero
+     */
+    public ImmutableTime(long millis) {
+        if (millis < 0)
+            throw new IllegalArgumentException("Millis can not be smaller than zero");
+        hours = PackedTime.hoursOf(millis);
+        minutes = PackedTime.minutesOf(millis);
+        seconds = PackedTime.secondsOf(millis);
+        this.millis = (int) (millis - Time.toMillis(hours, minutes, seconds, 0));
+        time = millis;
+    }
+
+    /**
+     * creates a new ImmutableTime with the given values
+     * @param hours the hours of the time
+     * @param minutes the minutes of the time
+     * @param seconds the seconds of the time
+     * @param millis the milliseconds of the time
+     */
+    public ImmutableTime(int hours, int minutes, int seconds, int millis) {
+        this.hours = hours;
+        this.minutes = minutes;
+        this.seconds = seconds;
+        this.millis = millis;
+        time = Time.toMillis(hours, minutes, seconds, millis);
+    }
+
+    /**
+     * creates an ImmutableTime with the values of the given time
+     * @param time the time
+     * @return the created ImmutableTime
+     */
+    public static ImmutableTime of(@NonNull Time time) {
+        return new ImmutableTime(time.hours, time.minutes, time.seconds, time.millis);
+    }
+
+    /**
+     * creates an ImmutableTime from the given packed time
+     * @param packed the packed time, as created by PackedTime.pack()
+     * @return the created ImmutableTime
+     */
+    public static ImmutableTime ofPacked(int packed) {
+        return new ImmutableTime(PackedTime.hours(packed), PackedTime.minutes(packed), PackedTime.seconds(packed), PackedTime.millis(packed));
+    }
+
+    /**
+     * returns the hours of this time
+     * @return the hours
+     */
+    public int getHours() {
+        return hours;
+    }
+
+    /**
+     * returns the minutes of this time
+     * @return the minutes
+     */
+    public int getMinutes() {
+        return minutes;
+    }
+
+    /**
+     * returns the seconds of this time
+     * @return the seconds
+     */
+    public int getSeconds() {
+        return seconds;
+    }
+
+    /**
+     * returns the milliseconds of this time
+     * @return the milliseconds
+     */
+    public int getMillis() {
+        return millis;
+    }
+
+    /**
+     * returns this time in milliseconds. The value is computed when the time is created
+     * @return this time in milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * calculates the difference between this time and the given one
+     * @param time the subtrahend time
+     * @return the time difference between this time and the given time
+     * @throws IllegalArgumentException if the given time is greater than this time
+     */
+    public ImmutableTime getDiffTo(@NonNull ImmutableTime time) {
+        return new ImmutableTime(this.time - time.time);
+    }
+
+    /**
+     * calculates the difference between this time and the given one just like on a clock, so that there is no
+     * negative value
+     * @param time the subtrahend time
+     * @return the time difference between this time and the given one
+     */
+    public ImmutableTime getClockDiffTo(@NonNull ImmutableTime time) {
+        return new ImmutableTime(Time.clockDiffMillis(this.time, time.time));
+    }
+
+    /**
+     * calculates the difference between this time and the given one in milliseconds without creating any object
+     * @param time the subtrahend time
+     * @return the difference in milliseconds, negative if the given time is greater than this time
+     */
+    public long getDiffMillisTo(@NonNull ImmutableTime time) {
+        return this.time - time.time;
+    }
+
+    /**
+     * calculates the difference between this time and the given one in milliseconds just like on a clock, without
+     * creating any object
+     * @param time the subtrahend time
+     * @return the difference in milliseconds, there is no negative value
+     */
+    public long getClockDiffMillisTo(@NonNull ImmutableTime time) {
+        return Time.clockDiffMillis(this.time, time.time);
+    }
+
+    /**
+     * packs this time into a single int
+     * @return this time packed as described in PackedTime
+     * @throws IllegalArgumentException if a value does not fit into the packed representation
+     */
+    public int pack() {
+        return PackedTime.pack(hours, minutes, seconds, millis);
+    }
+
+    /**
+     * creates a mutable copy of this time
+     * @return a new Time with the values of this time
+     */
+    public Time toTime() {
+        return new Time(hours, minutes, seconds, millis);
+    }
+
+    /**
+     * converts this time into a time string without creating a Time
+     * @param involvements all the time values which the string will contain, in the order they will appear
+     * @return a time string containing the given values
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    public String toFormattedString(@NonNull int... involvements) {
+        return TimeFormatter.format(hours, minutes, seconds, millis, involvements);
+    }
+
+    /**
+     * creates a time string containing all time values (hours, minutes, seconds, milliseconds)
+     * @return a time string containing all time values (hours, minutes, seconds, milliseconds)
+     */
+    public String toFormattedString() {
+        return TimeFormatter.appendTo(new StringBuilder(12), hours, minutes, seconds, millis, TimeFormatter.MASK_ALL).toString();
+    }
+
+    @Override
+    public int compareTo(@NonNull ImmutableTime time) {
+        return Long.compare(this.time, time.time);
+    }
+
+    /**
+     * checks if the given object is an ImmutableTime of the same time in milliseconds, just like compareTo(). Times
+     * whose values are split differently, like 00:90 and 01:30, are equal
+     * @param obj the object which will be compared
+     * @return true if the object is an ImmutableTime with the same time in milliseconds
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ImmutableTime)) return false;
+        return time == ((ImmutableTime) obj).time;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (time ^ (time >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toFormattedString();
+    }
+}
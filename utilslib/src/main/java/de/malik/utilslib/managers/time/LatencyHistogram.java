@@ -0,0 +1,328 @@
+package de.malik.utilslib.managers.time;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    /**
+     * the number of bits of a value which decide its bucket within an octave. Values are recorded with a relative
+     * error below 1 / 2^(SUB_BUCKET_BITS - 1), so below 1.6%
+     */
+    private static final int SUB_BUCKET_BITS = 7;
+
+    /**
+     * the number of values below which every value has its own bucket
+     */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * the number of buckets of every octave above SUB_BUCKET_COUNT
+     */
+    private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+    /**
+     * the number of buckets, enough to record every positive long
+     */
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * HALF_SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+    /**
+     * the maximum number of stripes which are used by default
+     */
+    private static final int MAX_DEFAULT_STRIPES = 4;
+
+    /**
+     * the stripes the samples are recorded into, a thread always records into the same stripe
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * creates a new LatencyHistogram with one stripe per processor, at most four
+     */
+    public LatencyHistogram() {
+        this(Math.min(MAX_DEFAULT_STRIPES, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * creates a new LatencyHistogram with the given number of stripes. Threads which record at the same time only
+     * contend if they record into the same stripe. Every stripe takes about 30 KB of memory
+     * @param stripes the number of stripes, rounded up to a power of two
+     * @throws IllegalArgumentException if the number of stripes is smaller than one
+     */
+    public LatencyHistogram(int stripes) {
+        if (stripes < 1)
+            throw new IllegalArgumentException("At least one stripe is required");
+        int count = Integer.highestOneBit(stripes);
+        if (count < stripes) count <<= 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * records the given sample without locking and without creating any object
+     * @param nanos the sample in nanoseconds, negative samples are recorded as zero
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+        stripe.counts.incrementAndGet(bucketIndex(nanos));
+        stripe.count.incrementAndGet();
+        stripe.sum.addAndGet(nanos);
+        long max;
+        while (nanos > (max = stripe.max.get()) && !stripe.max.compareAndSet(max, nanos)) {
+            // retry until the maximum is at least the sample
+        }
+        long min;
+        while (nanos < (min = stripe.min.get()) && !stripe.min.compareAndSet(min, nanos)) {
+            // retry until the minimum is at most the sample
+        }
+    }
+
+    /**
+     * records the time which elapsed since the given start
+     * @param startNanos the start, as returned by System.nanoTime()
+     * @return the recorded sample in nanoseconds
+     */
+    public long recordSince(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * creates a snapshot of all recorded samples. Samples which are recorded while the snapshot is created may be
+     * missing in some of its values
+     * @return the snapshot
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        long count = 0, sum = 0, max = 0, min = Long.MAX_VALUE;
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += stripe.counts.get(i);
+            }
+            count += stripe.count.get();
+            sum += stripe.sum.get();
+            max = Math.max(max, stripe.max.get());
+            min = Math.min(min, stripe.min.get());
+        }
+        return new Snapshot(counts, count, sum, count == 0 ? 0 : min, max);
+    }
+
+    /**
+     * removes all recorded samples
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                stripe.counts.set(i, 0);
+            }
+            stripe.count.set(0);
+            stripe.sum.set(0);
+            stripe.max.set(0);
+            stripe.min.set(Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * returns the bucket of the given value. Values below SUB_BUCKET_COUNT have their own bucket, every octave above
+     * is split into HALF_SUB_BUCKET_COUNT buckets of equal width
+     * @param value the value, not negative
+     * @return the index of the bucket
+     */
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return shift * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    /**
+     * returns the greatest value of the given bucket
+     * @param index the index of the bucket
+     * @return the greatest value which is recorded into the bucket
+     */
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKET_COUNT - 1;
+        long mantissa = index % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT;
+        long highest = ((mantissa + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+
+    /**
+     * appends the given nanoseconds as time string with microseconds to the given builder, for example 00:00:01:250.040.
+     * The hours do not wrap at 24 hours, the same as in TimeFormatter.appendTo()
+     * @param builder the builder the time is appended to
+     * @param nanos the nanoseconds
+     * @return the given builder
+     */
+    public static StringBuilder appendNanos(@NonNull StringBuilder builder, long nanos) {
+        long micros = nanos / 1000;
+        TimeFormatter.appendTo(builder, micros / 1000, TimeFormatter.MASK_ALL).append('.');
+        long fraction = micros % 1000;
+        if (fraction < 100) builder.append('0');
+        if (fraction < 10) builder.append('0');
+        return builder.append(fraction);
+    }
+
+    /**
+     * the counters of the threads which record into the same stripe
+     */
+    private static final class Stripe {
+
+        /**
+         * the number of samples in every bucket
+         */
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+        /**
+         * the number of samples
+         */
+        private final AtomicLong count = new AtomicLong();
+
+        /**
+         * the sum of all samples in nanoseconds
+         */
+        private final AtomicLong sum = new AtomicLong();
+
+        /**
+         * the greatest sample in nanoseconds
+         */
+        private final AtomicLong max = new AtomicLong();
+
+        /**
+         * the smallest sample in nanoseconds
+         */
+        private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    }
+
+    /**
+     * the samples of a histogram at a certain point in time
+     */
+    public static final class Snapshot {
+
+        /**
+         * the number of samples in every bucket
+         */
+        private final long[] counts;
+
+        /**
+         * the number of samples, their sum, the smallest and the greatest sample
+         */
+        private final long count, sum, min, max;
+
+        /**
+         * creates a new Snapshot
+         * @param counts the number of samples in every bucket
+         * @param count the number of samples
+         * @param sum the sum of all samples in nanoseconds
+         * @param min the smallest sample in nanoseconds
+         * @param max the greatest sample in nanoseconds
+         */
+        private Snapshot(@NonNull long[] counts, long count, long sum, long min, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * returns the number of samples
+         * @return the number of samples
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * returns the sum of all samples
+         * @return the sum in nanoseconds
+         */
+        public long getSum() {
+            return sum;
+        }
+
+        /**
+         * returns the smallest sample
+         * @return the smallest sample in nanoseconds, 0 if there is none
+         */
+        public long getMin() {
+            return min;
+        }
+
+        /**
+         * returns the greatest sample
+         * @return the greatest sample in nanoseconds, 0 if there is none
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * returns the mean of all samples
+         * @return the mean in nanoseconds, 0 if there is no sample
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * returns the value below or at which the given percentage of the samples are. The value is the greatest value
+         * of its bucket, so it is at most 1.6% greater than the exact percentile
+         * @param percentile the percentage from 0 to 100, for example 99.9
+         * @return the percentile in nanoseconds, 0 if there is no sample
+         * @throws IllegalArgumentException if the percentage is not between 0 and 100
+         */
+        public long getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100)
+                throw new IllegalArgumentException("Percentile has to be between 0 and 100");
+            long total = 0;
+            for (long bucketCount : counts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValue(i), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * creates a string containing the count, the mean, the median, the 90th, 99th and 99.9th percentile and the
+         * maximum. The times are formatted like Time.toFormattedString() with microseconds
+         * @return the formatted snapshot
+         */
+        public String toFormattedString() {
+            StringBuilder builder = new StringBuilder(160);
+            builder.append("count=").append(count);
+            appendNanos(builder.append(", mean="), (long) getMean());
+            appendNanos(builder.append(", p50="), getPercentile(50));
+            appendNanos(builder.append(", p90="), getPercentile(90));
+            appendNanos(builder.append(", p99="), getPercentile(99));
+            appendNanos(builder.append(", p99.9="), getPercentile(99.9));
+            appendNanos(builder.append(", max="), max);
+            return builder.toString();
+        }
+
+        @Override
+        public String toString() {
+            return toFormattedString();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package de.malik.utilslib.managers.time;
+
+public final class PackedTime {
+
+    /**
+     * the number of milliseconds of one day
+     */
+    public static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    /**
+     * the largest number of hours which fits into a packed time
+     */
+    public static final int MAX_HOURS = (1 << 10) - 1;
+
+    /**
+     * the positions of the fields in a packed time: 10 bits hours, 6 bits minutes, 6 bits seconds, 10 bits millis
+     */
+    private static final int HOURS_SHIFT = 22, MINUTES_SHIFT = 16, SECONDS_SHIFT = 10;
+
+    /**
+     * the masks of the fields in a packed time after shifting them to the lowest bits
+     */
+    private static final int HOURS_MASK = 0x3FF, MINUTES_MASK = 0x3F, SECONDS_MASK = 0x3F, MILLIS_MASK = 0x3FF;
+
+    /**
+     * PackedTime only contains static methods
+     */
+    private PackedTime() {}
+
+    /**
+     * packs the given time values into a single int. The fields are ordered from the most significant to the least
+     * significant one, so packed times can be compared with compare(). Hours from 512 on set the sign bit, so they
+     * can not be compared like ints
+     * @param hours the hours from 0 to MAX_HOURS
+     * @param minutes the minutes from 0 to 59
+     * @param seconds the seconds from 0 to 59
+     * @param millis the milliseconds from 0 to 999
+     * @return the packed time
+     * @throws IllegalArgumentException if a value is out of range
+     */
+    public static int pack(int hours, int minutes, int seconds, int millis) {
+        if (hours < 0 || hours > MAX_HOURS || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59 || millis < 0 || millis > 999)
+            throw new IllegalArgumentException("Time values out of range: " + hours + ", " + minutes + ", " + seconds + ", " + millis);
+        return (hours << HOURS_SHIFT) | (minutes << MINUTES_SHIFT) | (seconds << SECONDS_SHIFT) | millis;
+    }
+
+    /**
+     * returns the hours of the given packed time
+     * @param packed the packed time
+     * @return the hours
+     */
+    public static int hours(int packed) {
+        return (packed >>> HOURS_SHIFT) & HOURS_MASK;
+    }
+
+    /**
+     * returns the minutes of the given packed time
+     * @param packed the packed time
+     * @return the minutes
+     */
+    public static int minutes(int packed) {
+        return (packed >>> MINUTES_SHIFT) & MINUTES_MASK;
+    }
+
+    /**
+     * returns the seconds of the given packed time
+     * @param packed the packed time
+     * @return the seconds
+     */
+    public static int seconds(int packed) {
+        return (packed >>> SECONDS_SHIFT) & SECONDS_MASK;
+    }
+
+    /**
+     * returns the milliseconds of the given packed time
+     * @param packed the packed time
+     * @return the milliseconds
+     */
+    public static int millis(int packed) {
+        return packed & MILLIS_MASK;
+    }
+
+    /**
+     * converts the given packed time into milliseconds
+     * @param packed the packed time
+     * @return the time in milliseconds
+     */
+    public static long toMillis(int packed) {
+        return Time.toMillis(hours(packed), minutes(packed), seconds(packed), millis(packed));
+    }
+
+    /**
+     * packs the given milliseconds into a single int
+     * @param millis the time in milliseconds
+     * @return the packed time
+     * @throws IllegalArgumentException if the millis are negative or more than MAX_HOURS hours
+     */
+    public static int fromMillis(long millis) {
+        if (millis < 0 || millis >= (MAX_HOURS + 1) * 60L * 60 * 1000)
+            throw new IllegalArgumentException("Millis out of range: " + millis);
+        int seconds = (int) (millis / 1000);
+        return ((seconds / 3600) << HOURS_SHIFT) | ((seconds / 60 % 60) << MINUTES_SHIFT)
+                | ((seconds % 60) << SECONDS_SHIFT) | (int) (millis % 1000);
+    }
+
+    /**
+     * adds the given packed times
+     * @param a the first packed time
+     * @param b the second packed time
+     * @return the sum as packed time
+     * @throws IllegalArgumentException if the sum is more than MAX_HOURS hours
+     */
+    public static int add(int a, int b) {
+        return fromMillis(toMillis(a) + toMillis(b));
+    }
+
+    /**
+     * subtracts the given packed times
+     * @param minuend the packed time
+     * @param subtrahend the subtrahend packed time
+     * @return the difference as packed time
+     * @throws IllegalArgumentException if the subtrahend is greater than the minuend
+     */
+    public static int subtract(int minuend, int subtrahend) {
+        return fromMillis(toMillis(minuend) - toMillis(subtrahend));
+    }
+
+    /**
+     * calculates the difference between the given packed times just like on a clock, so that there is no negative value
+     * @param minuend the packed time
+     * @param subtrahend the subtrahend packed time
+     * @return the difference as packed time, 24 hours are added if it would be negative
+     */
+    public static int clockDiff(int minuend, int subtrahend) {
+        return fromMillis(Time.clockDiffMillis(toMillis(minuend), toMillis(subtrahend)));
+    }
+
+    /**
+     * compares the given packed times
+     * @param a the first packed time
+     * @param b the second packed time
+     * @return a negative number, zero or a positive number if the first time is less than, equal to or greater than
+     *         the second one
+     */
+    public static int compare(int a, int b) {
+        return Integer.compare(a + Integer.MIN_VALUE, b + Integer.MIN_VALUE);
+    }
+
+    /**
+     * returns the hours of the given milliseconds the way Time splits them, from 0 to 23
+     * @param millis the time in milliseconds
+     * @return the hours
+     */
+    public static int hoursOf(long millis) {
+        return (int) (millis / (1000 * 60 * 60)) % 24;
+    }
+
+    /**
+     * returns the minutes of the given milliseconds the way Time splits them, from 0 to 59
+     * @param millis the time in milliseconds
+     * @return the minutes
+     */
+    public static int minutesOf(long millis) {
+        return (int) (millis / (1000 * 60)) % 60;
+    }
+
+    /**
+     * returns the seconds of the given milliseconds the way Time splits them, from 0 to 59
+     * @param millis the time in milliseconds
+     * @return the seconds
+     */
+    public static int secondsOf(long millis) {
+        return (int) (millis / 1000) % 60;
+    }
+}
@@ -0,0 +1,156 @@
+package de.malik.utilslib.managers.time;
+
+import androidx.annotation.NonNull;
+
+public class Stopwatch {
+
+    /**
+     * the histogram every stopped measurement is recorded into, null if the measurements are not recorded
+     */
+    private final LatencyHistogram histogram;
+
+    /**
+     * the value of System.nanoTime() when the stopwatch was started
+     */
+    private long startNanos;
+
+    /**
+     * the nanoseconds of the previous measurements which were stopped without reset
+     */
+    private long elapsedNanos;
+
+    /**
+     * true if the stopwatch is running
+     */
+    private boolean running;
+
+    /**
+     * creates a new stopwatch which is not running. A stopwatch is meant to be used by one thread
+     * @param histogram the histogram every stopped measurement is recorded into, null if they are not recorded
+     */
+    protected Stopwatch(LatencyHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    /**
+     * creates a new stopwatch which is not running
+     * @return the created stopwatch
+     */
+    public static Stopwatch create() {
+        return new Stopwatch(null);
+    }
+
+    /**
+     * creates and starts a new stopwatch
+     * @return the started stopwatch
+     */
+    public static Stopwatch createStarted() {
+        return new Stopwatch(null).start();
+    }
+
+    /**
+     * creates and starts a new stopwatch which records every stopped measurement into the given histogram
+     * @param histogram the histogram the measurements are recorded into
+     * @return the started stopwatch
+     */
+    public static Stopwatch createStarted(@NonNull LatencyHistogram histogram) {
+        return new Stopwatch(histogram).start();
+    }
+
+    /**
+     * starts the stopwatch. If it is already running, nothing happens
+     * @return this stopwatch
+     */
+    public Stopwatch start() {
+        if (!running) {
+            running = true;
+            startNanos = System.nanoTime();
+        }
+        return this;
+    }
+
+    /**
+     * stops the stopwatch and records the measurement since the last start into the histogram, if there is one
+     * @return the nanoseconds of the measurement since the last start, 0 if the stopwatch was not running
+     */
+    public long stop() {
+        if (!running) {
+            return 0;
+        }
+        long measurement = System.nanoTime() - startNanos;
+        running = false;
+        elapsedNanos += measurement;
+        if (histogram != null) {
+            histogram.record(measurement);
+        }
+        return measurement;
+    }
+
+    /**
+     * records the measurement since the last start and starts the next one at the same instant, so consecutive
+     * parts of a code path can be measured with the same stopwatch without a gap between them. The elapsed time is
+     * not reset, it keeps the sum of all laps until reset() is called. If the stopwatch was not running, it is started
+     * @return the nanoseconds of the measurement since the last start, 0 if the stopwatch was not running
+     */
+    public long lap() {
+        if (!running) {
+            start();
+            return 0;
+        }
+        long now = System.nanoTime();
+        long measurement = now - startNanos;
+        startNanos = now;
+        elapsedNanos += measurement;
+        if (histogram != null) {
+            histogram.record(measurement);
+        }
+        return measurement;
+    }
+
+    /**
+     * stops the stopwatch without recording and sets the elapsed time to zero
+     * @return this stopwatch
+     */
+    public Stopwatch reset() {
+        running = false;
+        elapsedNanos = 0;
+        return this;
+    }
+
+    /**
+     * checks if the stopwatch is running
+     * @return true if the stopwatch is running, false otherwise
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * returns the elapsed time of all measurements since the last reset, including the running one
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return running ? elapsedNanos + System.nanoTime() - startNanos : elapsedNanos;
+    }
+
+    /**
+     * returns the elapsed time of all measurements since the last reset, including the running one
+     * @return the elapsed time in milliseconds
+     */
+    public long getElapsedMillis() {
+        return getElapsedNanos() / 1000000;
+    }
+
+    /**
+     * returns the elapsed time of all measurements since the last reset as Time
+     * @return a new Time containing the elapsed time
+     */
+    public Time getElapsedTime() {
+        return new Time(getElapsedMillis());
+    }
+
+    @Override
+    public String toString() {
+        return LatencyHistogram.appendNanos(new StringBuilder(16), getElapsedNanos()).toString();
+    }
+}
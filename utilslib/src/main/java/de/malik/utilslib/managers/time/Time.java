@@ -37,13 +37,15 @@ public class Time {
     /**
      * creates a new Time with the given value
      * @param millis the time in milliseconds
+     * @throws IllegalArgumentException if the millis are smaller than zero
      */
     public Time(long millis) {
-        long[] conversion = millisToTimeValues(millis);
-        hours = (int) conversion[0];
-        minutes = (int) conversion[1];
-        seconds = (int) conversion[2];
-        this.millis = (int) conversion[3];
+        if (millis < 0)
+            throw new IllegalArgumentException("Millis can not be smaller than zero");
+        hours = PackedTime.hoursOf(millis);
+        minutes = PackedTime.minutesOf(millis);
+        seconds = PackedTime.secondsOf(millis);
+        this.millis = (int) (millis - toMillis(hours, minutes, seconds, 0));
     }
 
     /**
@@ -61,30 +63,37 @@ public class Time {
     }
 
     /**
-     * converts the given millis into a long array containing the resulting hours, minutes, seconds and milliseconds
-     * @param millis the milliseconds which will be converted
-     * @return a long array containing the resulting hours, minutes, seconds, milliseconds
+     * converts the given time values into milliseconds without creating any object
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @return the time values in milliseconds
      */
-    private static long[] millisToTimeValues(long millis) {
-        if (millis < 0)
-            throw new IllegalArgumentException("Millis can not be smaller than zero");
-        long seconds = (int) (millis / 1000) % 60;
-        long minutes = (int) (millis / (1000 * 60)) % 60;
-        long hours = (int) (millis / (1000 * 60 * 60)) % 24;
-        long millisLeft = millis - toMillis(new long[] {hours, minutes, seconds, 0});
-        return new long[] {hours, minutes, seconds, millisLeft};
+    public static long toMillis(long hours, long minutes, long seconds, long millis) {
+        return (hours * 60 * 60 * 1000) + (minutes * 60 * 1000) + (seconds * 1000) + millis;
     }
 
     /**
-     * converts the time values (given in the format hours, minutes, seconds, milliseconds) into milliseconds
-     * @param timeValues the time values which will be converted
-     * @return the time values int milliseconds
-     * @throws IllegalArgumentException if the time values are not in the format hours, minutes, seconds, milliseconds
+     * calculates the difference between the given times in milliseconds without creating any object
+     * @param minuend the time in milliseconds
+     * @param subtrahend the subtrahend time in milliseconds
+     * @return the difference, which is negative if the subtrahend is greater than the minuend
      */
-    private static long toMillis(@NonNull long[] timeValues) {
-        if (timeValues.length != 4)
-            throw new IllegalArgumentException("Wrong array content; It has to contain hours, minutes, seconds, milliseconds");
-        return (timeValues[0] * 60 * 60 * 1000) + (timeValues[1] * 60 * 1000) + (timeValues[2] * 1000) + timeValues[3];
+    public static long diffMillis(long minuend, long subtrahend) {
+        return minuend - subtrahend;
+    }
+
+    /**
+     * calculates the difference between the given times in milliseconds just like on a clock, so that there is no
+     * negative value. Different to getClockDiffTo(), no object is created
+     * @param minuend the time in milliseconds
+     * @param subtrahend the subtrahend time in milliseconds
+     * @return the difference, 24 hours are added if it would be negative
+     */
+    public static long clockDiffMillis(long minuend, long subtrahend) {
+        long diff = minuend - subtrahend;
+        return diff < 0 ? PackedTime.MILLIS_PER_DAY + diff : diff;
     }
 
     /**
@@ -93,7 +102,7 @@ public class Time {
      * @return the time difference between this time and the given time
      */
     public Time getDiffTo(@NonNull Time time) {
-        return new Time(this.getTime() - time.getTime());
+        return new Time(getDiffMillisTo(time));
     }
 
     /**
@@ -104,13 +113,7 @@ public class Time {
      * @return the time difference between this time and the given one, just like on a clock - there is no negative value
      */
     public Time getClockDiffTo(@NonNull Time time) {
-        long diff = this.getTime() - time.getTime();
-        long result = 0;
-        if (diff < 0) {
-            result = 24 * 60 * 60 * 1000 + diff;
-        }
-        else result = diff;
-        return new Time(result);
+        return new Time(getClockDiffMillisTo(time));
     }
 
     /**
@@ -118,41 +121,64 @@ public class Time {
      * @return this time in milliseconds
      */
     public long getTime() {
-        return toMillis(new long[] {hours, minutes, seconds, millis});
+        return toMillis(hours, minutes, seconds, millis);
+    }
+
+    /**
+     * calculates the difference between this time and the given one in milliseconds. Different to getDiffTo(), no
+     * object is created
+     * @param time the subtrahend time
+     * @return the difference in milliseconds, negative if the given time is greater than this time
+     */
+    public long getDiffMillisTo(@NonNull Time time) {
+        return diffMillis(getTime(), time.getTime());
     }
 
     /**
-     * converts this time into a time string
-     * @param involvements all the time values which the string will contain
+     * calculates the difference between this time and the given one in milliseconds just like on a clock.
+     * Different to getClockDiffTo(), no object is created
+     * @param time the subtrahend time
+     * @return the difference in milliseconds, there is no negative value
+     */
+    public long getClockDiffMillisTo(@NonNull Time time) {
+        return clockDiffMillis(getTime(), time.getTime());
+    }
+
+    /**
+     * packs this time into a single int
+     * @return this time packed as described in PackedTime
+     * @throws IllegalArgumentException if a value does not fit into the packed representation
+     */
+    public int pack() {
+        return PackedTime.pack(hours, minutes, seconds, millis);
+    }
+
+    /**
+     * converts this time into a time string. A negative time is written with a single minus in front of it
+     * @param involvements all the time values which the string will contain, in the order they will appear
      * @return a time string containing the given values
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
      */
     public String toFormattedString(@NonNull int... involvements) {
-        String timeString = "";
-        String[] timeParts = toFormattedString().split(TIME_SEPARATOR);
-        for (int i = 0; i < involvements.length; i++) {
-            if (i != involvements.length -1)
-                timeString += timeParts[involvements[i]] + TIME_SEPARATOR;
-            else timeString += timeParts[involvements[i]];
-        }
-        return timeString;
+        return TimeFormatter.format(hours, minutes, seconds, millis, involvements);
     }
 
     /**
-     * creates a time string containing all time values (hours, minutes, seconds, milliseconds)
+     * creates a time string containing all time values (hours, minutes, seconds, milliseconds). The milliseconds
+     * have three digits
      * @return a time string containing all time values (hours, minutes, seconds, milliseconds)
      */
     public String toFormattedString() {
-        String formattedString = "";
-        String[] formattedValues = new String[] {"0" + hours, "0" + minutes, "0" + seconds, "0" + millis};
-        long[] timeValues = new long[] {hours, minutes, seconds, millis};
-        for (int i = 0; i < timeValues.length; i++) {
-            if (timeValues[i] > 9) {
-                formattedValues[i] = formattedValues[i].replaceFirst("0", "");
-            }
-            if (i != formattedValues.length -1)
-                formattedString += formattedValues[i] + TIME_SEPARATOR;
-            else formattedString += formattedValues[i];
-        }
-        return formattedString;
+        return appendTo(new StringBuilder(12), TimeFormatter.MASK_ALL).toString();
+    }
+
+    /**
+     * appends the involved time values of this time to the given builder without creating a string
+     * @param builder the builder the time string is appended to
+     * @param mask the mask of the involved time values, see TimeFormatter.toMask()
+     * @return the given builder
+     */
+    public StringBuilder appendTo(@NonNull StringBuilder builder, int mask) {
+        return TimeFormatter.appendTo(builder, hours, minutes, seconds, millis, mask);
     }
 }
@@ -0,0 +1,344 @@
+package de.malik.utilslib.managers.time;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.CharBuffer;
+
+public final class TimeFormatter {
+
+    /**
+     * the mask bits of the time values, one bit for every Time.INVOLVEMENT constant
+     */
+    public static final int MASK_HOURS = 1 << Time.INVOLVEMENT_HOURS, MASK_MINUTES = 1 << Time.INVOLVEMENT_MINUTES,
+            MASK_SECONDS = 1 << Time.INVOLVEMENT_SECONDS, MASK_MILLISECONDS = 1 << Time.INVOLVEMENT_MILLISECONDS;
+
+    /**
+     * the mask which involves all time values
+     */
+    public static final int MASK_ALL = MASK_HOURS | MASK_MINUTES | MASK_SECONDS | MASK_MILLISECONDS;
+
+    /**
+     * the value which is returned if a text could not be parsed
+     */
+    public static final long INVALID = -1;
+
+    /**
+     * the char by which the time values are separated, the same as Time.TIME_SEPARATOR
+     */
+    private static final char SEPARATOR = ':';
+
+    /**
+     * the minimum number of digits of every time value, indexed by the involvement
+     */
+    private static final int[] WIDTHS = {2, 2, 2, 3};
+
+    /**
+     * the milliseconds of one unit of every time value, indexed by the involvement
+     */
+    private static final long[] UNIT_MILLIS = {60 * 60 * 1000, 60 * 1000, 1000, 1};
+
+    /**
+     * the exclusive upper bound of every time value which is not the first one, indexed by the involvement
+     */
+    private static final int[] LIMITS = {Integer.MAX_VALUE, 60, 60, 1000};
+
+    /**
+     * the powers of ten which fit into an int
+     */
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000};
+
+    /**
+     * TimeFormatter only contains static methods
+     */
+    private TimeFormatter() {}
+
+    /**
+     * creates the mask of the given involvements. Masks can be computed once and reused for every formatted time
+     * @param involvements the involvements, for example Time.INVOLVEMENT_HOURS and Time.INVOLVEMENT_MINUTES
+     * @return the mask containing the bits of the given involvements
+     * @throws IllegalArgumentException if an involvement is unknown
+     */
+    public static int toMask(@NonNull int... involvements) {
+        int mask = 0;
+        for (int involvement : involvements) {
+            if (involvement < Time.INVOLVEMENT_HOURS || involvement > Time.INVOLVEMENT_MILLISECONDS)
+                throw new IllegalArgumentException("Unknown involvement: " + involvement);
+            mask |= 1 << involvement;
+        }
+        return mask;
+    }
+
+    /**
+     * appends the involved time values zero padded and separated by Time.TIME_SEPARATOR to the given builder.
+     * Hours, minutes and seconds have at least two digits, milliseconds at least three. A negative time is written
+     * with a single minus in front of it, for example -01:30:00:000
+     * @param builder the builder the time is appended to
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param mask the mask of the involved time values
+     * @return the given builder
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    public static StringBuilder appendTo(@NonNull StringBuilder builder, int hours, int minutes, int seconds, int millis, int mask) {
+        try {
+            appendTime(builder, hours, minutes, seconds, millis, mask);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return builder;
+    }
+
+    /**
+     * appends the involved time values of the given milliseconds to the given builder. The hours do not wrap at 24
+     * hours, so 25 hours are formatted as 25:00:00:000 and the text is parsed back to the same milliseconds by
+     * parse(). This is different to Time(long), which only keeps the hours of the day. Negative milliseconds are
+     * written with a single minus in front of the time, which parse() does not accept
+     * @param builder the builder the time is appended to
+     * @param millis the time in milliseconds, with hours that fit into an int
+     * @param mask the mask of the involved time values
+     * @return the given builder
+     * @throws IllegalArgumentException if the hours do not fit into an int
+     */
+    public static StringBuilder appendTo(@NonNull StringBuilder builder, long millis, int mask) {
+        long hours = millis / (60 * 60 * 1000);
+        if (hours <= Integer.MIN_VALUE || hours > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Millis out of range: " + millis);
+        return appendTo(builder, (int) hours, (int) (millis / (60 * 1000) % 60), (int) (millis / 1000 % 60), (int) (millis % 1000), mask);
+    }
+
+    /**
+     * appends the involved time values zero padded and separated by Time.TIME_SEPARATOR to the given appendable. A
+     * negative time is written with a single minus in front of it
+     * @param out the appendable the time is appended to
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param mask the mask of the involved time values
+     * @throws IOException if the appendable throws an IOException
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    public static void appendTo(@NonNull Appendable out, int hours, int minutes, int seconds, int millis, int mask) throws IOException {
+        appendTime(out, hours, minutes, seconds, millis, mask);
+    }
+
+    /**
+     * writes the involved time values zero padded and separated by Time.TIME_SEPARATOR into the given array. A
+     * negative time is written with a single minus in front of it
+     * @param dest the array the time is written into, use formattedLength() to size it
+     * @param offset the position of the first char in the array
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param mask the mask of the involved time values
+     * @return the position behind the last written char
+     * @throws ArrayIndexOutOfBoundsException if the array is too small
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    public static int formatTo(@NonNull char[] dest, int offset, int hours, int minutes, int seconds, int millis, int mask) {
+        if (offset < 0 || offset > dest.length)
+            throw new ArrayIndexOutOfBoundsException("Offset: " + offset + ", length: " + dest.length);
+        CharBuffer buffer = CharBuffer.wrap(dest, offset, dest.length - offset);
+        try {
+            appendTime(buffer, hours, minutes, seconds, millis, mask);
+        } catch (BufferOverflowException ex) {
+            throw new ArrayIndexOutOfBoundsException("Array of length " + dest.length + " is too small");
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * calculates the number of chars formatTo() writes for the given time values
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param mask the mask of the involved time values
+     * @return the number of chars
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    public static int formattedLength(int hours, int minutes, int seconds, int millis, int mask) {
+        int length = isNegative(hours, minutes, seconds, millis, mask) ? 1 : 0;
+        boolean first = true;
+        for (int involvement = Time.INVOLVEMENT_HOURS; involvement <= Time.INVOLVEMENT_MILLISECONDS; involvement++) {
+            if ((mask & (1 << involvement)) == 0) continue;
+            if (!first) length++;
+            first = false;
+            int value = Math.abs(valueOf(involvement, hours, minutes, seconds, millis));
+            length += Math.max(WIDTHS[involvement], digitCount(value));
+        }
+        return length;
+    }
+
+    /**
+     * appends a single time value zero padded to the given builder. A negative value gets a minus in front of it
+     * @param builder the builder the value is appended to
+     * @param value the value, not Integer.MIN_VALUE
+     * @param involvement the involvement of the value, which decides its minimum number of digits
+     * @return the given builder
+     * @throws IllegalArgumentException if the value is Integer.MIN_VALUE or the involvement is unknown
+     */
+    public static StringBuilder appendField(@NonNull StringBuilder builder, int value, int involvement) {
+        return appendTo(builder, value, value, value, value, toMask(involvement));
+    }
+
+    /**
+     * formats the given time values in the order of the given involvements. A negative time is written with a single
+     * minus in front of it
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param involvements all the time values which the string will contain, in the order they will appear
+     * @return a time string containing the given values
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    static String format(int hours, int minutes, int seconds, int millis, @NonNull int... involvements) {
+        boolean negative = isNegative(hours, minutes, seconds, millis, toMask(involvements));
+        StringBuilder builder = new StringBuilder(4 * involvements.length + 1);
+        if (negative) builder.append('-');
+        for (int i = 0; i < involvements.length; i++) {
+            if (i != 0) builder.append(Time.TIME_SEPARATOR);
+            int value = valueOf(involvements[i], hours, minutes, seconds, millis);
+            appendField(builder, negative ? -value : value, involvements[i]);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * parses a time string containing the involved time values separated by Time.TIME_SEPARATOR, for example
+     * 08:30:00:000 for all involvements or 08:30 for hours and minutes. The number of digits of a value is not fixed.
+     * Every value besides the first one has to be in its range
+     * @param text the text
+     * @param mask the mask of the involved time values
+     * @return the time in milliseconds or INVALID if the text does not match the mask
+     */
+    public static long parse(@NonNull CharSequence text, int mask) {
+        return parse(text, 0, text.length(), mask);
+    }
+
+    /**
+     * parses the given part of a time string containing the involved time values separated by Time.TIME_SEPARATOR
+     * @param text the text
+     * @param from the first char of the time string (inclusive)
+     * @param to the end of the time string (exclusive)
+     * @param mask the mask of the involved time values
+     * @return the time in milliseconds or INVALID if the text does not match the mask
+     */
+    public static long parse(@NonNull CharSequence text, int from, int to, int mask) {
+        if ((mask & MASK_ALL) == 0 || from < 0 || to > text.length()) {
+            return INVALID;
+        }
+        long result = 0;
+        int position = from;
+        boolean first = true;
+        for (int involvement = Time.INVOLVEMENT_HOURS; involvement <= Time.INVOLVEMENT_MILLISECONDS; involvement++) {
+            if ((mask & (1 << involvement)) == 0) continue;
+            if (!first) {
+                if (position >= to || text.charAt(position) != SEPARATOR) return INVALID;
+                position++;
+            }
+            int start = position;
+            long value = 0;
+            while (position < to) {
+                int digit = text.charAt(position) - '0';
+                if (digit < 0 || digit > 9) break;
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE) return INVALID;
+                position++;
+            }
+            if (position == start || (!first && value >= LIMITS[involvement])) return INVALID;
+            result += value * UNIT_MILLIS[involvement];
+            first = false;
+        }
+        return position == to ? result : INVALID;
+    }
+
+    /**
+     * returns the time value of the given involvement
+     * @param involvement the involvement
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @return the value of the involvement
+     */
+    private static int valueOf(int involvement, int hours, int minutes, int seconds, int millis) {
+        switch (involvement) {
+            case Time.INVOLVEMENT_HOURS: return hours;
+            case Time.INVOLVEMENT_MINUTES: return minutes;
+            case Time.INVOLVEMENT_SECONDS: return seconds;
+            default: return millis;
+        }
+    }
+
+    /**
+     * appends the involved time values with a single minus in front of a negative time
+     * @param out the appendable the time is appended to
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param mask the mask of the involved time values
+     * @throws IOException if the appendable throws an IOException
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    private static void appendTime(@NonNull Appendable out, int hours, int minutes, int seconds, int millis, int mask) throws IOException {
+        boolean negative = isNegative(hours, minutes, seconds, millis, mask);
+        if (negative) out.append('-');
+        boolean first = true;
+        for (int involvement = Time.INVOLVEMENT_HOURS; involvement <= Time.INVOLVEMENT_MILLISECONDS; involvement++) {
+            if ((mask & (1 << involvement)) == 0) continue;
+            if (!first) out.append(SEPARATOR);
+            first = false;
+            int value = valueOf(involvement, hours, minutes, seconds, millis);
+            if (negative) value = -value;
+            int digits = digitCount(value);
+            for (int i = WIDTHS[involvement] - digits; i > 0; i--) out.append('0');
+            for (int i = digits - 1; i >= 0; i--) out.append((char) ('0' + value / POWERS_OF_TEN[i] % 10));
+        }
+    }
+
+    /**
+     * checks the signs of the involved time values
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @param mask the mask of the involved time values
+     * @return true if an involved value is negative
+     * @throws IllegalArgumentException if the involved values have different signs or a value is Integer.MIN_VALUE
+     */
+    private static boolean isNegative(int hours, int minutes, int seconds, int millis, int mask) {
+        boolean negative = false, positive = false;
+        for (int involvement = Time.INVOLVEMENT_HOURS; involvement <= Time.INVOLVEMENT_MILLISECONDS; involvement++) {
+            if ((mask & (1 << involvement)) == 0) continue;
+            int value = valueOf(involvement, hours, minutes, seconds, millis);
+            if (value == Integer.MIN_VALUE)
+                throw new IllegalArgumentException("Time value out of range: " + value);
+            negative |= value < 0;
+            positive |= value > 0;
+        }
+        if (negative && positive)
+            throw new IllegalArgumentException("Time values have different signs: " + hours + ", " + minutes + ", " + seconds + ", " + millis);
+        return negative;
+    }
+
+    /**
+     * counts the digits of the given value
+     * @param value the value, not negative
+     * @return the number of digits, at least one
+     */
+    private static int digitCount(int value) {
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[digits]) digits++;
+        return digits;
+    }
+}
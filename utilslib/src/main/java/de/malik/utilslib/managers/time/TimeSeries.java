@@ -0,0 +1,368 @@
+package de.malik.utilslib.managers.time;
+
+import androidx.annotation.NonNull;
+
+import de.malik.utilslib.managers.files.FileManager;
+import de.malik.utilslib.managers.files.LineIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public class TimeSeries {
+
+    /**
+     * the capacity of a new series if none is given
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * the times in milliseconds, only the first size entries are used
+     */
+    private long[] values;
+
+    /**
+     * the number of times in this series
+     */
+    private int size;
+
+    /**
+     * creates a new empty TimeSeries
+     */
+    public TimeSeries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * creates a new empty TimeSeries which can hold the given number of times before it grows
+     * @param capacity the initial capacity
+     * @throws IllegalArgumentException if the capacity is negative
+     */
+    public TimeSeries(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity can not be negative");
+        values = new long[capacity];
+    }
+
+    /**
+     * creates a new TimeSeries containing the given times
+     * @param millis the times in milliseconds
+     * @return the created series
+     */
+    public static TimeSeries of(@NonNull long... millis) {
+        TimeSeries series = new TimeSeries(millis.length);
+        series.addAll(millis);
+        return series;
+    }
+
+    /**
+     * creates a new TimeSeries containing the given times
+     * @param times the times
+     * @return the created series
+     */
+    public static TimeSeries of(@NonNull List<Time> times) {
+        TimeSeries series = new TimeSeries(times.size());
+        for (Time time : times) {
+            series.add(time.getTime());
+        }
+        return series;
+    }
+
+    /**
+     * appends the given time
+     * @param millis the time in milliseconds
+     */
+    public void add(long millis) {
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = millis;
+    }
+
+    /**
+     * appends the given time
+     * @param time the time
+     */
+    public void add(@NonNull Time time) {
+        add(time.getTime());
+    }
+
+    /**
+     * appends all the given times
+     * @param millis the times in milliseconds
+     */
+    public void addAll(@NonNull long... millis) {
+        if (size + millis.length > values.length) {
+            grow(size + millis.length);
+        }
+        System.arraycopy(millis, 0, values, size, millis.length);
+        size += millis.length;
+    }
+
+    /**
+     * returns the time at the given index
+     * @param index the index
+     * @return the time in milliseconds
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * returns the time at the given index as Time
+     * @param index the index
+     * @return a new Time containing the time at the index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Time getTime(int index) {
+        return new Time(get(index));
+    }
+
+    /**
+     * replaces the time at the given index
+     * @param index the index
+     * @param millis the new time in milliseconds
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, long millis) {
+        checkIndex(index);
+        values[index] = millis;
+    }
+
+    /**
+     * returns the number of times in this series
+     * @return the number of times
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * removes all times
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * copies the times into a new array
+     * @return an array containing the times in milliseconds
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * calculates the sum of all times
+     * @return the sum in milliseconds, 0 if the series is empty
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * returns the smallest time
+     * @return the smallest time in milliseconds
+     * @throws NoSuchElementException if the series is empty
+     */
+    public long min() {
+        checkNotEmpty();
+        long min = values[0];
+        for (int i = 1; i < size; i++) {
+            if (values[i] < min) min = values[i];
+        }
+        return min;
+    }
+
+    /**
+     * returns the greatest time
+     * @return the greatest time in milliseconds
+     * @throws NoSuchElementException if the series is empty
+     */
+    public long max() {
+        checkNotEmpty();
+        long max = values[0];
+        for (int i = 1; i < size; i++) {
+            if (values[i] > max) max = values[i];
+        }
+        return max;
+    }
+
+    /**
+     * calculates the difference of every time to its predecessor
+     * @return a new series containing size() - 1 differences, negative if a time is smaller than its predecessor
+     */
+    public TimeSeries diffs() {
+        TimeSeries diffs = new TimeSeries(Math.max(size - 1, 0));
+        for (int i = 1; i < size; i++) {
+            diffs.values[i - 1] = values[i] - values[i - 1];
+        }
+        diffs.size = Math.max(size - 1, 0);
+        return diffs;
+    }
+
+    /**
+     * calculates the difference of every time to its predecessor just like on a clock, so a time after midnight
+     * which follows a time before midnight results in a positive difference
+     * @return a new series containing size() - 1 differences, none of them is negative
+     */
+    public TimeSeries clockDiffs() {
+        TimeSeries diffs = new TimeSeries(Math.max(size - 1, 0));
+        for (int i = 1; i < size; i++) {
+            diffs.values[i - 1] = Time.clockDiffMillis(values[i], values[i - 1]);
+        }
+        diffs.size = Math.max(size - 1, 0);
+        return diffs;
+    }
+
+    /**
+     * calculates the difference of every time to the time at the same index of the given series, for example the
+     * durations of work sessions from their ends and their starts
+     * @param subtrahends the series which is subtracted
+     * @param clock if true, the differences are calculated just like on a clock, so that there is no negative value
+     * @return a new series containing the differences
+     * @throws IllegalArgumentException if the series do not have the same size
+     */
+    public TimeSeries diffTo(@NonNull TimeSeries subtrahends, boolean clock) {
+        if (subtrahends.size != size)
+            throw new IllegalArgumentException("Series have different sizes: " + size + " and " + subtrahends.size);
+        TimeSeries diffs = new TimeSeries(size);
+        for (int i = 0; i < size; i++) {
+            diffs.values[i] = clock ? Time.clockDiffMillis(values[i], subtrahends.values[i]) : values[i] - subtrahends.values[i];
+        }
+        diffs.size = size;
+        return diffs;
+    }
+
+    /**
+     * sorts the times ascending
+     */
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * searches the given time in this series, which has to be sorted ascending
+     * @param millis the time in milliseconds
+     * @return the index of the time if it is contained, otherwise (-(insertion point) - 1)
+     */
+    public int binarySearch(long millis) {
+        return Arrays.binarySearch(values, 0, size, millis);
+    }
+
+    /**
+     * searches the first time which is at the given time of day or later, in this series which has to be sorted
+     * ascending and contain times of day
+     * @param hours the hours
+     * @param minutes the minutes
+     * @param seconds the seconds
+     * @param millis the milliseconds
+     * @return the index of the first time which is not earlier, size() if all times are earlier
+     */
+    public int indexOfTimeOfDay(int hours, int minutes, int seconds, int millis) {
+        long key = Time.toMillis(hours, minutes, seconds, millis);
+        int low = 0, high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * returns a view of this series as time strings. The strings are created when they are read, so the view does not
+     * hold a string for every time. Hours are not wrapped at 24, so durations like sums are formatted completely. A
+     * negative time like a difference from diffs() gets a single minus in front of it, for example -01:30:00:000
+     * @param mask the mask of the involved time values, see TimeFormatter.toMask()
+     * @return a list of the time strings, which changes with this series
+     */
+    public List<String> asFormattedList(int mask) {
+        return new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                return TimeFormatter.appendTo(new StringBuilder(12), TimeSeries.this.get(index), mask).toString();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * prints every time as time string in its own line into the given file, so the file can be read by ULReader and
+     * readFrom(). Negative times can not be parsed by TimeFormatter.parse(), so they are rejected before anything
+     * is written
+     * @param file the file the times will be printed in
+     * @param append if true, the file will keep all it's content, otherwise the content will be overridden
+     * @param mask the mask of the involved time values, see TimeFormatter.toMask()
+     * @throws IOException if an I/O error occurred
+     * @throws IllegalArgumentException if a time of this series is negative
+     */
+    public void writeTo(@NonNull File file, boolean append, int mask) throws IOException {
+        for (int i = 0; i < size; i++) {
+            if (values[i] < 0)
+                throw new IllegalArgumentException("Negative time at index " + i + " can not be written: " + values[i]);
+        }
+        FileManager.getPrinter().print(file, append, asFormattedList(mask));
+    }
+
+    /**
+     * reads a series from a file which contains a time string in every line
+     * @param file the file which will be read
+     * @param mask the mask of the time values the time strings contain, see TimeFormatter.toMask()
+     * @return the series containing the times of all lines
+     * @throws IOException if an I/O error occurred or a line is no valid time string
+     */
+    public static TimeSeries readFrom(@NonNull File file, int mask) throws IOException {
+        TimeSeries series = new TimeSeries();
+        try (LineIterator lines = FileManager.getReader().iterateLines(file)) {
+            while (lines.hasNext()) {
+                String line = lines.next();
+                long millis = TimeFormatter.parse(line, mask);
+                if (millis == TimeFormatter.INVALID)
+                    throw new IOException("Invalid time in line " + (series.size + 1) + " of " + file + ": " + line);
+                series.add(millis);
+            }
+        }
+        return series;
+    }
+
+    /**
+     * grows the array of the times so it can hold at least the given number of times
+     * @param minCapacity the minimum capacity
+     */
+    private void grow(int minCapacity) {
+        values = Arrays.copyOf(values, Math.max(minCapacity, values.length + (values.length >> 1) + 1));
+    }
+
+    /**
+     * checks if the given index is in range
+     * @param index the index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    /**
+     * checks if this series contains any time
+     * @throws NoSuchElementException if the series is empty
+     */
+    private void checkNotEmpty() {
+        if (size == 0)
+            throw new NoSuchElementException("The series is empty");
+    }
+}
@@ -0,0 +1,51 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class AsyncFileManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readLines_everyCallerGetsItsOwnList() throws Exception {
+        File file = folder.newFile("lines.txt");
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            expected.add("line " + i);
+        }
+        FileManager.getPrinter().print(file, false, expected);
+        AsyncFileManager manager = FileManager.getAsyncFileManager(2, 16);
+        try {
+            for (int round = 0; round < 20; round++) {
+                List<CompletableFuture<ArrayList<String>>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    CompletableFuture<ArrayList<String>> future = manager.readLines(file);
+                    future.thenAccept(lines -> lines.clear());
+                    futures.add(future);
+                }
+                List<ArrayList<String>> results = new ArrayList<>();
+                for (CompletableFuture<ArrayList<String>> future : futures) {
+                    results.add(future.get());
+                }
+                for (int i = 0; i < results.size(); i++) {
+                    for (int j = i + 1; j < results.size(); j++) {
+                        assertNotSame(results.get(i), results.get(j));
+                    }
+                }
+            }
+            assertEquals(expected, manager.readLines(file).get());
+        } finally {
+            manager.close();
+        }
+    }
+}
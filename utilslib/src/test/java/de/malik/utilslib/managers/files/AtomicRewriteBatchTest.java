@@ -0,0 +1,123 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AtomicRewriteBatchTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void commit_replacesAllFilesAndLeavesNoTemporaryFiles() throws IOException {
+        File first = folder.newFile("first.txt");
+        File second = folder.newFile("second.txt");
+        FileManager.getPrinter().print(first, false, "old");
+        try (AtomicRewriteBatch batch = FileManager.getPrinter().beginAtomicBatch(Durability.DATA_SYNC)) {
+            batch.print(first, Arrays.asList("a", "b"));
+            batch.print(second, Arrays.asList("c"));
+            assertEquals(2, batch.size());
+            assertEquals(Arrays.asList("old"), FileManager.getReader().readLines(first));
+            batch.commit();
+        }
+        assertEquals(Arrays.asList("a", "b"), FileManager.getReader().readLines(first));
+        assertEquals(Arrays.asList("c"), FileManager.getReader().readLines(second));
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void close_withoutCommitKeepsTargetsUnchanged() throws IOException {
+        File file = folder.newFile("file.txt");
+        FileManager.getPrinter().print(file, false, "old");
+        try (AtomicRewriteBatch batch = FileManager.getPrinter().beginAtomicBatch(Durability.NONE)) {
+            batch.print(file, Arrays.asList("new"));
+        }
+        assertEquals(Arrays.asList("old"), FileManager.getReader().readLines(file));
+        assertNoTemporaryFiles();
+    }
+
+    @Test
+    public void print_sameFileTwiceKeepsLastRecords() throws IOException {
+        File file = folder.newFile("file.txt");
+        try (AtomicRewriteBatch batch = FileManager.getPrinter().beginAtomicBatch(Durability.NONE)) {
+            batch.print(file, Arrays.asList("first"));
+            batch.print(file, Arrays.asList("second"));
+            assertEquals(1, batch.size());
+            batch.commit();
+        }
+        assertEquals(Arrays.asList("second"), FileManager.getReader().readLines(file));
+        assertNoTemporaryFiles();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void print_afterCommitThrows() throws IOException {
+        AtomicRewriteBatch batch = FileManager.getPrinter().beginAtomicBatch(Durability.NONE);
+        batch.commit();
+        batch.print(folder.newFile("file.txt"), Arrays.asList("late"));
+    }
+
+    @Test
+    public void printAtomically_concurrentWritersNeverMixContent() throws Exception {
+        File file = folder.newFile("shared.txt");
+        int writers = 4, rewrites = 100, lines = 500;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            List<String> content = new ArrayList<>(lines);
+            for (int i = 0; i < lines; i++) {
+                content.add("writer " + w + " line " + i);
+            }
+            threads[w] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < rewrites; i++) {
+                        FileManager.getPrinter().printAtomically(file, Durability.NONE, content);
+                        assertConsistent(FileManager.getReader().readLines(file), lines);
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads[w].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertConsistent(FileManager.getReader().readLines(file), lines);
+        assertNoTemporaryFiles();
+    }
+
+    /**
+     * checks that the given lines are the complete content of exactly one writer
+     * @param content the lines of the file
+     * @param lines the number of lines every writer prints
+     */
+    private static void assertConsistent(List<String> content, int lines) {
+        assertEquals(lines, content.size());
+        String prefix = content.get(0).substring(0, content.get(0).indexOf(" line "));
+        for (int i = 0; i < lines; i++) {
+            assertEquals(prefix + " line " + i, content.get(i));
+        }
+    }
+
+    /**
+     * checks that no temporary file is left in the folder
+     */
+    private void assertNoTemporaryFiles() {
+        for (String name : folder.getRoot().list()) {
+            assertFalse(name, name.endsWith(AtomicRewriteBatch.TEMP_EXTENSION));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+public class BinaryRecordReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void nextString_readsWhatWasWritten() throws IOException {
+        File file = folder.newFile("records.bin");
+        try (BinaryRecordWriter writer = FileManager.getBinaryWriter(file, false, true)) {
+            writer.write("first");
+            writer.write("");
+            writer.write("\u00e4 third");
+        }
+        try (BinaryRecordReader reader = FileManager.getBinaryReader(file)) {
+            assertEquals("first", reader.nextString());
+            assertEquals("", reader.nextString());
+            assertEquals("\u00e4 third", reader.nextString());
+            assertNull(reader.nextString());
+        }
+    }
+
+    @Test
+    public void nextRecord_rejectsBlockLengthAboveTheMaximum() throws IOException {
+        int[][] headers = {{1, BinaryRecordWriter.MAX_BLOCK_SIZE + 1}, {1, Integer.MAX_VALUE}, {100, 10}};
+        for (int[] header : headers) {
+            File file = folder.newFile();
+            try (BinaryRecordWriter writer = FileManager.getBinaryWriter(file, false, true)) {
+                writer.write("record");
+            }
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.seek(BinaryRecordWriter.FILE_HEADER_SIZE + 1);
+                raf.writeInt(header[0]);
+                raf.writeInt(header[1]);
+            }
+            try (BinaryRecordReader reader = FileManager.getBinaryReader(file)) {
+                reader.nextRecord();
+                fail("corrupted header " + header[0] + ", " + header[1] + " was not detected");
+            } catch (IOException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().startsWith("Corrupted block header"));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void write_rejectsRecordsLargerThanTheMaximumBlockSize() throws IOException {
+        File file = folder.newFile("records.bin");
+        try (BinaryRecordWriter writer = FileManager.getBinaryWriter(file, false, false)) {
+            writer.write(new byte[BinaryRecordWriter.MAX_BLOCK_SIZE], 0, BinaryRecordWriter.MAX_BLOCK_SIZE);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+public class CompressedBlockStreamTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void printCompressed_roundTripsAcrossAppends() throws IOException {
+        File file = folder.newFile("records.z");
+        List<String> first = records(0, 20000);
+        List<String> second = records(20000, 100);
+        ULPrinter printer = FileManager.getPrinter();
+        printer.printCompressed(file, false, Deflater.DEFAULT_COMPRESSION, first);
+        printer.printCompressed(file, true, Deflater.BEST_SPEED, second);
+
+        List<String> expected = new ArrayList<>(first);
+        expected.addAll(second);
+        assertEquals(expected, FileManager.getReader().readCompressedLines(file));
+    }
+
+    @Test
+    public void iterateCompressedLines_startsAtEveryBlock() throws IOException {
+        File file = folder.newFile("records.z");
+        List<String> records = records(0, 20000);
+        FileManager.getPrinter().printCompressed(file, false, Deflater.DEFAULT_COMPRESSION, records);
+
+        long[] offsets = FileManager.getReader().findCompressedBlocks(file);
+        assertTrue(offsets.length > 1);
+        assertEquals(0, offsets[0]);
+        int previousStart = -1;
+        for (long offset : offsets) {
+            try (LineIterator lines = FileManager.getReader().iterateCompressedLines(file, offset)) {
+                String firstLine = lines.next();
+                int start = records.indexOf(firstLine);
+                assertTrue("block at " + offset + " starts inside a record", start > previousStart);
+                int index = start;
+                while (lines.hasNext()) {
+                    assertEquals(records.get(++index), lines.next());
+                }
+                assertEquals(records.size() - 1, index);
+                previousStart = start;
+            }
+        }
+    }
+
+    @Test
+    public void readCompressedLines_detectsChecksumMismatch() throws IOException {
+        File file = folder.newFile("records.z");
+        FileManager.getPrinter().printCompressed(file, false, Deflater.DEFAULT_COMPRESSION, records(0, 100));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(CompressedBlockOutputStream.BLOCK_HEADER_SIZE - 4);
+            int storedChecksum = raf.readInt();
+            raf.seek(CompressedBlockOutputStream.BLOCK_HEADER_SIZE - 4);
+            raf.writeInt(~storedChecksum);
+        }
+        try {
+            FileManager.getReader().readCompressedLines(file);
+            fail("checksum mismatch was not detected");
+        } catch (IOException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().contains("Checksum"));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void findCompressedBlocks_rejectsCorruptedHeader() throws IOException {
+        File file = folder.newFile("records.z");
+        FileManager.getPrinter().printCompressed(file, false, Deflater.DEFAULT_COMPRESSION, records(0, 100));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeInt(0);
+        }
+        FileManager.getReader().findCompressedBlocks(file);
+    }
+
+    @Test
+    public void readCompressedLines_rejectsLengthsAboveTheMaximumBlockSize() throws IOException {
+        int[][] headers = {{CompressedBlockOutputStream.MAX_BLOCK_SIZE + 1, 10},
+                {100, CompressedBlockOutputStream.MAX_COMPRESSED_BLOCK_SIZE + 1}, {Integer.MAX_VALUE, Integer.MAX_VALUE}};
+        for (int[] header : headers) {
+            File file = folder.newFile();
+            FileManager.getPrinter().printCompressed(file, false, Deflater.DEFAULT_COMPRESSION, records(0, 100));
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.seek(4);
+                raf.writeInt(header[0]);
+                raf.writeInt(header[1]);
+            }
+            try {
+                FileManager.getReader().readCompressedLines(file);
+                fail("corrupted header " + header[0] + ", " + header[1] + " was not detected");
+            } catch (IOException ex) {
+                assertEquals("Corrupted block header", ex.getMessage());
+            }
+            try {
+                FileManager.getReader().findCompressedBlocks(file);
+                fail("corrupted header " + header[0] + ", " + header[1] + " was not detected");
+            } catch (IOException ex) {
+                assertTrue(ex.getMessage(), ex.getMessage().startsWith("Corrupted block header"));
+            }
+        }
+    }
+
+    @Test
+    public void write_splitsBlocksBeforeTheyExceedTheMaximumBlockSize() throws IOException {
+        File file = folder.newFile("records.z");
+        byte[] record = new byte[CompressedBlockOutputStream.MAX_BLOCK_SIZE / 2 + 1];
+        try (CompressedBlockOutputStream out = new CompressedBlockOutputStream(new FileOutputStream(file),
+                Deflater.BEST_SPEED, CompressedBlockOutputStream.MAX_BLOCK_SIZE)) {
+            out.write(record);
+            out.endRecord();
+            out.write(record, 0, 100);
+            out.write(record, 100, record.length - 100);
+            out.endRecord();
+        }
+        assertEquals(2, FileManager.getReader().findCompressedBlocks(file).length);
+        try (CompressedBlockInputStream in = new CompressedBlockInputStream(file, 0)) {
+            long total = 0;
+            int count;
+            while ((count = in.read(record)) > 0) {
+                total += count;
+            }
+            assertEquals(2L * record.length, total);
+        }
+    }
+
+    /**
+     * creates the given number of distinct records
+     * @param from the number of the first record
+     * @param count the number of records
+     * @return the records
+     */
+    private static List<String> records(int from, int count) {
+        List<String> records = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            records.add("record;" + i + ";" + Integer.toHexString(i * 31));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,113 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FileMetricsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void disableMetrics() {
+        FileManager.METRICS.disable();
+        FileManager.METRICS.reset();
+    }
+
+    @Test
+    public void newMetrics_areDisabledAndCountNothing() throws IOException {
+        assertFalse(FileManager.METRICS.isEnabled());
+        FileMetrics metrics = new FileMetrics();
+        List<FileMetrics.Operation> notified = new ArrayList<>();
+        metrics.addListener((operation, file, nanos) -> notified.add(operation));
+        metrics.add(FileMetrics.Counter.LINES_READ, 5);
+        metrics.record(FileMetrics.Operation.READ, folder.newFile("a.txt"), 1000);
+
+        FileMetrics.Snapshot snapshot = metrics.snapshot();
+        for (FileMetrics.Counter counter : FileMetrics.Counter.values()) {
+            assertEquals(counter.name(), 0, snapshot.getCount(counter));
+        }
+        assertNull(snapshot.getLatency(FileMetrics.Operation.READ));
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    public void enabledMetrics_countPrintedAndReadLines() throws IOException {
+        File file = folder.newFile("records.txt");
+        List<String> records = Arrays.asList("first", "second", "third");
+        FileManager.METRICS.reset();
+        FileManager.METRICS.enable();
+        FileManager.getPrinter().print(file, false, records);
+        assertEquals(records, FileManager.getReader().readLines(file));
+
+        FileMetrics.Snapshot snapshot = FileManager.METRICS.snapshot();
+        assertEquals(1, snapshot.getCount(FileMetrics.Counter.FILES_WRITTEN));
+        assertEquals(3, snapshot.getCount(FileMetrics.Counter.LINES_WRITTEN));
+        assertEquals(file.length(), snapshot.getCount(FileMetrics.Counter.BYTES_WRITTEN));
+        assertEquals(1, snapshot.getCount(FileMetrics.Counter.FILES_READ));
+        assertEquals(3, snapshot.getCount(FileMetrics.Counter.LINES_READ));
+        assertEquals(file.length(), snapshot.getCount(FileMetrics.Counter.BYTES_READ));
+        assertEquals(1, snapshot.getLatency(FileMetrics.Operation.WRITE).getCount());
+        assertEquals(1, snapshot.getLatency(FileMetrics.Operation.READ).getCount());
+    }
+
+    @Test
+    public void record_notifiesEveryListenerEvenIfOneThrows() throws IOException {
+        File file = folder.newFile("a.txt");
+        FileMetrics metrics = new FileMetrics();
+        List<FileMetrics.Operation> notified = new ArrayList<>();
+        FileMetricsListener failing = (operation, target, nanos) -> {
+            throw new IllegalStateException("listener failed");
+        };
+        FileMetricsListener counting = (operation, target, nanos) -> notified.add(operation);
+        metrics.addListener(failing);
+        metrics.addListener(counting);
+        metrics.enable();
+        metrics.record(FileMetrics.Operation.OPEN, file, 10);
+        metrics.record(FileMetrics.Operation.CLOSE, file, 20);
+        assertEquals(Arrays.asList(FileMetrics.Operation.OPEN, FileMetrics.Operation.CLOSE), notified);
+        assertEquals(1, metrics.snapshot().getLatency(FileMetrics.Operation.CLOSE).getCount());
+
+        assertTrue(metrics.removeListener(counting));
+        assertFalse(metrics.removeListener(counting));
+        metrics.record(FileMetrics.Operation.FLUSH, file, 30);
+        assertEquals(2, notified.size());
+    }
+
+    @Test
+    public void exportTo_passesTheCurrentSnapshot() throws IOException {
+        FileMetrics metrics = new FileMetrics();
+        metrics.enable();
+        metrics.add(FileMetrics.Counter.FILES_CREATED, 2);
+        List<FileMetrics.Snapshot> exported = new ArrayList<>();
+        metrics.exportTo(exported::add);
+        assertEquals(1, exported.size());
+        assertEquals(2, exported.get(0).getCount(FileMetrics.Counter.FILES_CREATED));
+    }
+
+    @Test
+    public void dumpTo_doesNotCountItself() throws IOException {
+        File file = folder.newFile("metrics.txt");
+        FileManager.METRICS.reset();
+        FileManager.METRICS.enable();
+        FileManager.METRICS.dumpTo(file, false);
+
+        FileMetrics.Snapshot snapshot = FileManager.METRICS.snapshot();
+        assertEquals(0, snapshot.getCount(FileMetrics.Counter.FILES_WRITTEN));
+        assertEquals(0, snapshot.getCount(FileMetrics.Counter.LINES_WRITTEN));
+        FileManager.METRICS.disable();
+        List<String> lines = FileManager.getReader().readLines(file);
+        assertEquals(1 + FileMetrics.Counter.values().length, lines.size());
+        assertTrue(lines.get(0).startsWith("timestamp="));
+    }
+}
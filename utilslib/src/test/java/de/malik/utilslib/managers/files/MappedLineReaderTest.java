@@ -0,0 +1,78 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MappedLineReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void readLine_splitsAtEveryLineTerminator() throws IOException {
+        File file = folder.newFile("lines.txt");
+        write(file, "first\nsecond\r\nthird\rlast");
+        try (MappedLineReader reader = FileManager.getReader().openMapped(file, false)) {
+            assertEquals(4, reader.lineCount());
+            assertEquals("second", reader.readLine(1));
+            assertEquals(Arrays.asList("third", "last"), reader.readRange(2, 4));
+        }
+        assertFalse(MappedLineReader.getIndexFile(file).exists());
+    }
+
+    @Test
+    public void openMapped_rebuildsAStaleIndexFile() throws IOException {
+        File file = folder.newFile("lines.txt");
+        write(file, "aaaa\nbbbb\ncccc\n");
+        long firstModified = file.lastModified();
+        try (MappedLineReader reader = FileManager.getReader().openMapped(file, true)) {
+            assertEquals(3, reader.lineCount());
+        }
+        File indexFile = MappedLineReader.getIndexFile(file);
+        assertTrue(indexFile.isFile());
+
+        write(file, "aa\naa\nbbbbb\ncc\n");
+        assertEquals(15, file.length());
+        assertTrue(file.setLastModified(firstModified + 2000));
+        assertIndexedLines(file, Arrays.asList("aa", "aa", "bbbbb", "cc"));
+        assertIndexedLines(file, Arrays.asList("aa", "aa", "bbbbb", "cc"));
+
+        write(file, "one line only");
+        assertIndexedLines(file, Arrays.asList("one line only"));
+    }
+
+    /**
+     * opens the given file with its index file and checks its lines
+     * @param file the file
+     * @param expected the lines the file has to contain
+     * @throws IOException if an I/O error occurred
+     */
+    private static void assertIndexedLines(File file, List<String> expected) throws IOException {
+        try (MappedLineReader reader = FileManager.getReader().openMapped(file, true)) {
+            assertEquals(expected.size(), reader.lineCount());
+            assertEquals(expected, reader.readRange(0, reader.lineCount()));
+        }
+    }
+
+    /**
+     * replaces the content of the given file
+     * @param file the file
+     * @param content the new content
+     * @throws IOException if an I/O error occurred
+     */
+    private static void write(File file, String content) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes(Charset.defaultCharset()));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RecordStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reopen_restoresValuesAndRemovals() throws IOException {
+        File storeFolder = folder.newFolder("store");
+        RecordStore store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        store.put("a", "1");
+        store.put("b", "2");
+        store.put("a", "3");
+        assertTrue(store.remove("b"));
+        assertFalse(store.remove("missing"));
+        store.close();
+
+        store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        try {
+            assertEquals("3", store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals(1, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void reopen_truncatesTornEntryAtTheEnd() throws IOException {
+        File storeFolder = folder.newFolder("store");
+        RecordStore store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        store.put("a", "first");
+        store.put("b", "second");
+        store.close();
+
+        File segment = new File(storeFolder, "segment-0.dat");
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        assertEquals("first", store.get("a"));
+        assertNull(store.get("b"));
+        store.put("c", "third");
+        store.close();
+
+        store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        try {
+            assertEquals("first", store.get("a"));
+            assertNull(store.get("b"));
+            assertEquals("third", store.get("c"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void reopen_truncatesGarbageHeaderAtTheEnd() throws IOException {
+        int[][] headers = {{Integer.MAX_VALUE, 5}, {0x7FFFFFF0, 0}, {3, Integer.MAX_VALUE}, {-7, 1}, {1, -9}};
+        for (int[] header : headers) {
+            File storeFolder = folder.newFolder();
+            RecordStore store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+            store.put("a", "first");
+            store.close();
+
+            File segment = new File(storeFolder, "segment-0.dat");
+            long validLength = segment.length();
+            try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+                file.seek(validLength);
+                file.writeInt(0x12345678);
+                file.writeInt(header[0]);
+                file.writeInt(header[1]);
+                file.write(new byte[] {1, 2, 3});
+            }
+
+            store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+            try {
+                assertEquals("first", store.get("a"));
+                assertEquals(1, store.size());
+                assertEquals(validLength, segment.length());
+            } finally {
+                store.close();
+            }
+        }
+    }
+
+    @Test
+    public void reopen_dropsEntryWithWrongChecksum() throws IOException {
+        File storeFolder = folder.newFolder("store");
+        RecordStore store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        store.put("a", "first");
+        store.put("b", "second");
+        store.close();
+
+        File segment = new File(storeFolder, "segment-0.dat");
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        try {
+            assertEquals("first", store.get("a"));
+            assertNull(store.get("b"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void reopen_deletesUnfinishedCompaction() throws IOException {
+        File storeFolder = folder.newFolder("store");
+        RecordStore store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        store.put("a", "1");
+        store.close();
+
+        File unfinished = new File(storeFolder, "segment-7.compact");
+        File unfinishedHint = new File(storeFolder, "segment-0.hint.tmp");
+        for (File file : new File[] {unfinished, unfinishedHint}) {
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                out.write(new byte[] {1, 2, 3, 4});
+            }
+        }
+
+        store = FileManager.openRecordStore(storeFolder, RecordStore.DEFAULT_MAX_SEGMENT_SIZE, 0);
+        try {
+            assertFalse(unfinished.exists());
+            assertFalse(unfinishedHint.exists());
+            assertEquals("1", store.get("a"));
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void put_keysLongerThan64KiBSurviveRollAndReopen() throws IOException {
+        File storeFolder = folder.newFolder("store");
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < 70000) builder.append("\u00e4long key ");
+        String longKey = builder.toString();
+        RecordStore store = FileManager.openRecordStore(storeFolder, 1024, 0);
+        store.put(longKey, "1");
+        store.put("short", "2");
+        store.put(longKey, "3");
+        store.close();
+
+        assertTrue(new File(storeFolder, "segment-0.hint").isFile());
+        store = FileManager.openRecordStore(storeFolder, 1024, 0);
+        try {
+            assertEquals("3", store.get(longKey));
+            assertEquals("2", store.get("short"));
+            assertEquals(2, store.size());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    public void compact_keepsLatestValuesAcrossReopen() throws IOException {
+        File storeFolder = folder.newFolder("store");
+        RecordStore store = FileManager.openRecordStore(storeFolder, 128, 0);
+        Map<String, String> expected = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            String key = "key" + (i % 20);
+            String value = "value" + i;
+            store.put(key, value);
+            expected.put(key, value);
+        }
+        store.remove("key0");
+        expected.remove("key0");
+        store.compact();
+        for (Map.Entry<String, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), store.get(entry.getKey()));
+        }
+        store.close();
+        for (String name : storeFolder.list()) {
+            assertFalse(name, name.endsWith(".tmp") || name.endsWith(".compact"));
+        }
+
+        store = FileManager.openRecordStore(storeFolder, 128, 0);
+        try {
+            assertEquals(expected.size(), store.size());
+            for (Map.Entry<String, String> entry : expected.entrySet()) {
+                assertEquals(entry.getValue(), store.get(entry.getKey()));
+            }
+            assertNull(store.get("key0"));
+        } finally {
+            store.close();
+        }
+    }
+}
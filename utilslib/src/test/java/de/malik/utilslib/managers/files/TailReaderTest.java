@@ -0,0 +1,89 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class TailReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void poll_holdsBackAPartialLineUntilItsNewlineArrives() throws IOException {
+        File file = folder.newFile("log.txt");
+        TailReader reader = FileManager.getReader().tail(file, false);
+        append(file, "first\nsec");
+        assertEquals(Collections.singletonList("first"), reader.poll());
+        append(file, "ond");
+        assertEquals(Collections.emptyList(), reader.poll());
+        append(file, "\r");
+        assertEquals(Collections.singletonList("second"), reader.poll());
+        append(file, "\nthird\n");
+        assertEquals(Collections.singletonList("third"), reader.poll());
+        assertFalse(reader.isLastPollReset());
+        assertEquals(file.length(), reader.getOffset());
+    }
+
+    @Test
+    public void poll_skipsTheExistingContentIfStartedFromTheEnd() throws IOException {
+        File file = folder.newFile("log.txt");
+        append(file, "old\n");
+        TailReader reader = FileManager.getReader().tail(file, true);
+        assertEquals(Collections.emptyList(), reader.poll());
+        append(file, "new\n");
+        assertEquals(Collections.singletonList("new"), reader.poll());
+    }
+
+    @Test
+    public void poll_detectsARotatedFileByItsFingerprint() throws IOException {
+        File file = folder.newFile("log.txt");
+        append(file, "2021-01-01 first\n2021-01-01 second\n");
+        TailReader reader = FileManager.getReader().tail(file, false);
+        assertEquals(Arrays.asList("2021-01-01 first", "2021-01-01 second"), reader.poll());
+
+        File rotated = folder.newFile("log.txt.1");
+        assertTrue(rotated.delete());
+        assertTrue(file.renameTo(rotated));
+        append(file, "2021-01-02 first\n2021-01-02 second\n2021-01-02 third\n");
+        assertEquals(Arrays.asList("2021-01-02 first", "2021-01-02 second", "2021-01-02 third"), reader.poll());
+        assertTrue(reader.isLastPollReset());
+
+        append(file, "2021-01-02 fourth\n");
+        assertEquals(Collections.singletonList("2021-01-02 fourth"), reader.poll());
+        assertFalse(reader.isLastPollReset());
+    }
+
+    @Test
+    public void poll_startsAgainAfterTheFileWasTruncated() throws IOException {
+        File file = folder.newFile("log.txt");
+        append(file, "first\nsecond\n");
+        TailReader reader = FileManager.getReader().tail(file, false);
+        assertEquals(2, reader.poll().size());
+        new FileOutputStream(file).close();
+        append(file, "x\n");
+        assertEquals(Collections.singletonList("x"), reader.poll());
+        assertTrue(reader.isLastPollReset());
+    }
+
+    /**
+     * appends the given text to the given file
+     * @param file the file
+     * @param text the text which will be appended
+     * @throws IOException if an I/O error occurred
+     */
+    private static void append(File file, String text) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write(text.getBytes(Charset.defaultCharset()));
+        }
+    }
+}
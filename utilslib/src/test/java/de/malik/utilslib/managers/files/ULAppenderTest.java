@@ -0,0 +1,111 @@
+package de.malik.utilslib.managers.files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ULAppenderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void close_writesAllQueuedRecordsInOrder() throws Exception {
+        File file = folder.newFile("log.txt");
+        ULAppender appender = FileManager.getAppender(file, 16, 4, 0);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            appender.append("record " + i);
+            expected.add("record " + i);
+        }
+        appender.close();
+        assertEquals(expected, FileManager.getReader().readLines(file));
+    }
+
+    @Test
+    public void flush_writesRecordsBeforeClose() throws Exception {
+        File file = folder.newFile("log.txt");
+        ULAppender appender = FileManager.getAppender(file, 16, 0, 0);
+        try {
+            appender.append("first");
+            appender.append("second");
+            appender.flush();
+            assertEquals(0, appender.getQueuedRecords());
+            List<String> lines = FileManager.getReader().readLines(file);
+            assertEquals(2, lines.size());
+            assertEquals("first", lines.get(0));
+            assertEquals("second", lines.get(1));
+        } finally {
+            appender.close();
+        }
+    }
+
+    @Test
+    public void append_keepsExistingContent() throws Exception {
+        File file = folder.newFile("log.txt");
+        FileManager.getPrinter().print(file, false, "existing");
+        ULAppender appender = FileManager.getAppender(file);
+        appender.append("appended");
+        appender.close();
+        List<String> lines = FileManager.getReader().readLines(file);
+        assertEquals(2, lines.size());
+        assertEquals("existing", lines.get(0));
+        assertEquals("appended", lines.get(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void offer_afterCloseThrows() throws Exception {
+        ULAppender appender = FileManager.getAppender(folder.newFile("log.txt"));
+        appender.close();
+        appender.offer("too late");
+    }
+
+    @Test
+    public void close_racingProducersLoseNoAcceptedRecord() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            File file = folder.newFile("race" + round + ".txt");
+            ULAppender appender = FileManager.getAppender(file, 1024, 32, 1);
+            int producers = 4;
+            AtomicInteger accepted = new AtomicInteger();
+            CountDownLatch running = new CountDownLatch(producers);
+            Thread[] threads = new Thread[producers];
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                threads[p] = new Thread(() -> {
+                    running.countDown();
+                    for (int i = 0; ; i++) {
+                        try {
+                            if (appender.offer(producer + ":" + i)) {
+                                accepted.incrementAndGet();
+                            }
+                        } catch (IllegalStateException ex) {
+                            return;
+                        } catch (Exception ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                });
+                threads[p].start();
+            }
+            running.await();
+            appender.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            List<String> lines = FileManager.getReader().readLines(file);
+            Set<String> unique = new HashSet<>(lines);
+            assertEquals("round " + round, accepted.get(), lines.size());
+            assertEquals("round " + round, lines.size(), unique.size());
+        }
+    }
+}
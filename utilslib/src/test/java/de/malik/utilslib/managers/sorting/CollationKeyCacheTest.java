@@ -0,0 +1,54 @@
+package de.malik.utilslib.managers.sorting;
+
+import org.junit.Test;
+
+import java.text.CollationKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class CollationKeyCacheTest {
+
+    @Test
+    public void getKey_evictsTheLeastRecentlyUsedKeyAtTheMaximumSize() {
+        CollationKeyCache cache = new CollationKeyCache(Locale.GERMANY, 2);
+        CollationKey a = cache.getKey("a");
+        CollationKey b = cache.getKey("b");
+        assertSame(a, cache.getKey("a"));
+        CollationKey c = cache.getKey("c");
+        assertEquals(2, cache.size());
+
+        assertSame(a, cache.getKey("a"));
+        assertSame(c, cache.getKey("c"));
+        CollationKey newB = cache.getKey("b");
+        assertNotSame(b, newB);
+        assertEquals(0, b.compareTo(newB));
+        assertEquals(2, cache.size());
+        assertSame(c, cache.getKey("c"));
+        assertNotSame(a, cache.getKey("a"));
+        assertEquals(2, cache.getMaxSize());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsMaximumSizeBelowOne() {
+        new CollationKeyCache(Locale.GERMANY, 0);
+    }
+
+    @Test
+    public void sortCollated_withCacheEqualsSortCollatedWithLocale() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("Zebra", "\u00c4pfel", "apfel", "Apfel", "\u00d6l", "Ochse", "zebra", "\u00c4hre"));
+        CollationKeyCache cache = new CollationKeyCache(Locale.GERMANY, 3);
+        for (boolean descending : new boolean[] {false, true}) {
+            for (int i = 0; i < 2; i++) {
+                assertEquals(SortManager.sortCollated(records, Locale.GERMANY, descending),
+                        SortManager.sortCollated(records, cache, descending));
+            }
+        }
+        assertEquals(3, cache.size());
+    }
+}
@@ -0,0 +1,49 @@
+package de.malik.utilslib.managers.sorting;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.malik.utilslib.managers.files.FileManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExternalSorterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sort_failingMergePassLeavesNoRunFiles() throws IOException {
+        File input = folder.newFile("input.txt");
+        File output = folder.newFile("output.txt");
+        File tempDirectory = folder.newFolder("runs");
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            records.add(Integer.toString(i * 7919 % 1000, 36));
+        }
+        FileManager.getPrinter().print(input, false, records);
+
+        ExternalSorter sorter = new ExternalSorter(SortValue.STRING_A_TO_Z, 1, tempDirectory) {
+
+            private int created;
+
+            @Override
+            File createRunFile() throws IOException {
+                if (++created > records.size() + 1) throw new IOException("No space left");
+                return super.createRunFile();
+            }
+        };
+        try {
+            sorter.sort(input, output);
+            fail("the merge pass did not fail");
+        } catch (IOException expected) {
+        }
+        assertEquals(0, tempDirectory.list().length);
+    }
+}
@@ -0,0 +1,194 @@
+package de.malik.utilslib.managers.sorting;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.malik.utilslib.managers.files.FileManager;
+import de.malik.utilslib.managers.time.DateCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class SortManagerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void sort_datesKeepInvalidRecordsAtTheEndInOrder() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("03.01.2021", "invalid b", "01.01.2021", "31.02.2021", "02.01.2021", "invalid a"));
+        assertEquals(Arrays.asList("01.01.2021", "02.01.2021", "03.01.2021", "invalid b", "31.02.2021", "invalid a"),
+                SortManager.sort(records, SortValue.DATE_OLD_TO_NEW));
+        assertEquals(Arrays.asList("03.01.2021", "02.01.2021", "01.01.2021", "invalid b", "31.02.2021", "invalid a"),
+                SortManager.sort(records, SortValue.DATE_NEW_TO_OLD));
+    }
+
+    @Test
+    public void sort_idsAreStableAndKeepTheOriginalStrings() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("10", "-3", "007", "7", "0"));
+        assertEquals(Arrays.asList("-3", "0", "007", "7", "10"), SortManager.sort(records, SortValue.ID_ASC));
+        assertEquals(Arrays.asList("10", "007", "7", "0", "-3"), SortManager.sort(records, SortValue.ID_DESC));
+    }
+
+    @Test
+    public void sortCollated_placesUmlautsNextToTheirBaseLetters() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("Zebra", "\u00c4pfel", "Birne", "Apfel", "Ofen", "\u00d6l", "\u00c4hre"));
+        assertEquals(Arrays.asList("\u00c4hre", "Apfel", "\u00c4pfel", "Birne", "Ofen", "\u00d6l", "Zebra"),
+                SortManager.sortCollated(records, Locale.GERMANY, false));
+        assertEquals(Arrays.asList("Zebra", "\u00d6l", "Ofen", "Birne", "\u00c4pfel", "Apfel", "\u00c4hre"),
+                SortManager.sortCollated(records, Locale.GERMANY, true));
+        ArrayList<String> byCodePoint = SortManager.sort(records, SortValue.STRING_A_TO_Z);
+        assertTrue(byCodePoint.indexOf("\u00c4pfel") > byCodePoint.indexOf("Zebra"));
+    }
+
+    @Test
+    public void sortParallel_returnsTheSameResultAsSort() {
+        Random random = new Random(42);
+        ArrayList<String> ids = new ArrayList<>();
+        ArrayList<String> dates = new ArrayList<>();
+        ArrayList<String> strings = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            ids.add(Long.toString(random.nextInt(1000) - 500));
+            dates.add(random.nextInt(50) == 0 ? "no date " + i
+                    : String.format(Locale.ROOT, "%02d.%02d.%04d", 1 + random.nextInt(28), 1 + random.nextInt(12), 1990 + random.nextInt(40)));
+            strings.add(Integer.toString(random.nextInt(5000), 36));
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (SortValue sortValue : SortValue.values()) {
+                ArrayList<String> records = sortValue == SortValue.ID_ASC || sortValue == SortValue.ID_DESC ? ids
+                        : sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD ? dates : strings;
+                assertEquals(sortValue.name(), SortManager.sort(records, sortValue),
+                        SortManager.sortParallel(records, sortValue, pool, 2));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sortParallel_belowTheThresholdSortsSequentially() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("b", "a", "c"));
+        assertEquals(Arrays.asList("a", "b", "c"), SortManager.sortParallel(records, SortValue.STRING_A_TO_Z));
+    }
+
+    @Test
+    public void page_equalsTheSameRangeOfSort() {
+        Random random = new Random(16);
+        for (SortValue sortValue : SortValue.values()) {
+            ArrayList<String> records = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                records.add(record(sortValue, random));
+            }
+            ArrayList<String> sorted = SortManager.sort(records, sortValue);
+            int[][] ranges = {{0, 0}, {0, 1}, {0, 10}, {5, 20}, {100, 57}, {390, 10}, {395, 100}, {400, 5}, {1000, 5},
+                    {0, 400}, {0, Integer.MAX_VALUE}, {Integer.MAX_VALUE, Integer.MAX_VALUE}};
+            for (int[] range : ranges) {
+                int from = Math.min(range[0], sorted.size());
+                int to = (int) Math.min((long) range[0] + range[1], sorted.size());
+                assertEquals(sortValue.name() + " " + range[0] + "+" + range[1], sorted.subList(from, Math.max(from, to)),
+                        SortManager.page(records, sortValue, range[0], range[1]));
+            }
+            for (int k : new int[] {0, 1, 7, 64, 399, 400, 401}) {
+                assertEquals(sortValue.name() + " top " + k, sorted.subList(0, Math.min(k, sorted.size())),
+                        SortManager.topK(records, sortValue, k));
+            }
+        }
+    }
+
+    @Test
+    public void topK_keepsTiesAndInvalidDatesInTheirOriginalOrder() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("invalid a", "02.01.2021", "01.01.2021", "02.01.2021",
+                "31.02.2021", "01.01.2021", "invalid b"));
+        assertEquals(Arrays.asList("01.01.2021", "01.01.2021", "02.01.2021"), SortManager.topK(records, SortValue.DATE_OLD_TO_NEW, 3));
+        assertEquals(Arrays.asList("02.01.2021", "invalid a", "31.02.2021"), SortManager.page(records, SortValue.DATE_OLD_TO_NEW, 3, 3));
+        assertEquals(Arrays.asList("02.01.2021", "02.01.2021", "01.01.2021", "01.01.2021", "invalid a"),
+                SortManager.topK(records, SortValue.DATE_NEW_TO_OLD, 5));
+
+        int[] order = TopKSelector.select(records, SortValue.DATE_OLD_TO_NEW, 6);
+        assertArrayEquals(new int[] {2, 5, 1, 3, 0, 4}, order);
+        assertArrayEquals(Arrays.copyOf(SortManager.sortedOrder(records, SortValue.DATE_OLD_TO_NEW, DateCodec.GERMAN_DATE), 6), order);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void page_rejectsNegativeOffset() {
+        SortManager.page(new ArrayList<>(Arrays.asList("1", "2")), SortValue.ID_ASC, -1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void topK_rejectsNegativeK() {
+        SortManager.topK(new ArrayList<>(Arrays.asList("1", "2")), SortValue.ID_ASC, -1);
+    }
+
+    @Test
+    public void sortFile_mergesMoreRunsThanTheFanInLikeSort() throws IOException {
+        Random random = new Random(15);
+        File tempDirectory = folder.newFolder("runs");
+        for (SortValue sortValue : SortValue.values()) {
+            ArrayList<String> records = new ArrayList<>();
+            for (int i = 0; i < 300; i++) {
+                records.add(record(sortValue, random));
+            }
+            File input = folder.newFile();
+            File output = folder.newFile();
+            FileManager.getPrinter().print(input, false, records);
+            assertEquals(records.size(), SortManager.sortFile(input, output, sortValue, 1, tempDirectory));
+            assertEquals(sortValue.name(), SortManager.sort(records, sortValue), FileManager.getReader().readLines(output));
+            assertEquals(sortValue.name(), 0, tempDirectory.list().length);
+        }
+    }
+
+    @Test
+    public void dateCodec_isUsedOnEveryDateSortPath() throws IOException {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList("2021-03-01", "01.01.2021", "2020-12-31", "2021-01-15", "2021-02-30"));
+        ArrayList<String> expected = new ArrayList<>(Arrays.asList("2020-12-31", "2021-01-15", "2021-03-01", "01.01.2021", "2021-02-30"));
+        DateCodec codec = DateCodec.ISO_DATE;
+        assertEquals(expected, SortManager.sort(records, SortValue.DATE_OLD_TO_NEW, codec));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(expected, SortManager.sortParallel(records, SortValue.DATE_OLD_TO_NEW, codec, pool, 2));
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected.subList(0, 2), SortManager.topK(records, SortValue.DATE_OLD_TO_NEW, codec, 2));
+        assertEquals(expected.subList(1, 4), SortManager.page(records, SortValue.DATE_OLD_TO_NEW, codec, 1, 3));
+        assertEquals(expected, SortedRecordIndex.build(records, SortValue.DATE_OLD_TO_NEW, codec).toList());
+        SortedRecordIndex index = new SortedRecordIndex(SortValue.DATE_OLD_TO_NEW, codec);
+        for (String record : records) {
+            index.add(record);
+        }
+        assertEquals(expected, index.toList());
+
+        File input = folder.newFile("input.txt");
+        File output = folder.newFile("output.txt");
+        FileManager.getPrinter().print(input, false, records);
+        assertEquals(records.size(), SortManager.sortFile(input, output, SortValue.DATE_OLD_TO_NEW, codec, 1, folder.getRoot()));
+        assertEquals(expected, FileManager.getReader().readLines(output));
+    }
+
+    /**
+     * creates a random record which fits the given sort value. Records repeat often, so the stability is tested, and
+     * some date records are invalid
+     * @param sortValue the sort value
+     * @param random the source of randomness
+     * @return the record
+     */
+    private static String record(SortValue sortValue, Random random) {
+        if (sortValue == SortValue.ID_ASC || sortValue == SortValue.ID_DESC) {
+            return Integer.toString(random.nextInt(50) - 25);
+        }
+        if (sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD) {
+            return random.nextInt(10) == 0 ? "no date " + random.nextInt(5)
+                    : String.format(Locale.ROOT, "%02d.%02d.%04d", 1 + random.nextInt(3), 1 + random.nextInt(2), 2020 + random.nextInt(2));
+        }
+        return Integer.toString(random.nextInt(40), 36);
+    }
+}
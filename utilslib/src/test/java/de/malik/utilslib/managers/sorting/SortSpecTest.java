@@ -0,0 +1,37 @@
+package de.malik.utilslib.managers.sorting;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SortSpecTest {
+
+    @Test
+    public void sort_comparesColumnsInOrderAndPutsMissingValuesLast() {
+        ArrayList<String> records = new ArrayList<>(Arrays.asList(
+                "b;02.01.2021;2",
+                "a;01.01.2021;1",
+                "b;01.01.2021;3",
+                "a;no date;4",
+                "B;01.01.2021"));
+        SortSpec spec = new SortSpec(";", SortColumn.ofStringIgnoreCase(0, false), SortColumn.ofDate(1, true), SortColumn.ofLong(2, false));
+        assertEquals(Arrays.asList(
+                "a;01.01.2021;1",
+                "a;no date;4",
+                "b;02.01.2021;2",
+                "b;01.01.2021;3",
+                "B;01.01.2021"), SortManager.sort(records, spec));
+    }
+
+    @Test
+    public void columns_onlyDateColumnsHaveACodec() {
+        assertNull(SortColumn.ofLong(0, false).getDateCodec());
+        assertNull(SortColumn.ofString(0, false).getDateCodec());
+        assertNull(SortColumn.ofStringIgnoreCase(0, false).getDateCodec());
+        assertNotNull(SortColumn.ofDate(0, false).getDateCodec());
+        assertNotNull(SortColumn.ofDate(0, "yyyy-MM-dd", false).getDateCodec());
+    }
+}
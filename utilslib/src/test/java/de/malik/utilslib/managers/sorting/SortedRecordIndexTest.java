@@ -0,0 +1,104 @@
+package de.malik.utilslib.managers.sorting;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SortedRecordIndexTest {
+
+    @Test
+    public void addAndRemove_keepTheOrderOfSort() {
+        Random random = new Random(7);
+        for (SortValue sortValue : new SortValue[] {SortValue.ID_ASC, SortValue.DATE_NEW_TO_OLD, SortValue.STRING_A_TO_Z}) {
+            SortedRecordIndex index = new SortedRecordIndex(sortValue);
+            ArrayList<String> inserted = new ArrayList<>();
+            for (int i = 0; i < 6000; i++) {
+                if (!inserted.isEmpty() && random.nextInt(3) == 0) {
+                    String record = inserted.get(random.nextInt(inserted.size()));
+                    inserted.remove(record);
+                    assertTrue(index.remove(record));
+                }
+                else {
+                    String record = record(sortValue, random);
+                    inserted.add(record);
+                    int rank = index.add(record);
+                    assertEquals(record, index.get(rank));
+                }
+                if (i % 500 == 0) assertContent(SortManager.sort(inserted, sortValue), index);
+            }
+            assertContent(SortManager.sort(inserted, sortValue), index);
+            while (index.size() > 0) {
+                index.removeAt(random.nextInt(index.size()));
+            }
+            assertEquals(0, index.toList().size());
+        }
+    }
+
+    @Test
+    public void build_matchesAddingOneByOne() {
+        Random random = new Random(11);
+        ArrayList<String> records = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            records.add(record(SortValue.ID_DESC, random));
+        }
+        SortedRecordIndex built = SortedRecordIndex.build(records, SortValue.ID_DESC);
+        assertContent(SortManager.sort(records, SortValue.ID_DESC), built);
+        for (int i = 0; i < 2000; i++) {
+            String record = record(SortValue.ID_DESC, random);
+            records.add(record);
+            built.add(record);
+        }
+        assertContent(SortManager.sort(records, SortValue.ID_DESC), built);
+    }
+
+    @Test
+    public void indexOf_findsTheFirstEqualRecordAcrossChunks() {
+        ArrayList<String> records = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            records.add(i % 2 == 0 ? "7" : "07");
+        }
+        records.add("007");
+        SortedRecordIndex index = SortedRecordIndex.build(records, SortValue.ID_ASC);
+        assertEquals(0, index.indexOf("7"));
+        assertEquals(1, index.indexOf("07"));
+        assertEquals(2000, index.indexOf("007"));
+        assertEquals(-1, index.indexOf("0007"));
+        assertEquals(-1, index.indexOf("8"));
+        assertEquals(Arrays.asList("7", "07"), index.range("7", "8").subList(0, 2));
+        assertEquals(2001, index.range("0", "8").size());
+    }
+
+    /**
+     * checks that the index contains exactly the expected records and that ranks, get and range agree
+     * @param expected the records in sorted order
+     * @param index the index
+     */
+    private static void assertContent(ArrayList<String> expected, SortedRecordIndex index) {
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected, index.toList());
+        for (int i = 0; i < expected.size(); i += 97) {
+            assertEquals(expected.get(i), index.get(i));
+            assertEquals(index.rank(expected.get(i)), expected.indexOf(index.get(index.rank(expected.get(i)))));
+        }
+        int from = expected.size() / 3;
+        assertEquals(expected.subList(from, expected.size() - from), index.range(from, expected.size() - from));
+    }
+
+    /**
+     * creates a random record for the given sort value with many equal keys
+     * @param sortValue the sort value
+     * @param random the random source
+     * @return the record
+     */
+    private static String record(SortValue sortValue, Random random) {
+        if (sortValue == SortValue.ID_ASC || sortValue == SortValue.ID_DESC)
+            return (random.nextBoolean() ? "0" : "") + random.nextInt(300);
+        if (sortValue == SortValue.DATE_OLD_TO_NEW || sortValue == SortValue.DATE_NEW_TO_OLD)
+            return random.nextInt(20) == 0 ? "no date " + random.nextInt(50) : (10 + random.nextInt(19)) + ".0" + (1 + random.nextInt(9)) + ".2021";
+        return Integer.toString(random.nextInt(2000), 36);
+    }
+}
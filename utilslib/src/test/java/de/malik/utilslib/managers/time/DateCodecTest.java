@@ -0,0 +1,100 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DateCodecTest {
+
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+
+    @Test
+    public void parseEpochDay_parsesValidDates() {
+        assertEquals(0, DateCodec.GERMAN_DATE.parseEpochDay("01.01.1970"));
+        assertEquals(-1, DateCodec.GERMAN_DATE.parseEpochDay("31.12.1969"));
+        assertEquals(19357, DateCodec.GERMAN_DATE.parseEpochDay("31.12.2022"));
+        assertEquals(11016, DateCodec.GERMAN_DATE.parseEpochDay("29.02.2000"));
+        assertEquals(19357, DateCodec.ISO_DATE.parseEpochDay("2022-12-31"));
+        assertEquals(19357, DateCodec.GERMAN_DATE.parseEpochDay("31.12.2022;ignored"));
+    }
+
+    @Test
+    public void parseEpochDay_rejectsInvalidDates() {
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("31.02.2021"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("29.02.1900"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("00.01.2021"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("01.13.2021"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("1.1.2021"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("01-01-2021"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("01.01.202"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay("no date"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay(""));
+    }
+
+    @Test
+    public void parseEpochDay_readsAtTheOffset() {
+        String record = "id;31.12.2022;x";
+        assertEquals(19357, DateCodec.GERMAN_DATE.parseEpochDay(record, 3));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay(record, 2));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay(record, 6));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE.parseEpochDay(record, -1));
+    }
+
+    @Test
+    public void epochDay_matchesTheGregorianCalendar() {
+        GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        calendar.setGregorianChange(new java.util.Date(Long.MIN_VALUE));
+        calendar.clear();
+        calendar.set(1600, Calendar.JANUARY, 1);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 365 * 600; i += 7) {
+            long epochDay = Math.round(calendar.getTimeInMillis() / (double) MILLIS_PER_DAY);
+            int year = calendar.get(Calendar.YEAR), month = calendar.get(Calendar.MONTH) + 1, day = calendar.get(Calendar.DAY_OF_MONTH);
+            assertEquals(epochDay, DateCodec.toEpochDay(year, month, day));
+            assertEquals((year << 9) | (month << 5) | day, DateCodec.fromEpochDay(epochDay));
+
+            builder.setLength(0);
+            String text = DateCodec.GERMAN_DATE.formatEpochDay(epochDay, builder).toString();
+            assertEquals(epochDay, DateCodec.GERMAN_DATE.parseEpochDay(text));
+            calendar.add(Calendar.DAY_OF_MONTH, 7);
+        }
+    }
+
+    @Test
+    public void parseEpochMillis_readsTheOptionalTime() {
+        long day = 19357 * MILLIS_PER_DAY;
+        assertEquals(day, DateCodec.GERMAN_DATE_TIME.parseEpochMillis("31.12.2022"));
+        assertEquals(day + 86399000, DateCodec.GERMAN_DATE_TIME.parseEpochMillis("31.12.2022 23:59:59"));
+        assertEquals(day + 3723000, DateCodec.ISO_DATE_TIME.parseEpochMillis("2022-12-31T01:02:03"));
+        assertEquals(day, DateCodec.GERMAN_DATE_TIME.parseEpochMillis("31.12.2022;01:02:03"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE_TIME.parseEpochMillis("31.12.2022 24:00:00"));
+        assertEquals(DateCodec.INVALID, DateCodec.GERMAN_DATE_TIME.parseEpochMillis("31.02.2022 12:00:00"));
+    }
+
+    @Test
+    public void formatEpochMillis_roundTripsWithParse() {
+        StringBuilder builder = new StringBuilder();
+        assertEquals("31.12.2022 23:59:59",
+                DateCodec.GERMAN_DATE_TIME.formatEpochMillis(19357 * MILLIS_PER_DAY + 86399000, builder).toString());
+        builder.setLength(0);
+        assertEquals("31.12.1969 23:00:00",
+                DateCodec.GERMAN_DATE_TIME.formatEpochMillis(-3600000, builder).toString());
+        assertEquals(-3600000, DateCodec.GERMAN_DATE_TIME.parseEpochMillis(builder));
+    }
+
+    @Test
+    public void constructor_rejectsUnsupportedPatterns() {
+        String[] patterns = {"dd.MM.yy", "dd.MM", "dd.MM.yyyy[ HH:mm", "[dd.]MM.yyyy", "dd.MM.yyyy EEE", "dd.MM.yyyy 'at"};
+        for (String pattern : patterns) {
+            try {
+                new DateCodec(pattern);
+                fail(pattern);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ImmutableTimeTest {
+
+    @Test
+    public void equals_agreesWithCompareToAndHashCode() {
+        ImmutableTime split = new ImmutableTime(0, 90, 0, 0);
+        ImmutableTime normal = new ImmutableTime(1, 30, 0, 0);
+        ImmutableTime fromMillis = new ImmutableTime(Time.toMillis(1, 30, 0, 0));
+        assertEquals(0, split.compareTo(normal));
+        assertEquals(normal, split);
+        assertEquals(split, fromMillis);
+        assertEquals(split.hashCode(), normal.hashCode());
+        assertNotEquals(normal, new ImmutableTime(1, 30, 0, 1));
+        assertNotEquals(normal, normal.toTime());
+
+        Set<ImmutableTime> times = new HashSet<>();
+        times.add(split);
+        times.add(normal);
+        times.add(fromMillis);
+        assertEquals(1, times.size());
+    }
+
+    @Test
+    public void constructors_splitTheSameWayAsTime() {
+        long millis = Time.toMillis(20, 15, 30, 250);
+        ImmutableTime time = new ImmutableTime(millis);
+        assertEquals(20, time.getHours());
+        assertEquals(15, time.getMinutes());
+        assertEquals(30, time.getSeconds());
+        assertEquals(250, time.getMillis());
+        assertEquals(millis, time.getTime());
+        for (long value : new long[] {millis, Time.toMillis(26, 15, 30, 250)}) {
+            ImmutableTime immutable = new ImmutableTime(value);
+            Time mutable = new Time(value);
+            assertEquals(value, immutable.getTime());
+            assertEquals(mutable.hours, immutable.getHours());
+            assertEquals(mutable.millis, immutable.getMillis());
+            assertEquals(immutable, ImmutableTime.of(mutable));
+            assertEquals(value, immutable.toTime().getTime());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNegativeMillis() {
+        new ImmutableTime(-1);
+    }
+
+    @Test
+    public void toFormattedString_matchesTime() {
+        ImmutableTime time = new ImmutableTime(8, 5, 3, 7);
+        assertEquals("08:05:03:007", time.toFormattedString());
+        assertEquals("08:05", time.toFormattedString(Time.INVOLVEMENT_HOURS, Time.INVOLVEMENT_MINUTES));
+        assertEquals("007:03", time.toFormattedString(Time.INVOLVEMENT_MILLISECONDS, Time.INVOLVEMENT_SECONDS));
+        int[][] involvements = {{Time.INVOLVEMENT_HOURS}, {Time.INVOLVEMENT_MINUTES, Time.INVOLVEMENT_SECONDS},
+                {Time.INVOLVEMENT_HOURS, Time.INVOLVEMENT_MINUTES, Time.INVOLVEMENT_SECONDS, Time.INVOLVEMENT_MILLISECONDS}};
+        for (int[] involvement : involvements) {
+            assertEquals(time.toTime().toFormattedString(involvement), time.toFormattedString(involvement));
+        }
+    }
+
+    @Test
+    public void diffs_matchTheDifferenceOfTheirMillis() {
+        ImmutableTime late = new ImmutableTime(1, 0, 0, 0);
+        ImmutableTime early = new ImmutableTime(23, 0, 0, 0);
+        assertEquals(Time.toMillis(2, 0, 0, 0), late.getClockDiffMillisTo(early));
+        assertEquals(new ImmutableTime(2, 0, 0, 0), late.getClockDiffTo(early));
+        assertEquals(-Time.toMillis(22, 0, 0, 0), late.getDiffMillisTo(early));
+        assertEquals(new ImmutableTime(22, 0, 0, 0), early.getDiffTo(late));
+    }
+}
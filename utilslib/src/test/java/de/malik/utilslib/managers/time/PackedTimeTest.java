@@ -0,0 +1,85 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PackedTimeTest {
+
+    @Test
+    public void pack_keepsEveryField() {
+        int packed = PackedTime.pack(PackedTime.MAX_HOURS, 59, 58, 999);
+        assertEquals(PackedTime.MAX_HOURS, PackedTime.hours(packed));
+        assertEquals(59, PackedTime.minutes(packed));
+        assertEquals(58, PackedTime.seconds(packed));
+        assertEquals(999, PackedTime.millis(packed));
+        assertEquals(0, PackedTime.pack(0, 0, 0, 0));
+    }
+
+    @Test
+    public void pack_rejectsValuesOutOfRange() {
+        int[][] values = {{-1, 0, 0, 0}, {PackedTime.MAX_HOURS + 1, 0, 0, 0}, {0, 60, 0, 0}, {0, 0, 60, 0}, {0, 0, 0, 1000}, {0, 0, 0, -1}};
+        for (int[] v : values) {
+            try {
+                PackedTime.pack(v[0], v[1], v[2], v[3]);
+                fail(v[0] + ", " + v[1] + ", " + v[2] + ", " + v[3]);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void compare_ordersLikeTheMillis() {
+        int[] times = {PackedTime.pack(0, 0, 0, 1), PackedTime.pack(0, 0, 1, 0), PackedTime.pack(0, 1, 0, 0),
+                PackedTime.pack(1, 0, 0, 0), PackedTime.pack(25, 0, 0, 0), PackedTime.pack(PackedTime.MAX_HOURS, 59, 59, 999)};
+        for (int i = 0; i < times.length; i++) {
+            for (int j = 0; j < times.length; j++) {
+                assertEquals(Long.signum(PackedTime.toMillis(times[i]) - PackedTime.toMillis(times[j])),
+                        Integer.signum(PackedTime.compare(times[i], times[j])));
+            }
+        }
+    }
+
+    @Test
+    public void fromMillis_roundTripsWithToMillis() {
+        long max = (PackedTime.MAX_HOURS + 1) * 60L * 60 * 1000 - 1;
+        for (long millis = 0; millis <= max; millis += 7919 * 13) {
+            assertEquals(millis, PackedTime.toMillis(PackedTime.fromMillis(millis)));
+        }
+        assertEquals(max, PackedTime.toMillis(PackedTime.fromMillis(max)));
+        assertEquals(PackedTime.pack(26, 3, 4, 5), PackedTime.fromMillis(Time.toMillis(26, 3, 4, 5)));
+    }
+
+    @Test
+    public void fromMillis_rejectsValuesOutOfRange() {
+        long[] values = {-1, (PackedTime.MAX_HOURS + 1) * 60L * 60 * 1000};
+        for (long millis : values) {
+            try {
+                PackedTime.fromMillis(millis);
+                fail(Long.toString(millis));
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void addAndSubtract_carryBetweenFields() {
+        int a = PackedTime.pack(23, 59, 59, 999);
+        int b = PackedTime.pack(0, 0, 0, 1);
+        assertEquals(PackedTime.pack(24, 0, 0, 0), PackedTime.add(a, b));
+        assertEquals(PackedTime.pack(23, 59, 59, 998), PackedTime.subtract(a, b));
+        assertEquals(0, PackedTime.subtract(a, a));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subtract_rejectsNegativeDifferences() {
+        PackedTime.subtract(PackedTime.pack(1, 0, 0, 0), PackedTime.pack(2, 0, 0, 0));
+    }
+
+    @Test
+    public void clockDiff_wrapsAtMidnight() {
+        assertEquals(PackedTime.pack(2, 30, 0, 0), PackedTime.clockDiff(PackedTime.pack(1, 0, 0, 0), PackedTime.pack(22, 30, 0, 0)));
+        assertEquals(PackedTime.pack(1, 0, 0, 0), PackedTime.clockDiff(PackedTime.pack(23, 0, 0, 0), PackedTime.pack(22, 0, 0, 0)));
+        assertEquals(0, PackedTime.clockDiff(PackedTime.pack(8, 0, 0, 0), PackedTime.pack(8, 0, 0, 0)));
+    }
+}
@@ -0,0 +1,52 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StopwatchTest {
+
+    @Test
+    public void lap_keepsTheSumOfAllLaps() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Stopwatch stopwatch = Stopwatch.createStarted(histogram);
+        long sum = 0;
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(2);
+            long lap = stopwatch.lap();
+            assertTrue(lap > 0);
+            sum += lap;
+            assertTrue(stopwatch.isRunning());
+            assertTrue(stopwatch.getElapsedNanos() >= sum);
+        }
+        sum += stopwatch.stop();
+        assertFalse(stopwatch.isRunning());
+        assertEquals(sum, stopwatch.getElapsedNanos());
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(4, snapshot.getCount());
+        assertEquals(sum, snapshot.getSum());
+    }
+
+    @Test
+    public void reset_setsTheElapsedTimeToZeroWithoutRecording() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Stopwatch stopwatch = Stopwatch.createStarted(histogram);
+        Thread.sleep(1);
+        stopwatch.lap();
+        stopwatch.reset();
+        assertFalse(stopwatch.isRunning());
+        assertEquals(0, stopwatch.getElapsedNanos());
+        assertEquals(0, stopwatch.stop());
+        assertEquals(1, histogram.snapshot().getCount());
+    }
+
+    @Test
+    public void lap_startsAStoppedStopwatchWithoutRecording() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Stopwatch stopwatch = new Stopwatch(histogram);
+        assertEquals(0, stopwatch.lap());
+        assertTrue(stopwatch.isRunning());
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+}
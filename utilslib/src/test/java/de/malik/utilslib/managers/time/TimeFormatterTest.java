@@ -0,0 +1,90 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeFormatterTest {
+
+    @Test
+    public void appendTo_doesNotWrapHoursAndRoundTripsWithParse() {
+        long[] values = {0, 999, Time.toMillis(23, 59, 59, 999), Time.toMillis(24, 0, 0, 0), Time.toMillis(25, 0, 0, 0),
+                Time.toMillis(100, 1, 2, 3), Time.toMillis(12345, 59, 0, 7)};
+        for (long millis : values) {
+            String text = TimeFormatter.appendTo(new StringBuilder(), millis, TimeFormatter.MASK_ALL).toString();
+            assertEquals(text, millis, TimeFormatter.parse(text, TimeFormatter.MASK_ALL));
+        }
+        assertEquals("25:00:00:000", TimeFormatter.appendTo(new StringBuilder(), Time.toMillis(25, 0, 0, 0), TimeFormatter.MASK_ALL).toString());
+        assertEquals("100:01", TimeFormatter.appendTo(new StringBuilder(), Time.toMillis(100, 1, 2, 3),
+                TimeFormatter.MASK_HOURS | TimeFormatter.MASK_MINUTES).toString());
+    }
+
+    @Test
+    public void appendTo_matchesTimeSeriesAndTimeWithinADay() {
+        TimeSeries series = TimeSeries.of(Time.toMillis(8, 30, 0, 0), Time.toMillis(26, 15, 30, 250));
+        for (int i = 0; i < series.size(); i++) {
+            assertEquals(series.asFormattedList(TimeFormatter.MASK_ALL).get(i),
+                    TimeFormatter.appendTo(new StringBuilder(), series.get(i), TimeFormatter.MASK_ALL).toString());
+        }
+        assertEquals(new Time(series.get(0)).toFormattedString(),
+                TimeFormatter.appendTo(new StringBuilder(), series.get(0), TimeFormatter.MASK_ALL).toString());
+    }
+
+    @Test
+    public void appendNanos_usesTheSameRuleAsAppendTo() {
+        long nanos = Time.toMillis(25, 0, 1, 250) * 1000000 + 40000;
+        assertEquals("25:00:01:250.040", LatencyHistogram.appendNanos(new StringBuilder(), nanos).toString());
+        assertEquals("00:00:00:000.000", LatencyHistogram.appendNanos(new StringBuilder(), 999).toString());
+    }
+
+    @Test
+    public void appendTo_writesTheSignOnceForEveryTarget() throws Exception {
+        assertEquals("-01:30:00:000", TimeFormatter.appendTo(new StringBuilder(), -Time.toMillis(1, 30, 0, 0), TimeFormatter.MASK_ALL).toString());
+        assertEquals("-00:00:00:001", TimeFormatter.appendTo(new StringBuilder(), -1L, TimeFormatter.MASK_ALL).toString());
+        assertEquals("-01:30", TimeFormatter.appendTo(new StringBuilder(), -1, -30, 0, 0, TimeFormatter.MASK_HOURS | TimeFormatter.MASK_MINUTES).toString());
+
+        StringBuilder appendable = new StringBuilder();
+        TimeFormatter.appendTo((Appendable) appendable, -1, -30, 0, -5, TimeFormatter.MASK_ALL);
+        assertEquals("-01:30:00:005", appendable.toString());
+
+        char[] dest = new char[20];
+        int length = TimeFormatter.formattedLength(-1, -30, 0, -5, TimeFormatter.MASK_ALL);
+        assertEquals(13, length);
+        assertEquals(2 + length, TimeFormatter.formatTo(dest, 2, -1, -30, 0, -5, TimeFormatter.MASK_ALL));
+        assertEquals("-01:30:00:005", new String(dest, 2, length));
+
+        assertEquals("-07", TimeFormatter.appendField(new StringBuilder(), -7, Time.INVOLVEMENT_MINUTES).toString());
+        assertEquals("-01:30", new Time(-1, -30, 0, 0).toFormattedString(Time.INVOLVEMENT_HOURS, Time.INVOLVEMENT_MINUTES));
+    }
+
+    @Test
+    public void appendTo_rejectsMixedSignsAndMinValue() {
+        Runnable[] calls = {
+                () -> TimeFormatter.appendField(new StringBuilder(), Integer.MIN_VALUE, Time.INVOLVEMENT_HOURS),
+                () -> TimeFormatter.appendTo(new StringBuilder(), 1, -30, 0, 0, TimeFormatter.MASK_ALL),
+                () -> TimeFormatter.formatTo(new char[20], 0, 0, 0, Integer.MIN_VALUE, 0, TimeFormatter.MASK_ALL),
+                () -> TimeFormatter.formattedLength(Integer.MIN_VALUE, 0, 0, 0, TimeFormatter.MASK_ALL),
+                () -> TimeFormatter.appendTo(new StringBuilder(), Long.MIN_VALUE, TimeFormatter.MASK_ALL)};
+        for (int i = 0; i < calls.length; i++) {
+            try {
+                calls[i].run();
+                fail("call " + i);
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void formatTo_rejectsTooSmallArrays() {
+        TimeFormatter.formatTo(new char[5], 0, 1, 2, 3, 4, TimeFormatter.MASK_ALL);
+    }
+
+    @Test
+    public void parse_rejectsValuesOutOfRange() {
+        assertEquals(TimeFormatter.INVALID, TimeFormatter.parse("01:60:00:000", TimeFormatter.MASK_ALL));
+        assertEquals(TimeFormatter.INVALID, TimeFormatter.parse("01:00:00:1000", TimeFormatter.MASK_ALL));
+        assertEquals(TimeFormatter.INVALID, TimeFormatter.parse("01:00:00", TimeFormatter.MASK_ALL));
+        assertEquals(TimeFormatter.INVALID, TimeFormatter.parse("01:00:00:000x", TimeFormatter.MASK_ALL));
+        assertEquals(Time.toMillis(1, 30, 0, 0), TimeFormatter.parse("1:30", TimeFormatter.MASK_HOURS | TimeFormatter.MASK_MINUTES));
+    }
+}
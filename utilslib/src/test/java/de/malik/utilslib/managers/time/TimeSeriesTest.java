@@ -0,0 +1,62 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.malik.utilslib.managers.files.FileManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class TimeSeriesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void writeTo_roundTripsWithReadFrom() throws IOException {
+        File file = folder.newFile("times.txt");
+        TimeSeries series = TimeSeries.of(0, 999, Time.toMillis(8, 30, 15, 250), Time.toMillis(25, 0, 0, 0), Time.toMillis(1000, 59, 59, 999));
+        series.writeTo(file, false, TimeFormatter.MASK_ALL);
+        assertArrayEquals(series.toArray(), TimeSeries.readFrom(file, TimeFormatter.MASK_ALL).toArray());
+
+        TimeSeries clockDiffs = TimeSeries.of(Time.toMillis(22, 0, 0, 0), Time.toMillis(1, 30, 0, 0), Time.toMillis(0, 45, 0, 0)).clockDiffs();
+        clockDiffs.writeTo(file, false, TimeFormatter.MASK_ALL);
+        assertArrayEquals(clockDiffs.toArray(), TimeSeries.readFrom(file, TimeFormatter.MASK_ALL).toArray());
+    }
+
+    @Test
+    public void writeTo_rejectsNegativeTimesWithoutWriting() throws IOException {
+        File file = folder.newFile("times.txt");
+        TimeSeries.of(Time.toMillis(1, 0, 0, 0)).writeTo(file, false, TimeFormatter.MASK_ALL);
+        TimeSeries diffs = TimeSeries.of(Time.toMillis(10, 0, 0, 0), Time.toMillis(8, 30, 0, 0)).diffs();
+        assertEquals(-Time.toMillis(1, 30, 0, 0), diffs.get(0));
+        assertEquals(Arrays.asList("-01:30:00:000"), diffs.asFormattedList(TimeFormatter.MASK_ALL));
+        try {
+            diffs.writeTo(file, true, TimeFormatter.MASK_ALL);
+            fail("negative time was written");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertArrayEquals(new long[] {Time.toMillis(1, 0, 0, 0)}, TimeSeries.readFrom(file, TimeFormatter.MASK_ALL).toArray());
+    }
+
+    @Test(expected = IOException.class)
+    public void readFrom_rejectsInvalidLines() throws IOException {
+        File file = folder.newFile("times.txt");
+        FileManager.getPrinter().print(file, false, "01:00:00:000", "-01:30:00:000");
+        TimeSeries.readFrom(file, TimeFormatter.MASK_ALL);
+    }
+
+    @Test
+    public void diffs_andClockDiffsOfConsecutiveTimes() {
+        TimeSeries series = TimeSeries.of(Time.toMillis(23, 0, 0, 0), Time.toMillis(1, 0, 0, 0));
+        assertArrayEquals(new long[] {-Time.toMillis(22, 0, 0, 0)}, series.diffs().toArray());
+        assertArrayEquals(new long[] {Time.toMillis(2, 0, 0, 0)}, series.clockDiffs().toArray());
+        assertArrayEquals(new long[] {Time.toMillis(2, 0, 0, 0), 0}, series.diffTo(TimeSeries.of(Time.toMillis(21, 0, 0, 0), Time.toMillis(1, 0, 0, 0)), true).toArray());
+        assertEquals(0, TimeSeries.of().diffs().size());
+    }
+}
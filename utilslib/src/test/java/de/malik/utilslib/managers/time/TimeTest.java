@@ -0,0 +1,67 @@
+package de.malik.utilslib.managers.time;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimeTest {
+
+    @Test
+    public void toMillis_addsAllFields() {
+        assertEquals(0, Time.toMillis(0, 0, 0, 0));
+        assertEquals(3723004, Time.toMillis(1, 2, 3, 4));
+        assertEquals(3723004, new Time(1, 2, 3, 4).getTime());
+        assertEquals(100L * 60 * 60 * 1000, Time.toMillis(100, 0, 0, 0));
+    }
+
+    @Test
+    public void constructor_splitsMillisIntoFields() {
+        Time time = new Time(Time.toMillis(13, 45, 30, 250));
+        assertEquals(13, time.hours);
+        assertEquals(45, time.minutes);
+        assertEquals(30, time.seconds);
+        assertEquals(250, time.millis);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsNegativeMillis() {
+        new Time(-1);
+    }
+
+    @Test
+    public void getDiffMillisTo_isNegativeForLaterTimes() {
+        Time early = new Time(8, 15, 0, 0);
+        Time late = new Time(17, 45, 30, 500);
+        assertEquals(Time.toMillis(9, 30, 30, 500), late.getDiffMillisTo(early));
+        assertEquals(-Time.toMillis(9, 30, 30, 500), early.getDiffMillisTo(late));
+        assertEquals(0, early.getDiffMillisTo(new Time(8, 15, 0, 0)));
+        assertEquals(Time.diffMillis(late.getTime(), early.getTime()), late.getDiffMillisTo(early));
+        assertEquals(new Time(9, 30, 30, 500).getTime(), late.getDiffTo(early).getTime());
+    }
+
+    @Test
+    public void getClockDiffMillisTo_wrapsAtMidnight() {
+        Time night = new Time(22, 30, 0, 0);
+        Time morning = new Time(6, 0, 0, 0);
+        assertEquals(Time.toMillis(7, 30, 0, 0), morning.getClockDiffMillisTo(night));
+        assertEquals(Time.toMillis(16, 30, 0, 0), night.getClockDiffMillisTo(morning));
+        assertEquals(Time.toMillis(7, 30, 0, 0), morning.getClockDiffTo(night).getTime());
+        assertEquals(0, Time.clockDiffMillis(1000, 1000));
+        assertEquals(PackedTime.MILLIS_PER_DAY - 1, Time.clockDiffMillis(0, 1));
+    }
+
+    @Test
+    public void pack_matchesPackedTime() {
+        Time time = new Time(12, 34, 56, 789);
+        int packed = time.pack();
+        assertEquals(PackedTime.pack(12, 34, 56, 789), packed);
+        assertEquals(time.getTime(), PackedTime.toMillis(packed));
+    }
+
+    @Test
+    public void toFormattedString_padsEveryField() {
+        assertEquals("01:02:03:004", new Time(1, 2, 3, 4).toFormattedString());
+        assertEquals("05:07", new Time(5, 7, 0, 0).toFormattedString(Time.INVOLVEMENT_HOURS, Time.INVOLVEMENT_MINUTES));
+        assertEquals("07:05", new Time(5, 7, 0, 0).toFormattedString(Time.INVOLVEMENT_MINUTES, Time.INVOLVEMENT_HOURS));
+    }
+}